@@ -0,0 +1,58 @@
+package vn.vinaacademy.security.benchmark;
+
+import io.grpc.ManagedChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Cost of building the authenticated platform channel with the default TCP settings, and of
+ * getting the shared channel that clients use per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcChannelFactoryBenchmark {
+
+  private GrpcChannelFactory channelFactory;
+
+  @Setup
+  public void setUp() {
+    channelFactory =
+        new GrpcChannelFactory(
+            new SecurityClientProperties(),
+            new OAuth2GrpcClientInterceptor(InProcessPlatform.stubClientManager()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    channelFactory.shutdown();
+  }
+
+  @Benchmark
+  public ManagedChannel createAuthChannel() {
+    ManagedChannel channel = channelFactory.createAuthChannel();
+    channel.shutdownNow();
+    return channel;
+  }
+
+  @Benchmark
+  public ManagedChannel getAuthChannel() {
+    return channelFactory.getAuthChannel();
+  }
+}
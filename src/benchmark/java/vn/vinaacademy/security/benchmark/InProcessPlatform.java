@@ -0,0 +1,111 @@
+package vn.vinaacademy.security.benchmark;
+
+import com.vinaacademy.grpc.JwtServiceGrpc;
+import com.vinaacademy.grpc.TokenRequest;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * In-process stand-in for the platform server's JwtService, so benchmarks measure the client side
+ * of the auth path without network noise.
+ */
+final class InProcessPlatform implements AutoCloseable {
+  static final String VALID_TOKEN = token("{\"sub\":\"u1\",\"jti\":\"bench-1\",\"exp\":4102444800}");
+  static final String INVALID_TOKEN = token("{\"sub\":\"u2\",\"jti\":\"bench-2\",\"exp\":4102444800}");
+
+  private final String name = "security-client-bench-" + UUID.randomUUID();
+  private final Server server;
+
+  InProcessPlatform() throws IOException {
+    server =
+        InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new StubJwtService())
+            .build()
+            .start();
+  }
+
+  /** Channel factory whose channels point at this in-process server. */
+  GrpcChannelFactory channelFactory() {
+    SecurityClientProperties properties = new SecurityClientProperties();
+    OAuth2GrpcClientInterceptor interceptor = new OAuth2GrpcClientInterceptor(stubClientManager());
+    return new GrpcChannelFactory(properties, interceptor) {
+      @Override
+      public ManagedChannel createChannel(TrafficClass trafficClass) {
+        return InProcessChannelBuilder.forName(name).directExecutor().intercept(interceptor).build();
+      }
+    };
+  }
+
+  /** Client manager that always hands out the same service token, like a warm OAuth2 cache. */
+  static OAuth2AuthorizedClientManager stubClientManager() {
+    ClientRegistration registration =
+        ClientRegistration.withRegistrationId(OAuth2ClientConfig.CLIENT_REGISTRATION_ID)
+            .clientId("bench-client")
+            .tokenUri("http://localhost/oauth2/token")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .build();
+    OAuth2AccessToken accessToken =
+        new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER,
+            "bench-service-token",
+            Instant.now(),
+            Instant.now().plusSeconds(3600));
+    OAuth2AuthorizedClient client =
+        new OAuth2AuthorizedClient(registration, "internal-service", accessToken);
+    return request -> client;
+  }
+
+  @Override
+  public void close() {
+    server.shutdownNow();
+  }
+
+  private static String token(String payloadJson) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+    String payload = encoder.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+    return header + "." + payload + ".c2lnbmF0dXJl";
+  }
+
+  private static final class StubJwtService extends JwtServiceGrpc.JwtServiceImplBase {
+    @Override
+    public void validateToken(
+        TokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+      ValidateTokenResponse response =
+          VALID_TOKEN.equals(request.getToken())
+              ? ValidateTokenResponse.newBuilder()
+                  .setIsValid(true)
+                  .setUserId("u1")
+                  .setEmail("u1@vinaacademy.vn")
+                  .setFullName("Bench User")
+                  .setRoles("ROLE_student,ROLE_instructor")
+                  .build()
+              : ValidateTokenResponse.newBuilder()
+                  .setIsValid(false)
+                  .setMessage("Invalid token")
+                  .build();
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    }
+  }
+}
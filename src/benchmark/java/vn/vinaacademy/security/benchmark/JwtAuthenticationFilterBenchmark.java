@@ -0,0 +1,97 @@
+package vn.vinaacademy.security.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.cache.TokenValidationCache;
+import vn.vinaacademy.security.filter.JwtAuthenticationFilter;
+import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/** Full filter pass for a bearer request against an in-process JwtService stub. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+  @Param({"valid", "invalid", "anonymous"})
+  public String tokenKind;
+
+  @Param({"false", "true"})
+  public boolean tokenCache;
+
+  /** Lazy validation with a handler that never reads the security context */
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  private InProcessPlatform platform;
+  private JwtAuthenticationFilter filter;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+  private FilterChain chain;
+  private UserContext lastContext;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    platform = new InProcessPlatform();
+    SecurityClientMetrics metrics = new SecurityClientMetrics(new SimpleMeterRegistry());
+    SecurityClientProperties properties = new SecurityClientProperties();
+    properties.getFilter().setLazy(lazy);
+    TokenAuthenticationService authenticationService =
+        new TokenAuthenticationService(new JwtGrpcClient(platform.channelFactory(), metrics));
+    filter = new JwtAuthenticationFilter(authenticationService, properties);
+
+    if (tokenCache) {
+      properties.getTokenCache().setEnabled(true);
+      ReflectionTestUtils.setField(
+          authenticationService, "tokenCache", new TokenValidationCache(properties, metrics));
+    }
+
+    request = new MockHttpServletRequest("GET", "/api/courses");
+    switch (tokenKind) {
+      case "valid" -> request.addHeader("Authorization", "Bearer " + InProcessPlatform.VALID_TOKEN);
+      case "invalid" ->
+          request.addHeader("Authorization", "Bearer " + InProcessPlatform.INVALID_TOKEN);
+      default -> {}
+    }
+    response = new MockHttpServletResponse();
+    chain =
+        lazy
+            ? (req, res) -> lastContext = null
+            : (req, res) -> lastContext = SecurityContextHolder.getContext();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    platform.close();
+  }
+
+  @Benchmark
+  public UserContext doFilter() throws Exception {
+    filter.doFilter(request, response, chain);
+    return lastContext;
+  }
+}
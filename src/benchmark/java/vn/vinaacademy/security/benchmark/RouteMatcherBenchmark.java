@@ -0,0 +1,60 @@
+package vn.vinaacademy.security.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.route.AuthMode;
+import vn.vinaacademy.security.route.RouteMatcher;
+
+/** Per-request cost of resolving the authentication mode from a compiled route table. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteMatcherBenchmark {
+
+  @Param({"/api/v1/courses/java-basics/lessons", "/api/v1/users/me", "/unknown/path"})
+  public String path;
+
+  private RouteMatcher matcher;
+
+  @Setup
+  public void setUp() {
+    SecurityClientProperties.Filter config = new SecurityClientProperties.Filter();
+    config.setRoutes(
+        List.of(
+            route("/api/v1/courses/**", List.of("GET"), AuthMode.SKIP),
+            route("/api/v1/categories/**", List.of("GET"), AuthMode.SKIP),
+            route("/api/v1/courses/*/enroll", List.of(), AuthMode.REQUIRED),
+            route("/api/v1/users/**", List.of(), AuthMode.REQUIRED),
+            route("/api/v1/admin/**", List.of(), AuthMode.REQUIRED)));
+    matcher = RouteMatcher.compile(config);
+  }
+
+  @Benchmark
+  public AuthMode match() {
+    return matcher.match("GET", path);
+  }
+
+  private static SecurityClientProperties.Route route(
+      String pattern, List<String> methods, AuthMode mode) {
+    SecurityClientProperties.Route route = new SecurityClientProperties.Route();
+    route.setPattern(pattern);
+    route.setMethods(methods);
+    route.setMode(mode);
+    return route;
+  }
+}
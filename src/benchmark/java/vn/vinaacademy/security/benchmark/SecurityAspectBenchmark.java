@@ -0,0 +1,88 @@
+package vn.vinaacademy.security.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import vn.vinaacademy.security.annotation.HasAnyRole;
+import vn.vinaacademy.security.annotation.PreAuthorize;
+import vn.vinaacademy.security.aspect.SecurityAspect;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+
+/** Advice overhead of SecurityAspect on a proxied bean, relative to a direct call. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityAspectBenchmark {
+
+  private SecuredService target;
+  private SecuredService proxy;
+
+  @Setup
+  public void setUp() {
+    target = new SecuredService();
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(
+        new SecurityAspect(
+            new SecurityExpressionEvaluator(),
+            new SecurityClientMetrics(new SimpleMeterRegistry())));
+    proxy = factory.getProxy();
+
+    SecurityContextHolder.setContext(
+        UserContext.builder()
+            .userId("u1")
+            .roles(Set.of("ROLE_student", "ROLE_instructor"))
+            .authenticated(true)
+            .build());
+  }
+
+  @TearDown
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public int baseline() {
+    return target.hasAnyRole(1);
+  }
+
+  @Benchmark
+  public int hasAnyRole() {
+    return proxy.hasAnyRole(1);
+  }
+
+  @Benchmark
+  public int preAuthorize() {
+    return proxy.preAuthorize(1);
+  }
+
+  public static class SecuredService {
+    @HasAnyRole({"admin", "instructor"})
+    public int hasAnyRole(int value) {
+      return value + 1;
+    }
+
+    @PreAuthorize("hasAnyRole('admin', 'instructor')")
+    public int preAuthorize(int value) {
+      return value + 1;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package vn.vinaacademy.security.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+
+/** SpEL evaluation cost for representative @PreAuthorize expressions. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityExpressionEvaluatorBenchmark {
+
+  @Param({
+    "hasRole('admin')",
+    "hasAnyRole('admin', 'staff', 'instructor')",
+    "isAuthenticated() and #user.userId == 'u1'"
+  })
+  public String expression;
+
+  private SecurityExpressionEvaluator evaluator;
+  private UserContext userContext;
+
+  @Setup
+  public void setUp() {
+    evaluator = new SecurityExpressionEvaluator();
+    userContext =
+        UserContext.builder()
+            .userId("u1")
+            .email("u1@vinaacademy.vn")
+            .roles(Set.of("ROLE_student", "ROLE_instructor"))
+            .authenticated(true)
+            .build();
+  }
+
+  @Benchmark
+  public boolean evaluate() {
+    return evaluator.evaluate(expression, userContext, null);
+  }
+}
@@ -0,0 +1,54 @@
+package vn.vinaacademy.security.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vn.vinaacademy.security.authentication.UserContext;
+
+/** Role parsing and role checks done for every authenticated request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserContextBenchmark {
+
+  private static final String ROLES = "ROLE_student,ROLE_instructor,ROLE_staff";
+
+  private UserContext userContext;
+
+  @Setup
+  public void setUp() {
+    userContext =
+        UserContext.builder()
+            .userId("u1")
+            .roles(UserContext.parseRoles(ROLES))
+            .authenticated(true)
+            .build();
+  }
+
+  @Benchmark
+  public Set<String> parseRoles() {
+    return UserContext.parseRoles(ROLES);
+  }
+
+  @Benchmark
+  public boolean hasAnyRoleHit() {
+    return userContext.hasAnyRole("admin", "staff");
+  }
+
+  @Benchmark
+  public boolean hasAnyRoleMiss() {
+    return userContext.hasAnyRole("admin", "guest");
+  }
+}
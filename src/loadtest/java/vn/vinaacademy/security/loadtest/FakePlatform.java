@@ -0,0 +1,217 @@
+package vn.vinaacademy.security.loadtest;
+
+import com.vinaacademy.grpc.GetUserByIdRequest;
+import com.vinaacademy.grpc.GetUserByIdResponse;
+import com.vinaacademy.grpc.GetUserByIdsRequest;
+import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.JwtServiceGrpc;
+import com.vinaacademy.grpc.RevokedTokensRequest;
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import com.vinaacademy.grpc.TokenRequest;
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.UserServiceGrpc;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process JwtService and UserService with a log-normal latency distribution, a random error
+ * rate and a fixed population of valid and invalid tokens. Counts the calls it serves, so the
+ * harness can report backend calls per inbound request.
+ */
+final class FakePlatform implements AutoCloseable {
+  private static final String[] ROLES = {
+    "ROLE_student", "ROLE_student", "ROLE_student", "ROLE_instructor", "ROLE_admin"
+  };
+
+  /**
+   * @param latencyMedianMs median service time of each call
+   * @param latencyP99Ms 99th percentile service time, at least the median
+   * @param errorRate fraction of calls failing with UNAVAILABLE
+   * @param tokens number of distinct valid tokens
+   * @param invalidRatio invalid tokens as a fraction of valid tokens
+   */
+  record Options(
+      double latencyMedianMs,
+      double latencyP99Ms,
+      double errorRate,
+      int tokens,
+      double invalidRatio) {}
+
+  private final String name = "security-client-loadtest-" + UUID.randomUUID();
+  private final Options options;
+  private final double mu;
+  private final double sigma;
+  private final Map<String, String> userIdsByToken = new HashMap<>();
+  private final List<String> validTokens = new ArrayList<>();
+  private final List<String> invalidTokens = new ArrayList<>();
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final Server server;
+
+  final AtomicLong validateCalls = new AtomicLong();
+  final AtomicLong userCalls = new AtomicLong();
+
+  FakePlatform(Options options) throws IOException {
+    this.options = options;
+    this.mu = Math.log(Math.max(options.latencyMedianMs(), 0.001));
+    // z-score of the 99th percentile of the standard normal distribution
+    this.sigma = Math.max(0, Math.log(options.latencyP99Ms() / options.latencyMedianMs()) / 2.326);
+    for (int i = 0; i < options.tokens(); i++) {
+      String userId =
+          UUID.nameUUIDFromBytes(("user-" + i).getBytes(StandardCharsets.UTF_8)).toString();
+      String token = token(userId, "valid-" + i);
+      validTokens.add(token);
+      userIdsByToken.put(token, userId);
+    }
+    for (int i = 0; i < (int) (options.tokens() * options.invalidRatio()); i++) {
+      invalidTokens.add(token("unknown-" + i, "invalid-" + i));
+    }
+    server =
+        InProcessServerBuilder.forName(name)
+            .executor(executor)
+            .addService(new FakeJwtService())
+            .addService(new FakeUserService())
+            .build()
+            .start();
+  }
+
+  /** Address for {@code security.grpc.grpc-address} */
+  String address() {
+    return "inprocess:" + name;
+  }
+
+  List<String> validTokens() {
+    return validTokens;
+  }
+
+  List<String> invalidTokens() {
+    return invalidTokens;
+  }
+
+  void resetCounters() {
+    validateCalls.set(0);
+    userCalls.set(0);
+  }
+
+  @Override
+  public void close() {
+    server.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  /** Sleep for a sampled service time; returns false if the call should fail */
+  private boolean serve() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    double millis = Math.exp(mu + sigma * random.nextGaussian());
+    LockSupport.parkNanos((long) (millis * 1_000_000));
+    return random.nextDouble() >= options.errorRate();
+  }
+
+  private static UserInfo user(String userId) {
+    int index = Math.floorMod(userId.hashCode(), ROLES.length);
+    return UserInfo.newBuilder()
+        .setId(userId)
+        .setEmail(userId + "@loadtest.vinaacademy.vn")
+        .setUsername(userId)
+        .setFullName("Load Test " + index)
+        .addRoles(ROLES[index].substring("ROLE_".length()))
+        .setEnabled(true)
+        .build();
+  }
+
+  private static String token(String subject, String jti) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+    String payload =
+        encoder.encodeToString(
+            ("{\"sub\":\"" + subject + "\",\"jti\":\"" + jti + "\",\"exp\":4102444800}")
+                .getBytes(StandardCharsets.UTF_8));
+    return header + "." + payload + ".c2lnbmF0dXJl";
+  }
+
+  private final class FakeJwtService extends JwtServiceGrpc.JwtServiceImplBase {
+    @Override
+    public void validateToken(
+        TokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+      validateCalls.incrementAndGet();
+      if (!serve()) {
+        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+        return;
+      }
+      String userId = userIdsByToken.get(request.getToken());
+      ValidateTokenResponse response =
+          userId != null
+              ? ValidateTokenResponse.newBuilder()
+                  .setIsValid(true)
+                  .setUserId(userId)
+                  .setEmail(userId + "@loadtest.vinaacademy.vn")
+                  .setFullName("Load Test User")
+                  .setRoles(ROLES[Math.floorMod(userId.hashCode(), ROLES.length)])
+                  .build()
+              : ValidateTokenResponse.newBuilder()
+                  .setIsValid(false)
+                  .setMessage("Invalid token")
+                  .build();
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getRevokedTokens(
+        RevokedTokensRequest request, StreamObserver<RevokedTokensResponse> responseObserver) {
+      responseObserver.onNext(
+          RevokedTokensResponse.newBuilder().setVersion(request.getSinceVersion()).build());
+      responseObserver.onCompleted();
+    }
+  }
+
+  private final class FakeUserService extends UserServiceGrpc.UserServiceImplBase {
+    @Override
+    public void getUserById(
+        GetUserByIdRequest request, StreamObserver<GetUserByIdResponse> responseObserver) {
+      userCalls.incrementAndGet();
+      if (!serve()) {
+        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+        return;
+      }
+      responseObserver.onNext(
+          GetUserByIdResponse.newBuilder()
+              .setSuccess(true)
+              .setUser(user(request.getUserId()))
+              .build());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getUserByIds(
+        GetUserByIdsRequest request, StreamObserver<GetUserByIdsResponse> responseObserver) {
+      userCalls.incrementAndGet();
+      if (!serve()) {
+        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+        return;
+      }
+      GetUserByIdsResponse.Builder response = GetUserByIdsResponse.newBuilder().setSuccess(true);
+      for (String userId : request.getUserIdsList()) {
+        response.addUsers(user(userId));
+      }
+      responseObserver.onNext(response.build());
+      responseObserver.onCompleted();
+    }
+  }
+}
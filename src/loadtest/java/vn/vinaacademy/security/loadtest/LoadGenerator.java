@@ -0,0 +1,197 @@
+package vn.vinaacademy.security.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the sample app over HTTP, either closed-loop at a fixed concurrency or open-loop at a
+ * fixed arrival rate. Open-loop latency is measured from the scheduled send time, so queueing
+ * behind a slow backend is not hidden by coordinated omission.
+ */
+final class LoadGenerator {
+  static final int STATUS_2XX = 0;
+  static final int STATUS_401_403 = 1;
+  static final int STATUS_429 = 2;
+  static final int STATUS_5XX = 3;
+  static final int STATUS_OTHER = 4;
+  static final int FAILED = 5;
+
+  private static final String[] PATHS = {
+    "/api/courses", "/api/courses", "/api/enrollments", "/api/reports", "/api/profiles/"
+  };
+
+  private final HttpClient client;
+  private final String baseUrl;
+  private final List<String> validTokens;
+  private final List<String> invalidTokens;
+  private final double anonymousRatio;
+
+  LoadGenerator(
+      int port, List<String> validTokens, List<String> invalidTokens, double anonymousRatio) {
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newCachedThreadPool())
+            .build();
+    this.baseUrl = "http://localhost:" + port;
+    this.validTokens = validTokens;
+    this.invalidTokens = invalidTokens;
+    this.anonymousRatio = anonymousRatio;
+  }
+
+  /** Send requests from {@code concurrency} threads, each waiting for its previous response */
+  Result closedLoop(int concurrency, Duration duration) throws InterruptedException {
+    Recorder recorder = new Recorder();
+    long deadline = System.nanoTime() + duration.toNanos();
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    long start = System.nanoTime();
+    for (int i = 0; i < concurrency; i++) {
+      workers.execute(
+          () -> {
+            while (System.nanoTime() < deadline) {
+              long sent = System.nanoTime();
+              int status;
+              try {
+                status =
+                    client
+                        .send(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                        .statusCode();
+              } catch (IOException e) {
+                status = -1;
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+              }
+              recorder.record(System.nanoTime() - sent, status);
+            }
+          });
+    }
+    workers.shutdown();
+    workers.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS);
+    return recorder.result(System.nanoTime() - start);
+  }
+
+  /** Send requests at a fixed rate regardless of how fast responses come back */
+  Result openLoop(double ratePerSecond, Duration duration) throws InterruptedException {
+    Recorder recorder = new Recorder();
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    long start = System.nanoTime();
+    long count = duration.toNanos() / interval;
+    CompletableFuture<?>[] calls = new CompletableFuture<?>[(int) count];
+    for (int i = 0; i < count; i++) {
+      long scheduled = start + i * interval;
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      calls[i] =
+          client
+              .sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+              .handle(
+                  (response, error) -> {
+                    recorder.record(
+                        System.nanoTime() - scheduled, error != null ? -1 : response.statusCode());
+                    return null;
+                  });
+    }
+    try {
+      CompletableFuture.allOf(calls).get(30, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      // Unfinished calls are left out of the result
+    }
+    return recorder.result(System.nanoTime() - start);
+  }
+
+  private HttpRequest nextRequest() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String path = PATHS[random.nextInt(PATHS.length)];
+    if (path.endsWith("/")) {
+      path += "author-" + random.nextInt(1000);
+    }
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET();
+    if (random.nextDouble() >= anonymousRatio) {
+      int population = validTokens.size() + invalidTokens.size();
+      if (population > 0) {
+        int index = random.nextInt(population);
+        String token =
+            index < validTokens.size()
+                ? validTokens.get(index)
+                : invalidTokens.get(index - validTokens.size());
+        request.header("Authorization", "Bearer " + token);
+      }
+    }
+    return request.build();
+  }
+
+  private static int statusClass(int status) {
+    if (status < 0) return FAILED;
+    if (status >= 200 && status < 300) return STATUS_2XX;
+    if (status == 401 || status == 403) return STATUS_401_403;
+    if (status == 429) return STATUS_429;
+    if (status >= 500) return STATUS_5XX;
+    return STATUS_OTHER;
+  }
+
+  /**
+   * @param requests completed requests
+   * @param elapsedNanos wall time of the run
+   * @param latencies sorted request latencies in nanoseconds
+   * @param statuses counts indexed by the STATUS_ and FAILED constants
+   */
+  record Result(long requests, long elapsedNanos, long[] latencies, long[] statuses) {
+    double throughput() {
+      return requests * 1e9 / elapsedNanos;
+    }
+
+    /** Latency at the given quantile in milliseconds */
+    double percentileMillis(double quantile) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+      return latencies[Math.max(0, index)] / 1e6;
+    }
+  }
+
+  /** Collects latencies and status classes from all sending threads */
+  private static final class Recorder {
+    private final AtomicLongArray statuses = new AtomicLongArray(FAILED + 1);
+    private long[] latencies = new long[1 << 16];
+    private int size;
+
+    void record(long nanos, int status) {
+      statuses.incrementAndGet(statusClass(status));
+      synchronized (this) {
+        if (size == latencies.length) {
+          latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = nanos;
+      }
+    }
+
+    synchronized Result result(long elapsedNanos) {
+      long[] sorted = Arrays.copyOf(latencies, size);
+      Arrays.sort(sorted);
+      long[] counts = new long[statuses.length()];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = statuses.get(i);
+      }
+      return new Result(size, elapsedNanos, sorted, counts);
+    }
+  }
+}
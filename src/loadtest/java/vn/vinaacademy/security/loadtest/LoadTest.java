@@ -0,0 +1,117 @@
+package vn.vinaacademy.security.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test: starts the fake platform and the sample app, warms up, runs one measured
+ * phase and prints throughput, latency percentiles and backend calls per request.
+ *
+ * <p>Harness settings are {@code loadtest.*} system properties; library settings are passed the
+ * same way, e.g. {@code -Dsecurity.token-cache.enabled=true}. Run with: {@code ./mvnw -Ploadtest
+ * test-compile exec:java -Dloadtest.concurrency=64 -Dloadtest.platform.latency-p99=200}
+ */
+public final class LoadTest {
+
+  public static void main(String[] args) throws Exception {
+    String mode = System.getProperty("loadtest.mode", "closed");
+    int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    double rate = doubleProperty("loadtest.rate", 500);
+    Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+    Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+    double anonymousRatio = doubleProperty("loadtest.anonymous-ratio", 0.1);
+    FakePlatform.Options options =
+        new FakePlatform.Options(
+            doubleProperty("loadtest.platform.latency-median", 5),
+            doubleProperty("loadtest.platform.latency-p99", 50),
+            doubleProperty("loadtest.platform.error-rate", 0),
+            Integer.getInteger("loadtest.platform.tokens", 1000),
+            doubleProperty("loadtest.platform.invalid-ratio", 0.05));
+
+    try (FakePlatform platform = new FakePlatform(options)) {
+      SpringApplication application = new SpringApplication(SampleApplication.class);
+      application.setDefaultProperties(
+          Map.of(
+              "server.port", "0",
+              "security.grpc.grpc-address", platform.address(),
+              "security.warmup.enabled", "false",
+              "spring.main.banner-mode", "off",
+              "logging.level.root", "WARN"));
+      try (ConfigurableApplicationContext context = application.run(args)) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        LoadGenerator generator =
+            new LoadGenerator(
+                port, platform.validTokens(), platform.invalidTokens(), anonymousRatio);
+
+        run(generator, mode, concurrency, rate, warmup);
+        platform.resetCounters();
+        LoadGenerator.Result result = run(generator, mode, concurrency, rate, duration);
+        report(mode, concurrency, rate, options, result, platform);
+      }
+    }
+  }
+
+  private static LoadGenerator.Result run(
+      LoadGenerator generator, String mode, int concurrency, double rate, Duration duration)
+      throws InterruptedException {
+    return "open".equals(mode)
+        ? generator.openLoop(rate, duration)
+        : generator.closedLoop(concurrency, duration);
+  }
+
+  private static void report(
+      String mode,
+      int concurrency,
+      double rate,
+      FakePlatform.Options options,
+      LoadGenerator.Result result,
+      FakePlatform platform) {
+    long requests = Math.max(1, result.requests());
+    long[] statuses = result.statuses();
+    System.out.println();
+    System.out.printf(
+        Locale.ROOT,
+        "mode=%s %s platform: median=%.1fms p99=%.1fms errors=%.3f tokens=%d%n",
+        mode,
+        "open".equals(mode) ? "rate=" + rate + "/s" : "concurrency=" + concurrency,
+        options.latencyMedianMs(),
+        options.latencyP99Ms(),
+        options.errorRate(),
+        options.tokens());
+    System.out.printf(
+        Locale.ROOT,
+        "requests=%d throughput=%.1f req/s%n",
+        result.requests(),
+        result.throughput());
+    System.out.printf(
+        Locale.ROOT,
+        "status 2xx=%d 401/403=%d 429=%d 5xx=%d other=%d failed=%d%n",
+        statuses[LoadGenerator.STATUS_2XX],
+        statuses[LoadGenerator.STATUS_401_403],
+        statuses[LoadGenerator.STATUS_429],
+        statuses[LoadGenerator.STATUS_5XX],
+        statuses[LoadGenerator.STATUS_OTHER],
+        statuses[LoadGenerator.FAILED]);
+    System.out.printf(
+        Locale.ROOT,
+        "latency ms p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+        result.percentileMillis(0.50),
+        result.percentileMillis(0.99),
+        result.percentileMillis(0.999),
+        result.percentileMillis(1.0));
+    System.out.printf(
+        Locale.ROOT,
+        "backend calls per request: validateToken=%.3f userLookup=%.3f%n",
+        (double) platform.validateCalls.get() / requests,
+        (double) platform.userCalls.get() / requests);
+  }
+
+  private static double doubleProperty(String name, double defaultValue) {
+    String value = System.getProperty(name);
+    return value != null ? Double.parseDouble(value) : defaultValue;
+  }
+}
@@ -0,0 +1,90 @@
+package vn.vinaacademy.security.loadtest;
+
+import com.vinaacademy.grpc.GetUserByIdResponse;
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import vn.vinaacademy.security.annotation.HasAnyRole;
+import vn.vinaacademy.security.annotation.PreAuthorize;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
+import vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig;
+import vn.vinaacademy.security.constants.AuthConstants;
+import vn.vinaacademy.security.grpc.UserGrpcClient;
+
+/** Spring MVC app under test, protected by the library the way a platform service would be. */
+@SpringBootApplication(proxyBeanMethods = false)
+public class SampleApplication {
+
+  /** Service token interceptor that never calls an authorization server */
+  @Bean
+  OAuth2GrpcClientInterceptor oAuth2GrpcClientInterceptor() {
+    ClientRegistration registration =
+        ClientRegistration.withRegistrationId(OAuth2ClientConfig.CLIENT_REGISTRATION_ID)
+            .clientId("loadtest-client")
+            .tokenUri("http://localhost/oauth2/token")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .build();
+    OAuth2AccessToken accessToken =
+        new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER,
+            "loadtest-service-token",
+            Instant.now(),
+            Instant.now().plusSeconds(86400));
+    OAuth2AuthorizedClient client =
+        new OAuth2AuthorizedClient(registration, "internal-service", accessToken);
+    return new OAuth2GrpcClientInterceptor(request -> client);
+  }
+
+  @RestController
+  static class SampleController {
+    private final UserGrpcClient userGrpcClient;
+
+    SampleController(UserGrpcClient userGrpcClient) {
+      this.userGrpcClient = userGrpcClient;
+    }
+
+    /** Optional authentication */
+    @GetMapping("/api/courses")
+    Map<String, Object> courses() {
+      String userId = SecurityContextHolder.getCurrentUserId();
+      return Map.of("viewer", userId != null ? userId : "anonymous");
+    }
+
+    @GetMapping("/api/enrollments")
+    @HasAnyRole({
+      AuthConstants.STUDENT_ROLE,
+      AuthConstants.INSTRUCTOR_ROLE,
+      AuthConstants.ADMIN_ROLE
+    })
+    Map<String, Object> enrollments() {
+      return Map.of("userId", SecurityContextHolder.getCurrentUserId());
+    }
+
+    @GetMapping("/api/reports")
+    @PreAuthorize("hasRole('admin') or hasRole('instructor')")
+    Map<String, Object> reports() {
+      return Map.of("userId", SecurityContextHolder.getCurrentUserId());
+    }
+
+    /** Adds a user lookup to the request, like a service rendering an author profile */
+    @GetMapping("/api/profiles/{userId}")
+    @HasAnyRole({
+      AuthConstants.STUDENT_ROLE,
+      AuthConstants.INSTRUCTOR_ROLE,
+      AuthConstants.ADMIN_ROLE
+    })
+    Map<String, Object> profile(@PathVariable String userId) {
+      GetUserByIdResponse response = userGrpcClient.getUserById(userId);
+      return Map.of("found", response.getSuccess());
+    }
+  }
+}
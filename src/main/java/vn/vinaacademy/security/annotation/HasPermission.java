@@ -0,0 +1,34 @@
+package vn.vinaacademy.security.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to check if the authenticated user has any of the specified permissions,
+ * granted through security.authorization.permissions and the role hierarchy.
+ * Can be applied to methods or classes.
+ * 
+ * Example usage:
+ * @HasPermission("course:publish")
+ * public void publishCourse(String courseId) { ... }
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HasPermission {
+    /**
+     * The permissions required to access the method/class.
+     * User must have at least one of these permissions.
+     * 
+     * @return array of required permissions
+     */
+    String[] value();
+    
+    /**
+     * Optional message to return when access is denied.
+     * 
+     * @return access denied message
+     */
+    String message() default "Access denied: insufficient privileges";
+}
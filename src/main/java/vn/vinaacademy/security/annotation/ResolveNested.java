@@ -0,0 +1,24 @@
+package vn.vinaacademy.security.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets @ResolveUsers search an object for DTOs when it is found in a field of another object.
+ * Containers and classes with @UserId fields are searched anyway; other nested objects, such as
+ * entities whose fields would trigger lazy loading, are skipped unless their class or the field
+ * holding them carries this annotation.
+ * 
+ * Example usage:
+ * @ResolveNested
+ * public class PageDto {
+ *     private List<CourseDto> items;
+ *     private CourseDto featured;
+ * }
+ */
+@Target({ElementType.TYPE, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ResolveNested {
+}
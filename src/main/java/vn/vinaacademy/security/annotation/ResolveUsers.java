@@ -0,0 +1,28 @@
+package vn.vinaacademy.security.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Populates the {@link UserId} targets of the returned DTOs with one bulk user lookup.
+ * The return value may be a DTO, a collection, page, array, map or Optional of DTOs,
+ * a ResponseEntity or response envelope wrapping any of these, or a Mono or Flux
+ * emitting them. DTOs nested in the fields of other DTOs are resolved too, as long
+ * as their class has @UserId fields or is marked @ResolveNested.
+ * 
+ * Example usage:
+ * @ResolveUsers
+ * public List<CourseDto> listCourses() { ... }
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ResolveUsers {
+    /**
+     * Maximum number of ids requested per GetUserByIds call.
+     * 
+     * @return batch size
+     */
+    int batchSize() default 500;
+}
@@ -0,0 +1,26 @@
+package vn.vinaacademy.security.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO field holding a user id, as String or UUID, whose user is
+ * resolved into the named field of type UserInfo by @ResolveUsers.
+ * 
+ * Example usage:
+ * @UserId("instructor")
+ * private String instructorId;
+ * private UserInfo instructor;
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UserId {
+    /**
+     * Name of the field receiving the resolved user.
+     * 
+     * @return target field name
+     */
+    String value();
+}
@@ -0,0 +1,58 @@
+package vn.vinaacademy.security.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vn.vinaacademy.security.authentication.ReactiveSecurityContextHolder;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.UserContext;
+
+import java.util.function.Consumer;
+
+/**
+ * Defers authorization of methods returning Mono or Flux to subscription time. The user context is
+ * read from the Reactor context, falling back to the thread-local context captured when the method
+ * is called, and a failed check is signalled as an error instead of thrown. Kept apart from {@link
+ * SecurityAspect} so Reactor stays an optional dependency.
+ */
+final class ReactiveAuthorization {
+
+    private ReactiveAuthorization() {
+    }
+
+    static boolean isReactive(Class<?> returnType) {
+        return Mono.class.isAssignableFrom(returnType) || Flux.class.isAssignableFrom(returnType);
+    }
+
+    static Object authorize(ProceedingJoinPoint joinPoint, Class<?> returnType,
+                            Consumer<UserContext> check) {
+        // Spring MVC controllers returning Mono are called on the request thread, where
+        // JwtAuthenticationFilter only fills the thread local; capture it before subscription
+        // moves elsewhere. WebFlux threads hold none, so there the Reactor context decides.
+        UserContext called = SecurityContextHolder.getContext();
+        if (Mono.class.isAssignableFrom(returnType)) {
+            return Mono.deferContextual(context -> {
+                check.accept(resolve(ReactiveSecurityContextHolder.getContext(context), called));
+                return Mono.from(proceed(joinPoint));
+            });
+        }
+        return Flux.deferContextual(context -> {
+            check.accept(resolve(ReactiveSecurityContextHolder.getContext(context), called));
+            return Flux.from(proceed(joinPoint));
+        });
+    }
+
+    private static UserContext resolve(UserContext reactive, UserContext called) {
+        return reactive != null ? reactive : called;
+    }
+
+    /** Invoke the method on subscription, so its body does not run for unauthorized callers */
+    private static Publisher<?> proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return (Publisher<?>) joinPoint.proceed();
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+}
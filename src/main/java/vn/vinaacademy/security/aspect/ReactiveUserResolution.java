@@ -0,0 +1,35 @@
+package vn.vinaacademy.security.aspect;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import vn.vinaacademy.security.resolve.UserResolver;
+
+/**
+ * Resolves the users of values emitted by a Mono or Flux. Lookups are blocking gRPC calls, so they
+ * run on the bounded elastic scheduler; a Flux is resolved in buffers of {@code batchSize}
+ * elements, so each buffer costs one lookup. Kept apart from {@link ResolveUsersAspect} so Reactor
+ * stays an optional dependency.
+ */
+final class ReactiveUserResolution {
+
+    private ReactiveUserResolution() {
+    }
+
+    static boolean isReactive(Object value) {
+        return value instanceof Mono<?> || value instanceof Flux<?>;
+    }
+
+    static Object resolve(Object value, UserResolver userResolver, int batchSize) {
+        if (value instanceof Mono<?> mono) {
+            return mono.flatMap(v -> Mono.fromCallable(() -> userResolver.resolve(v, batchSize))
+                    .subscribeOn(Schedulers.boundedElastic()));
+        }
+        return ((Flux<?>) value)
+                .buffer(Math.max(1, batchSize))
+                .concatMap(buffer -> Mono.fromCallable(
+                                () -> userResolver.resolve(buffer, batchSize))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMapIterable(buffer -> buffer);
+    }
+}
@@ -0,0 +1,40 @@
+package vn.vinaacademy.security.aspect;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+import vn.vinaacademy.security.annotation.ResolveUsers;
+import vn.vinaacademy.security.resolve.UserResolver;
+
+/**
+ * AOP Aspect resolving the users referenced by the return value of methods
+ * annotated with @ResolveUsers. Runs inside the security aspect, so users
+ * are only fetched for authorized calls. Values emitted by a Mono or Flux
+ * are resolved as they arrive, see {@link ReactiveUserResolution}.
+ */
+@Slf4j
+@Aspect
+@Order(2)
+@RequiredArgsConstructor
+public class ResolveUsersAspect {
+
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent(
+            "reactor.core.publisher.Mono", ResolveUsersAspect.class.getClassLoader());
+
+    private final UserResolver userResolver;
+
+    @Around("@annotation(resolveUsers)")
+    public Object resolveUsers(ProceedingJoinPoint joinPoint, ResolveUsers resolveUsers)
+            throws Throwable {
+        Object result = joinPoint.proceed();
+        log.trace("Resolving users returned by: {}", joinPoint.getSignature().getName());
+        if (REACTOR_PRESENT && ReactiveUserResolution.isReactive(result)) {
+            return ReactiveUserResolution.resolve(result, userResolver, resolveUsers.batchSize());
+        }
+        return userResolver.resolve(result, resolveUsers.batchSize());
+    }
+}
@@ -3,111 +3,234 @@ package vn.vinaacademy.security.aspect;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
-import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import vn.vinaacademy.security.annotation.HasAnyRole;
+import vn.vinaacademy.security.annotation.HasPermission;
 import vn.vinaacademy.security.annotation.PreAuthorize;
+import vn.vinaacademy.security.audit.AuditEvent;
+import vn.vinaacademy.security.audit.AuditPublisher;
 import vn.vinaacademy.security.authentication.SecurityContextHolder;
 import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.authorization.AuthorizationPolicy;
+import vn.vinaacademy.security.authorization.AuthorizationPolicyHolder;
 import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
 import vn.vinaacademy.security.exception.AccessDeniedException;
 import vn.vinaacademy.security.exception.AuthenticationException;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.observability.AuthorizationEvent;
 
 import java.lang.reflect.Method;
+import java.util.function.Consumer;
 
 /**
  * AOP Aspect to handle security authorization for methods and classes
- * annotated with @HasAnyRole or @PreAuthorize.
+ * annotated with @HasAnyRole, @HasPermission or @PreAuthorize. Roles and
+ * permissions are checked against the compiled authorization policy, so a
+ * role also satisfies the roles it implies. Decisions go to the audit
+ * publisher when enabled, otherwise denials are logged at WARN.
+ *
+ * <p>Methods returning Mono or Flux are checked on subscription against the
+ * user context of the Reactor context, see {@link ReactiveAuthorization}.
  */
 @Slf4j
 @Aspect
-@Component
 @Order(1)
 @RequiredArgsConstructor
 public class SecurityAspect {
 
+    private static final boolean REACTOR_PRESENT =
+            ClassUtils.isPresent("reactor.core.publisher.Mono", SecurityAspect.class.getClassLoader());
+
     private final SecurityExpressionEvaluator expressionEvaluator;
+    private final SecurityClientMetrics metrics;
+
+    @Autowired(required = false)
+    private AuditPublisher auditPublisher;
+
+    @Autowired(required = false)
+    private AuthorizationPolicyHolder policyHolder;
 
     /**
      * Handle @HasAnyRole annotation on methods
      */
-    @Before("@annotation(hasAnyRole)")
-    public void checkMethodHasAnyRole(JoinPoint joinPoint, HasAnyRole hasAnyRole) {
+    @Around("@annotation(hasAnyRole)")
+    public Object checkMethodHasAnyRole(ProceedingJoinPoint joinPoint, HasAnyRole hasAnyRole)
+            throws Throwable {
         log.debug("Checking @HasAnyRole on method: {}", joinPoint.getSignature().getName());
-        checkHasAnyRole(hasAnyRole);
+        return authorize(joinPoint, user -> checkHasAnyRole(hasAnyRole, user, joinPoint));
     }
 
     /**
      * Handle @HasAnyRole annotation on classes
      */
-    @Before("@within(hasAnyRole) && execution(public * *(..))")
-    public void checkClassHasAnyRole(JoinPoint joinPoint, HasAnyRole hasAnyRole) {
+    @Around("@within(hasAnyRole) && execution(public * *(..))")
+    public Object checkClassHasAnyRole(ProceedingJoinPoint joinPoint, HasAnyRole hasAnyRole)
+            throws Throwable {
         // Check if method-level annotation exists, if so, skip class-level check
-        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-        if (method.isAnnotationPresent(HasAnyRole.class) || method.isAnnotationPresent(PreAuthorize.class)) {
-            return;
+        if (hasMethodLevelSecurity(joinPoint)) {
+            return joinPoint.proceed();
         }
         
         log.debug("Checking @HasAnyRole on class for method: {}", joinPoint.getSignature().getName());
-        checkHasAnyRole(hasAnyRole);
+        return authorize(joinPoint, user -> checkHasAnyRole(hasAnyRole, user, joinPoint));
     }
 
     /**
      * Handle @PreAuthorize annotation on methods
      */
-    @Before("@annotation(preAuthorize)")
-    public void checkMethodPreAuthorize(JoinPoint joinPoint, PreAuthorize preAuthorize) {
+    @Around("@annotation(preAuthorize)")
+    public Object checkMethodPreAuthorize(ProceedingJoinPoint joinPoint, PreAuthorize preAuthorize)
+            throws Throwable {
         log.debug("Checking @PreAuthorize on method: {}", joinPoint.getSignature().getName());
-        checkPreAuthorize(preAuthorize, joinPoint);
+        return authorize(joinPoint, user -> checkPreAuthorize(preAuthorize, user, joinPoint));
     }
 
     /**
      * Handle @PreAuthorize annotation on classes
      */
-    @Before("@within(preAuthorize) && execution(public * *(..))")
-    public void checkClassPreAuthorize(JoinPoint joinPoint, PreAuthorize preAuthorize) {
+    @Around("@within(preAuthorize) && execution(public * *(..))")
+    public Object checkClassPreAuthorize(ProceedingJoinPoint joinPoint, PreAuthorize preAuthorize)
+            throws Throwable {
         // Check if method-level annotation exists, if so, skip class-level check
-        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-        if (method.isAnnotationPresent(HasAnyRole.class) || method.isAnnotationPresent(PreAuthorize.class)) {
-            return;
+        if (hasMethodLevelSecurity(joinPoint)) {
+            return joinPoint.proceed();
         }
         
         log.debug("Checking @PreAuthorize on class for method: {}", joinPoint.getSignature().getName());
-        checkPreAuthorize(preAuthorize, joinPoint);
+        return authorize(joinPoint, user -> checkPreAuthorize(preAuthorize, user, joinPoint));
+    }
+
+    /**
+     * Handle @HasPermission annotation on methods
+     */
+    @Around("@annotation(hasPermission)")
+    public Object checkMethodHasPermission(ProceedingJoinPoint joinPoint, HasPermission hasPermission)
+            throws Throwable {
+        log.debug("Checking @HasPermission on method: {}", joinPoint.getSignature().getName());
+        return authorize(joinPoint, user -> checkHasPermission(hasPermission, user, joinPoint));
+    }
+
+    /**
+     * Handle @HasPermission annotation on classes
+     */
+    @Around("@within(hasPermission) && execution(public * *(..))")
+    public Object checkClassHasPermission(ProceedingJoinPoint joinPoint, HasPermission hasPermission)
+            throws Throwable {
+        // Check if method-level annotation exists, if so, skip class-level check
+        if (hasMethodLevelSecurity(joinPoint)) {
+            return joinPoint.proceed();
+        }
+
+        log.debug("Checking @HasPermission on class for method: {}", joinPoint.getSignature().getName());
+        return authorize(joinPoint, user -> checkHasPermission(hasPermission, user, joinPoint));
+    }
+
+    private static boolean hasMethodLevelSecurity(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return method.isAnnotationPresent(HasAnyRole.class)
+                || method.isAnnotationPresent(PreAuthorize.class)
+                || method.isAnnotationPresent(HasPermission.class);
     }
 
-    private void checkHasAnyRole(HasAnyRole hasAnyRole) {
-        UserContext userContext = SecurityContextHolder.getContext();
+    private AuthorizationPolicy policy() {
+        return policyHolder != null ? policyHolder.get() : AuthorizationPolicy.EMPTY;
+    }
+
+    /**
+     * Run the check before the method, or on subscription for reactive return types
+     */
+    private Object authorize(ProceedingJoinPoint joinPoint, Consumer<UserContext> check)
+            throws Throwable {
+        if (REACTOR_PRESENT) {
+            Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+            if (ReactiveAuthorization.isReactive(returnType)) {
+                return ReactiveAuthorization.authorize(joinPoint, returnType, check);
+            }
+        }
+        check.accept(SecurityContextHolder.getContext());
+        return joinPoint.proceed();
+    }
+
+    private void checkHasAnyRole(HasAnyRole hasAnyRole, UserContext userContext, JoinPoint joinPoint) {
+        AuthorizationEvent event = new AuthorizationEvent();
+        event.begin();
+        long start = System.nanoTime();
         
         if (userContext == null || !userContext.isAuthenticated()) {
-            log.warn("Access denied: User not authenticated");
+            recordDecision(SecurityClientMetrics.ANNOTATION_HAS_ANY_ROLE,
+                           SecurityClientMetrics.DECISION_UNAUTHENTICATED, null,
+                           "User not authenticated", start, event, joinPoint);
             throw new AuthenticationException("Authentication required");
         }
 
         String[] requiredRoles = hasAnyRole.value();
         if (requiredRoles.length == 0) {
             log.debug("No roles required, allowing access");
+            recordDecision(SecurityClientMetrics.ANNOTATION_HAS_ANY_ROLE,
+                           SecurityClientMetrics.DECISION_GRANTED, userContext.getUserId(),
+                           null, start, event, joinPoint);
             return;
         }
 
-        boolean hasAccess = userContext.hasAnyRole(requiredRoles);
+        boolean hasAccess = policy().hasAnyRole(userContext, requiredRoles);
         if (!hasAccess) {
-            log.warn("Access denied: User {} does not have any of the required roles: {}", 
-                     userContext.getUserId(), String.join(", ", requiredRoles));
+            recordDecision(SecurityClientMetrics.ANNOTATION_HAS_ANY_ROLE,
+                           SecurityClientMetrics.DECISION_DENIED, userContext.getUserId(),
+                           "Missing any of roles: " + String.join(", ", requiredRoles),
+                           start, event, joinPoint);
             throw new AccessDeniedException(hasAnyRole.message());
         }
 
+        recordDecision(SecurityClientMetrics.ANNOTATION_HAS_ANY_ROLE,
+                       SecurityClientMetrics.DECISION_GRANTED, userContext.getUserId(),
+                       null, start, event, joinPoint);
         log.debug("Access granted: User {} has required role", userContext.getUserId());
     }
 
-    private void checkPreAuthorize(PreAuthorize preAuthorize, JoinPoint joinPoint) {
-        UserContext userContext = SecurityContextHolder.getContext();
+    private void checkHasPermission(HasPermission hasPermission, UserContext userContext,
+                                    JoinPoint joinPoint) {
+        AuthorizationEvent event = new AuthorizationEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        if (userContext == null || !userContext.isAuthenticated()) {
+            recordDecision(SecurityClientMetrics.ANNOTATION_HAS_PERMISSION,
+                           SecurityClientMetrics.DECISION_UNAUTHENTICATED, null,
+                           "User not authenticated", start, event, joinPoint);
+            throw new AuthenticationException("Authentication required");
+        }
+
+        String[] requiredPermissions = hasPermission.value();
+        if (!policy().hasAnyPermission(userContext, requiredPermissions)) {
+            recordDecision(SecurityClientMetrics.ANNOTATION_HAS_PERMISSION,
+                           SecurityClientMetrics.DECISION_DENIED, userContext.getUserId(),
+                           "Missing any of permissions: " + String.join(", ", requiredPermissions),
+                           start, event, joinPoint);
+            throw new AccessDeniedException(hasPermission.message());
+        }
+
+        recordDecision(SecurityClientMetrics.ANNOTATION_HAS_PERMISSION,
+                       SecurityClientMetrics.DECISION_GRANTED, userContext.getUserId(),
+                       null, start, event, joinPoint);
+        log.debug("Access granted: User {} has required permission", userContext.getUserId());
+    }
+
+    private void checkPreAuthorize(PreAuthorize preAuthorize, UserContext userContext,
+                                   JoinPoint joinPoint) {
+        AuthorizationEvent event = new AuthorizationEvent();
+        event.begin();
+        long start = System.nanoTime();
         
         if (userContext == null || !userContext.isAuthenticated()) {
-            log.warn("Access denied: User not authenticated");
+            recordDecision(SecurityClientMetrics.ANNOTATION_PRE_AUTHORIZE,
+                           SecurityClientMetrics.DECISION_UNAUTHENTICATED, null,
+                           "User not authenticated", start, event, joinPoint);
             throw new AuthenticationException("Authentication required");
         }
 
@@ -115,12 +238,38 @@ public class SecurityAspect {
         boolean hasAccess = expressionEvaluator.evaluate(expression, userContext, joinPoint);
         
         if (!hasAccess) {
-            log.warn("Access denied: Expression '{}' evaluated to false for user {}", 
-                     expression, userContext.getUserId());
+            recordDecision(SecurityClientMetrics.ANNOTATION_PRE_AUTHORIZE,
+                           SecurityClientMetrics.DECISION_DENIED, userContext.getUserId(),
+                           "Expression '" + expression + "' evaluated to false",
+                           start, event, joinPoint);
             throw new AccessDeniedException(preAuthorize.message());
         }
 
+        recordDecision(SecurityClientMetrics.ANNOTATION_PRE_AUTHORIZE,
+                       SecurityClientMetrics.DECISION_GRANTED, userContext.getUserId(),
+                       null, start, event, joinPoint);
         log.debug("Access granted: Expression '{}' evaluated to true for user {}", 
                   expression, userContext.getUserId());
     }
+
+    private void recordDecision(String annotation, String decision, String userId, String reason,
+                                long start, AuthorizationEvent event, JoinPoint joinPoint) {
+        long elapsed = System.nanoTime() - start;
+        metrics.recordAuthorization(annotation, decision, elapsed);
+        boolean granted = SecurityClientMetrics.DECISION_GRANTED.equals(decision);
+        if (auditPublisher != null) {
+            auditPublisher.publish(AuditEvent.AUTHORIZATION, userId,
+                                   joinPoint.getSignature().toShortString(), decision, granted,
+                                   elapsed, reason);
+        } else if (!granted) {
+            log.warn("Access denied on {} for user {}: {}",
+                     joinPoint.getSignature().toShortString(), userId, reason);
+        }
+        if (event.shouldCommit()) {
+            event.annotation = annotation;
+            event.method = joinPoint.getSignature().toShortString();
+            event.decision = decision;
+            event.commit();
+        }
+    }
 }
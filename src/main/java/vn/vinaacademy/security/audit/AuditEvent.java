@@ -0,0 +1,24 @@
+package vn.vinaacademy.security.audit;
+
+/**
+ * One authentication or authorization decision.
+ *
+ * @param timestamp epoch milliseconds of the decision
+ * @param type {@link #AUTHENTICATION} or {@link #AUTHORIZATION}
+ * @param userId the user id, or null if anonymous
+ * @param target the route ({@code GET /api/courses}) or method ({@code CourseController.get(..)})
+ * @param decision outcome, e.g. granted, denied, unauthenticated, invalid_token, rate_limited
+ * @param latencyNanos time spent deciding
+ * @param reason why the decision was taken, null when granted
+ */
+public record AuditEvent(
+    long timestamp,
+    String type,
+    String userId,
+    String target,
+    String decision,
+    long latencyNanos,
+    String reason) {
+  public static final String AUTHENTICATION = "authentication";
+  public static final String AUTHORIZATION = "authorization";
+}
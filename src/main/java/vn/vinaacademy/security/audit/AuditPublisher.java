@@ -0,0 +1,196 @@
+package vn.vinaacademy.security.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Hands audit events from request threads to the {@link AuditSink}s. Publishing claims a slot of
+ * a bounded ring with a single CAS and never blocks; when the ring is full the event is dropped and
+ * counted. A daemon thread drains the ring in batches every flush interval, so sink latency and
+ * failures never reach the request path.
+ */
+@Slf4j
+public class AuditPublisher {
+  private final List<AuditSink> sinks;
+  private final SecurityClientMetrics metrics;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final double grantedSampleRate;
+  private final double deniedSampleRate;
+
+  private final AtomicReferenceArray<AuditEvent> ring;
+  private final int mask;
+  /** Next sequence claimed by producers */
+  private final AtomicLong tail = new AtomicLong();
+  /** Next sequence read by the drain thread, written by it only */
+  private volatile long head;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong sinkErrors = new AtomicLong();
+  private volatile boolean running;
+  private Thread drainThread;
+
+  public AuditPublisher(
+      List<AuditSink> sinks, SecurityClientProperties properties, SecurityClientMetrics metrics) {
+    SecurityClientProperties.Audit config = properties.getAudit();
+    this.sinks = List.copyOf(sinks);
+    this.metrics = metrics;
+    this.batchSize = Math.max(1, config.getBatchSize());
+    this.flushIntervalNanos =
+        TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushInterval()));
+    this.grantedSampleRate = config.getGrantedSampleRate();
+    this.deniedSampleRate = config.getDeniedSampleRate();
+    int capacity = Integer.highestOneBit(Math.max(2, config.getBufferSize()) * 2 - 1);
+    this.ring = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+    metrics.gauge(
+        "audit.buffered", "Audit events waiting to be written", this, AuditPublisher::size);
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    drainThread = new Thread(this::drainLoop, "security-audit");
+    drainThread.setDaemon(true);
+    drainThread.start();
+    log.info("Audit publisher started with {} sink(s), buffer: {}", sinks.size(), mask + 1);
+  }
+
+  /** Stop the drain thread, write what is still buffered and close the sinks */
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (drainThread != null) {
+      LockSupport.unpark(drainThread);
+      try {
+        drainThread.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (AuditSink sink : sinks) {
+      try {
+        sink.close();
+      } catch (Exception e) {
+        log.warn(
+            "Failed to close audit sink {}: {}", sink.getClass().getSimpleName(), e.toString());
+      }
+    }
+  }
+
+  /**
+   * Publish a decision, subject to sampling. Never blocks.
+   *
+   * @param granted whether the decision let the request through, selects the sample rate
+   * @return false if the event was dropped because the buffer is full
+   */
+  public boolean publish(
+      String type,
+      String userId,
+      String target,
+      String decision,
+      boolean granted,
+      long latencyNanos,
+      String reason) {
+    double rate = granted ? grantedSampleRate : deniedSampleRate;
+    if (rate < 1.0 && (rate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= rate)) {
+      return true;
+    }
+    return offer(
+        new AuditEvent(
+            System.currentTimeMillis(), type, userId, target, decision, latencyNanos, reason));
+  }
+
+  /** Enqueue an event without sampling */
+  public boolean offer(AuditEvent event) {
+    long capacity = mask + 1L;
+    while (true) {
+      long seq = tail.get();
+      if (seq - head >= capacity) {
+        dropped.incrementAndGet();
+        metrics.recordAuditDropped(SecurityClientMetrics.AUDIT_OVERFLOW, 1);
+        return false;
+      }
+      if (tail.compareAndSet(seq, seq + 1)) {
+        // The drain thread treats a null slot as not yet published and retries on its next pass
+        ring.lazySet((int) (seq & mask), event);
+        return true;
+      }
+    }
+  }
+
+  /** Events waiting to be written */
+  public int size() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  /** Events dropped because the buffer was full */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /** Events lost because a sink failed to write them */
+  public long getSinkErrors() {
+    return sinkErrors.get();
+  }
+
+  private void drainLoop() {
+    List<AuditEvent> batch = new ArrayList<>(batchSize);
+    while (running) {
+      if (drain(batch) < batchSize) {
+        LockSupport.parkNanos(flushIntervalNanos);
+      }
+    }
+    while (drain(batch) > 0) {
+      // Flush the remainder on shutdown
+    }
+  }
+
+  private int drain(List<AuditEvent> batch) {
+    long seq = head;
+    while (batch.size() < batchSize) {
+      int index = (int) (seq & mask);
+      AuditEvent event = ring.get(index);
+      if (event == null) {
+        break;
+      }
+      ring.lazySet(index, null);
+      batch.add(event);
+      seq++;
+    }
+    head = seq;
+    int count = batch.size();
+    if (count > 0) {
+      write(batch);
+      batch.clear();
+    }
+    return count;
+  }
+
+  private void write(List<AuditEvent> batch) {
+    for (AuditSink sink : sinks) {
+      try {
+        sink.write(batch);
+      } catch (Exception e) {
+        sinkErrors.addAndGet(batch.size());
+        metrics.recordAuditDropped(SecurityClientMetrics.AUDIT_SINK_ERROR, batch.size());
+        log.warn(
+            "Audit sink {} failed, {} event(s) lost: {}",
+            sink.getClass().getSimpleName(),
+            batch.size(),
+            e.toString());
+      }
+    }
+    metrics.recordAuditWritten(batch.size());
+  }
+}
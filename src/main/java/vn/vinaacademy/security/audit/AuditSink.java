@@ -0,0 +1,16 @@
+package vn.vinaacademy.security.audit;
+
+import java.util.List;
+
+/**
+ * Destination of audit events. Called from the audit thread only, one batch at a time, so
+ * implementations may do blocking I/O. Register a bean to add a custom sink.
+ */
+public interface AuditSink extends AutoCloseable {
+
+  /** Write a batch of events; a failure drops the batch and is counted */
+  void write(List<AuditEvent> batch) throws Exception;
+
+  @Override
+  default void close() throws Exception {}
+}
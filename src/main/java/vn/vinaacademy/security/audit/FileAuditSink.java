@@ -0,0 +1,53 @@
+package vn.vinaacademy.security.audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/** Appends events as JSON lines to a file, flushed once per batch. */
+public class FileAuditSink implements AuditSink {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Writer writer;
+
+  public FileAuditSink(Path path) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    this.writer =
+        Files.newBufferedWriter(
+            path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  @Override
+  public void write(List<AuditEvent> batch) throws IOException {
+    for (AuditEvent event : batch) {
+      try (JsonGenerator json = objectMapper.getFactory().createGenerator(writer)) {
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+        json.writeStringField("timestamp", Instant.ofEpochMilli(event.timestamp()).toString());
+        json.writeStringField("type", event.type());
+        json.writeStringField("decision", event.decision());
+        json.writeStringField("userId", event.userId());
+        json.writeStringField("target", event.target());
+        json.writeNumberField("latencyMicros", event.latencyNanos() / 1000);
+        json.writeStringField("reason", event.reason());
+        json.writeEndObject();
+      }
+      writer.write('\n');
+    }
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
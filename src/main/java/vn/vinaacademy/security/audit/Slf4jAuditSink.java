@@ -0,0 +1,27 @@
+package vn.vinaacademy.security.audit;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Logs each event as one key=value line at INFO on the {@code security.audit} logger. */
+public class Slf4jAuditSink implements AuditSink {
+  private static final Logger log = LoggerFactory.getLogger("security.audit");
+
+  @Override
+  public void write(List<AuditEvent> batch) {
+    if (!log.isInfoEnabled()) {
+      return;
+    }
+    for (AuditEvent event : batch) {
+      log.info(
+          "type={} decision={} user={} target=\"{}\" latency_us={} reason=\"{}\"",
+          event.type(),
+          event.decision(),
+          event.userId(),
+          event.target(),
+          event.latencyNanos() / 1000,
+          event.reason());
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package vn.vinaacademy.security.authentication;
+
+import java.util.function.Function;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Security context of a reactive pipeline, carried in the Reactor {@link Context} instead of a
+ * thread local. Written once by {@code ReactiveJwtAuthenticationFilter} and read by the security
+ * aspect for methods returning {@code Mono} or {@code Flux}. Pipelines started outside a request
+ * write it themselves:
+ *
+ * <pre>{@code
+ * return service.process(job)
+ *     .contextWrite(ReactiveSecurityContextHolder.withContext(userContext));
+ * }</pre>
+ */
+@UtilityClass
+public class ReactiveSecurityContextHolder {
+  private static final Class<UserContext> CONTEXT_KEY = UserContext.class;
+
+  /** The current user context, empty if none was written */
+  public static Mono<UserContext> getContext() {
+    return Mono.deferContextual(context -> Mono.justOrEmpty(getContext(context)));
+  }
+
+  /** The user context held by a Reactor context view, or null */
+  public static UserContext getContext(ContextView context) {
+    return context.getOrDefault(CONTEXT_KEY, null);
+  }
+
+  /** A context modifier for {@code contextWrite} setting the user context */
+  public static Function<Context, Context> withContext(UserContext userContext) {
+    return context -> context.put(CONTEXT_KEY, userContext);
+  }
+
+  /** A context modifier for {@code contextWrite} removing the user context */
+  public static Function<Context, Context> clearContext() {
+    return context -> context.delete(CONTEXT_KEY);
+  }
+}
@@ -0,0 +1,35 @@
+package vn.vinaacademy.security.authentication;
+
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Platform lookups made during one request, so the controller, services and mappers asking for the
+ * same user or token cost one RPC. Bound to the request thread by {@link SecurityContextHolder} and
+ * dropped with the context at the end of the request, so unlike the caches it is never stale beyond
+ * the request. Not thread-safe, it is only reachable from the request thread.
+ */
+public final class RequestLookupMemo {
+  private final Map<String, UserInfo> users = new HashMap<>();
+  private final Map<String, ValidateTokenResponse> validations = new HashMap<>();
+
+  /** A user looked up earlier in this request, or null */
+  public UserInfo getUser(String userId) {
+    return users.get(userId);
+  }
+
+  public void putUser(UserInfo user) {
+    users.put(user.getId(), user);
+  }
+
+  /** A validation of the token obtained earlier in this request, or null */
+  public ValidateTokenResponse getValidation(String token) {
+    return validations.get(token);
+  }
+
+  public void putValidation(String token, ValidateTokenResponse response) {
+    validations.put(token, response);
+  }
+}
@@ -1,35 +1,82 @@
 package vn.vinaacademy.security.authentication;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Thread-local storage for the current user's security context. Provides access to authenticated
- * user information throughout the request lifecycle.
+ * user information throughout the request lifecycle. The context can also be set lazily, in which
+ * case it is resolved by the first accessor call and memoized. During a request the holder also
+ * carries a {@link RequestLookupMemo} of platform lookups, cleared with the context.
  */
 @Slf4j
 @UtilityClass
 public class SecurityContextHolder {
   private static final ThreadLocal<UserContext> contextHolder = new ThreadLocal<>();
+  private static final ThreadLocal<Supplier<UserContext>> pendingHolder = new ThreadLocal<>();
+  private static final ThreadLocal<RequestLookupMemo> memoHolder = new ThreadLocal<>();
 
   /** Set the current user context */
   public static void setContext(UserContext userContext) {
+    pendingHolder.remove();
     contextHolder.set(userContext);
     log.trace(
         "Security context set for user: {}",
         userContext != null ? userContext.getUserId() : "null");
   }
 
-  /** Get the current user context */
+  /**
+   * Set a supplier resolving the current user context on first access. The supplier is called at
+   * most once, on the accessing thread, and its result replaces it.
+   */
+  public static void setLazyContext(Supplier<UserContext> supplier) {
+    contextHolder.remove();
+    pendingHolder.set(supplier);
+  }
+
+  /** Get the current user context, resolving a lazy context if one is pending */
   public static UserContext getContext() {
-    return contextHolder.get();
+    UserContext context = contextHolder.get();
+    if (context == null) {
+      Supplier<UserContext> pending = pendingHolder.get();
+      if (pending != null) {
+        // Removed first so a failing or re-entrant supplier is not called again
+        pendingHolder.remove();
+        context = pending.get();
+        contextHolder.set(context);
+      }
+    }
+    return context;
+  }
+
+  /** Check whether a lazy context is set and has not been resolved yet */
+  public static boolean isContextPending() {
+    return pendingHolder.get() != null;
+  }
+
+  /**
+   * Start memoizing platform lookups on this thread until {@link #clearContext()}. Only call this
+   * where the clear is guaranteed, like a request filter's finally block.
+   */
+  public static void enableLookupMemo() {
+    if (memoHolder.get() == null) {
+      memoHolder.set(new RequestLookupMemo());
+    }
+  }
+
+  /** The lookup memo of the current request, or null outside of one */
+  public static RequestLookupMemo getLookupMemo() {
+    return memoHolder.get();
   }
 
-  /** Clear the current user context */
+  /** Clear the current user context and lookup memo */
   public static void clearContext() {
     UserContext context = contextHolder.get();
     contextHolder.remove();
+    pendingHolder.remove();
+    memoHolder.remove();
     log.trace(
         "Security context cleared for user: {}", context != null ? context.getUserId() : "null");
   }
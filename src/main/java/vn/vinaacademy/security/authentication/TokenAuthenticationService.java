@@ -0,0 +1,208 @@
+package vn.vinaacademy.security.authentication;
+
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import vn.vinaacademy.security.cache.SecondLevelCacheClient;
+import vn.vinaacademy.security.cache.TokenValidationCache;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.grpc.TokenValidation;
+import vn.vinaacademy.security.observability.AuthPhaseTimings;
+import vn.vinaacademy.security.observability.TokenCacheLookupEvent;
+import vn.vinaacademy.security.propagation.IdentityAssertionCodec;
+import vn.vinaacademy.security.revocation.TokenRevocationList;
+import vn.vinaacademy.security.token.JwtTokens;
+
+/**
+ * Turns a bearer token into a {@link UserContext}: checks the revocation list, then the local
+ * validation cache and the shared second-level cache, and validates remotely via gRPC on a miss.
+ * Never throws, failures yield an unauthenticated context. Identity assertions from internal
+ * callers are verified locally.
+ *
+ * <p>Concurrent remote validations of the same token are coalesced into a single call, so a burst
+ * of requests from one client costs one platform call before the cache is populated.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TokenAuthenticationService {
+
+  private final JwtGrpcClient jwtGrpcClient;
+
+  private final ConcurrentHashMap<String, CompletableFuture<ValidateTokenResponse>> inFlight =
+      new ConcurrentHashMap<>();
+
+  @Autowired(required = false)
+  private TokenRevocationList revocationList;
+
+  @Autowired(required = false)
+  private TokenValidationCache tokenCache;
+
+  @Autowired(required = false)
+  private SecondLevelCacheClient sharedCache;
+
+  @Autowired(required = false)
+  private IdentityAssertionCodec assertionCodec;
+
+  /**
+   * Authenticate a signed identity assertion from an internal caller, without a platform call. The
+   * token behind the assertion is checked against the revocation list.
+   *
+   * @param assertion the assertion, or null
+   * @param caller the direct peer address, or null if unknown
+   * @param path the request path within the application, or null for gRPC calls
+   * @return the asserted context, or null if absent, invalid, revoked, from an untrusted caller or
+   *     propagation is disabled
+   */
+  public UserContext authenticateAssertion(String assertion, InetAddress caller, String path) {
+    if (assertion == null || assertionCodec == null) {
+      return null;
+    }
+    if (!assertionCodec.acceptsFrom(caller, path)) {
+      log.debug("Ignored identity assertion from untrusted caller {}", caller);
+      return null;
+    }
+    UserContext context = assertionCodec.decode(assertion);
+    if (context != null && revocationList != null) {
+      String tokenHash = context.getTokenHash();
+      String jti = context.getTokenId();
+      if (tokenHash == null && jti == null) {
+        log.debug("Rejected identity assertion: no token reference to check for revocation");
+        return null;
+      }
+      if (revocationList.isRevokedReference(tokenHash, jti)) {
+        log.debug("Rejected identity assertion: token has been revoked");
+        return null;
+      }
+    }
+    return context;
+  }
+
+  /** Authenticate a raw token */
+  public UserContext authenticate(String token) {
+    return authenticate(token, null);
+  }
+
+  /**
+   * Authenticate a raw token.
+   *
+   * @param token the raw token, without the "Bearer " prefix
+   * @param timings phase timings to record into, or null
+   * @throws ServiceUnavailableException if the platform call was shed by the limiter
+   */
+  public UserContext authenticate(String token, AuthPhaseTimings timings) {
+    try {
+      ValidateTokenResponse response = null;
+      String tokenHash = null;
+      if (revocationList != null || tokenCache != null || sharedCache != null) {
+        TokenCacheLookupEvent lookupEvent = new TokenCacheLookupEvent();
+        lookupEvent.begin();
+        long lookupStart = timings != null ? System.nanoTime() : 0L;
+        tokenHash = JwtTokens.hash(token);
+
+        // Revocations are checked before any cached validation is trusted
+        boolean revoked = revocationList != null && revocationList.isRevoked(token, tokenHash);
+        if (revoked) {
+          if (tokenCache != null) tokenCache.evict(tokenHash);
+          if (sharedCache != null) sharedCache.evictValidation(tokenHash);
+        } else {
+          if (tokenCache != null) {
+            response = tokenCache.get(tokenHash);
+          }
+          if (response == null && sharedCache != null) {
+            response = sharedCache.getValidation(tokenHash);
+            if (response != null && tokenCache != null) {
+              tokenCache.put(tokenHash, JwtTokens.peekClaims(token).expiresAt(), response);
+            }
+          }
+        }
+        lookupEvent.revoked = revoked;
+        lookupEvent.hit = response != null;
+        lookupEvent.commit();
+        if (timings != null) timings.recordCacheLookup(System.nanoTime() - lookupStart);
+
+        if (revoked) {
+          log.debug("Token rejected: token has been revoked");
+          return createUnauthenticatedContext(token);
+        }
+      }
+      if (response == null) {
+        response = validateRemotely(token, tokenHash, timings);
+      }
+
+      if (response.getIsValid()) {
+        return tokenCache != null
+            ? tokenCache.getContext(tokenHash, token, response)
+            : UserContext.fromValidation(response, token);
+      } else {
+        log.debug("Token validation failed: {}", response.getMessage());
+        return createUnauthenticatedContext(token);
+      }
+    } catch (ServiceUnavailableException e) {
+      throw e;
+    } catch (Exception e) {
+      // Platform outages fail every request; a stack trace per request would flood the logs
+      log.error("Error validating token via gRPC: {}", e.toString());
+      log.debug("Token validation failure", e);
+      return createUnauthenticatedContext(token);
+    }
+  }
+
+  /**
+   * Validate via gRPC, joining a call already in flight for the same token. The caller of the
+   * remote call populates the caches before completing it and removing its in-flight entry, so a
+   * request arriving in between always finds either the entry or the cached validation.
+   *
+   * @param tokenHash the token hash if caches are enabled, else null
+   */
+  private ValidateTokenResponse validateRemotely(
+      String token, String tokenHash, AuthPhaseTimings timings) {
+    long rpcStart = timings != null ? System.nanoTime() : 0L;
+    ValidateTokenResponse response;
+    CompletableFuture<ValidateTokenResponse> call = new CompletableFuture<>();
+    CompletableFuture<ValidateTokenResponse> existing = inFlight.putIfAbsent(token, call);
+    if (existing != null) {
+      try {
+        response = existing.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    } else {
+      try {
+        TokenValidation validation = jwtGrpcClient.validate(token);
+        if (validation.failure() instanceof ServiceUnavailableException shed) {
+          // Shed calls fail the request with 503 rather than as an invalid token
+          throw shed;
+        }
+        response = validation.response();
+        if (tokenHash != null && response.getIsValid()) {
+          long expiresAt = JwtTokens.peekClaims(token).expiresAt();
+          if (tokenCache != null) tokenCache.put(tokenHash, expiresAt, response);
+          if (sharedCache != null) sharedCache.putValidation(tokenHash, expiresAt, response);
+        }
+        call.complete(response);
+      } catch (RuntimeException e) {
+        call.completeExceptionally(e);
+        throw e;
+      } finally {
+        inFlight.remove(token, call);
+      }
+    }
+    if (timings != null) timings.recordRpc(System.nanoTime() - rpcStart);
+    return response;
+  }
+
+  /** Number of remote validations currently in flight */
+  public int getInFlightValidations() {
+    return inFlight.size();
+  }
+
+  private UserContext createUnauthenticatedContext(String token) {
+    return UserContext.builder().token(token).authenticated(false).build();
+  }
+}
@@ -1,30 +1,152 @@
 package vn.vinaacademy.security.authentication;
 
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import vn.vinaacademy.security.authorization.AuthorizationPolicy;
+import vn.vinaacademy.security.constants.AuthConstants;
+import vn.vinaacademy.security.token.JwtTokens;
 
 /**
  * Context class to hold authenticated user information from JWT token validation. This class is
  * populated from ValidateTokenResponse and stored in ThreadLocal.
+ *
+ * <p>Instances are immutable, so a cached validation hands the same instance to every request
+ * bearing its token. The roles of {@link AuthConstants}, with or without the {@code ROLE_} prefix,
+ * are held as bits and other roles in a small array. A context created from a validation response
+ * reads the full name and avatar from it on demand. The token is excluded from {@link #toString()}.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class UserContext {
-  private String userId;
-  private String email;
-  private String fullName;
-  private String avatarUrl;
-  private Set<String> roles;
-  private String token;
-  private boolean authenticated;
+public final class UserContext {
+  private static final String ROLE_PREFIX = "ROLE_";
+  private static final String[] NO_ROLES = new String[0];
+
+  /** Bit of each known role string, as sent by the platform */
+  private static final Map<String, Integer> ROLE_BITS;
+
+  /** Bits matching a role name passed to {@link #hasRole}, with or without the prefix */
+  private static final Map<String, Integer> ROLE_CHECK_BITS;
+
+  static {
+    String[] known = {
+      AuthConstants.ADMIN_ROLE,
+      AuthConstants.STAFF_ROLE,
+      AuthConstants.INSTRUCTOR_ROLE,
+      AuthConstants.STUDENT_ROLE
+    };
+    Map<String, Integer> bits = new HashMap<>();
+    Map<String, Integer> checks = new HashMap<>();
+    for (int i = 0; i < known.length; i++) {
+      int bare = 1 << (2 * i);
+      int prefixed = 1 << (2 * i + 1);
+      bits.put(known[i], bare);
+      bits.put(ROLE_PREFIX + known[i], prefixed);
+      // hasRole("admin") matches admin and ROLE_admin, hasRole("ROLE_admin") only ROLE_admin
+      checks.put(known[i], bare | prefixed);
+      checks.put(ROLE_PREFIX + known[i], prefixed);
+    }
+    ROLE_BITS = Map.copyOf(bits);
+    ROLE_CHECK_BITS = Map.copyOf(checks);
+  }
+
+  private final String userId;
+  private final String email;
+  private final String fullName;
+  private final String avatarUrl;
+  /** Validation the secondary fields are read from, or null if they were given directly */
+  private final ValidateTokenResponse source;
+  private final int knownRoles;
+  private final String[] otherRoles;
+  private final String token;
+  /** Hash and jti of the token behind an asserted identity, which carries no raw token */
+  private final String tokenHash;
+  private final String tokenId;
+  private final boolean authenticated;
+
+  /** Lazily built view of the roles; racy but idempotent, like String.hash */
+  private Set<String> roleSet;
+
+  /** Effective grants under the last policy asked for, recomputed after a policy reload */
+  private volatile AuthorizationPolicy.Grants grants;
+
+  @Builder
+  private UserContext(
+      String userId,
+      String email,
+      String fullName,
+      String avatarUrl,
+      Collection<String> roles,
+      String token,
+      String tokenHash,
+      String tokenId,
+      boolean authenticated) {
+    this(userId, email, fullName, avatarUrl, null, roles, token, tokenHash, tokenId, authenticated);
+  }
+
+  private UserContext(
+      String userId,
+      String email,
+      String fullName,
+      String avatarUrl,
+      ValidateTokenResponse source,
+      Collection<String> roles,
+      String token,
+      String tokenHash,
+      String tokenId,
+      boolean authenticated) {
+    this.userId = userId;
+    this.email = email;
+    this.fullName = fullName;
+    this.avatarUrl = avatarUrl;
+    this.source = source;
+    this.token = token;
+    this.tokenHash = tokenHash;
+    this.tokenId = tokenId;
+    this.authenticated = authenticated;
+
+    int bits = 0;
+    List<String> others = null;
+    if (roles != null) {
+      for (String role : roles) {
+        Integer bit = role != null ? ROLE_BITS.get(role) : null;
+        if (bit != null) {
+          bits |= bit;
+        } else if (role != null) {
+          if (others == null) others = new ArrayList<>(2);
+          if (!others.contains(role)) others.add(role);
+        }
+      }
+    }
+    this.knownRoles = bits;
+    this.otherRoles = others != null ? others.toArray(NO_ROLES) : NO_ROLES;
+  }
+
+  /**
+   * Context of a valid token. Full name and avatar are only decoded from the response when read.
+   */
+  public static UserContext fromValidation(ValidateTokenResponse response, String token) {
+    String roles = response.getRoles();
+    return new UserContext(
+        response.getUserId(),
+        response.getEmail(),
+        null,
+        null,
+        response,
+        roles.isBlank() ? null : Arrays.asList(roles.split(",")),
+        token,
+        null,
+        null,
+        true);
+  }
 
   /** Parse roles from comma-separated string format (e.g., "ROLE_admin,ROLE_student") */
   public static Set<String> parseRoles(String rolesString) {
@@ -35,16 +157,95 @@ public class UserContext {
     return new HashSet<>(Arrays.asList(rolesString.split(",")));
   }
 
-  /** Check if user has a specific role */
+  public String getUserId() {
+    return userId;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public String getFullName() {
+    return source != null ? source.getFullName() : fullName;
+  }
+
+  public String getAvatarUrl() {
+    return source != null ? source.getAvatarUrl() : avatarUrl;
+  }
+
+  /** The roles as an unmodifiable set, empty if none */
+  public Set<String> getRoles() {
+    Set<String> roles = roleSet;
+    if (roles == null) {
+      Set<String> built = new LinkedHashSet<>();
+      ROLE_BITS.forEach(
+          (role, bit) -> {
+            if ((knownRoles & bit) != 0) built.add(role);
+          });
+      built.addAll(Arrays.asList(otherRoles));
+      roles = Set.copyOf(built);
+      roleSet = roles;
+    }
+    return roles;
+  }
+
+  /** The raw token this context was created from, or null */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Hash of the token behind this identity, see {@link JwtTokens#hash(String)}: computed from the
+   * raw token if held, else as carried by an identity assertion. Null if unknown.
+   */
+  public String getTokenHash() {
+    return token != null ? JwtTokens.hash(token) : tokenHash;
+  }
+
+  /** The jti of the token behind this identity, or null if unknown */
+  public String getTokenId() {
+    return token != null ? JwtTokens.peekClaims(token).jti() : tokenId;
+  }
+
+  public boolean isAuthenticated() {
+    return authenticated;
+  }
+
+  /**
+   * Effective roles and permissions under a policy, computed once per context and policy. Checks
+   * through {@link AuthorizationPolicy} use this.
+   */
+  public AuthorizationPolicy.Grants getGrants(AuthorizationPolicy policy) {
+    AuthorizationPolicy.Grants current = grants;
+    if (current == null || current.getPolicy() != policy) {
+      current = policy.grantsOf(this);
+      grants = current;
+    }
+    return current;
+  }
+
+  /** Check if user has a specific role, by membership only, see {@link AuthorizationPolicy} */
   public boolean hasRole(String role) {
-    if (roles == null) return false;
+    if (role == null) return false;
     // Support both ROLE_admin and admin formats
-    return roles.contains(role) || roles.contains("ROLE_" + role);
+    Integer bits = ROLE_CHECK_BITS.get(role);
+    if (bits != null && (knownRoles & bits) != 0) {
+      return true;
+    }
+    for (String other : otherRoles) {
+      if (other.equals(role)
+          || (other.length() == ROLE_PREFIX.length() + role.length()
+              && other.startsWith(ROLE_PREFIX)
+              && other.endsWith(role))) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /** Check if user has any of the specified roles */
   public boolean hasAnyRole(String... rolesToCheck) {
-    if (roles == null || rolesToCheck == null) return false;
+    if (rolesToCheck == null) return false;
 
     for (String role : rolesToCheck) {
       if (hasRole(role)) {
@@ -56,7 +257,7 @@ public class UserContext {
 
   /** Check if user has all of the specified roles */
   public boolean hasAllRoles(String... rolesToCheck) {
-    if (roles == null || rolesToCheck == null) return false;
+    if (rolesToCheck == null) return false;
 
     for (String role : rolesToCheck) {
       if (!hasRole(role)) {
@@ -76,4 +277,37 @@ public class UserContext {
       return null;
     }
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof UserContext other)) return false;
+    return authenticated == other.authenticated
+        && Objects.equals(userId, other.userId)
+        && Objects.equals(email, other.email)
+        && Objects.equals(getFullName(), other.getFullName())
+        && Objects.equals(getAvatarUrl(), other.getAvatarUrl())
+        && getRoles().equals(other.getRoles())
+        && Objects.equals(token, other.token);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(userId, email, getRoles(), token, authenticated);
+  }
+
+  @Override
+  public String toString() {
+    return "UserContext(userId="
+        + userId
+        + ", email="
+        + email
+        + ", fullName="
+        + getFullName()
+        + ", roles="
+        + getRoles()
+        + ", authenticated="
+        + authenticated
+        + ")";
+  }
 }
@@ -0,0 +1,238 @@
+package vn.vinaacademy.security.authorization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import vn.vinaacademy.security.authentication.UserContext;
+
+/**
+ * Role hierarchy and role permissions compiled into bitsets. Every role is expanded at compile time
+ * to the roles it implies transitively and the permissions of all of them, so the {@link Grants} of
+ * a user are the union of a few bitsets, computed once per context, and each check is a map lookup
+ * and a bit test.
+ *
+ * <p>Role names follow {@link UserContext#hasRole}: {@code admin} and {@code ROLE_admin} are
+ * distinct roles of the policy, a user holding {@code ROLE_admin} also holds {@code admin}, and a
+ * user holding {@code admin} does not hold {@code ROLE_admin}. Immutable; reloading compiles a new
+ * policy.
+ */
+public final class AuthorizationPolicy {
+  private static final String ROLE_PREFIX = "ROLE_";
+
+  public static final AuthorizationPolicy EMPTY = compile(Map.of(), Map.of());
+
+  /** Role index by name, as declared */
+  private final Map<String, Integer> roleIndex;
+  private final Map<String, Integer> permissionIndex;
+  /** Roles implied by each role, itself included */
+  private final long[][] impliedRoles;
+  /** Permissions granted by each role and the roles it implies */
+  private final long[][] grantedPermissions;
+  private final int roleCount;
+
+  private AuthorizationPolicy(
+      Map<String, Integer> roleIndex,
+      Map<String, Integer> permissionIndex,
+      long[][] impliedRoles,
+      long[][] grantedPermissions,
+      int roleCount) {
+    this.roleIndex = roleIndex;
+    this.permissionIndex = permissionIndex;
+    this.impliedRoles = impliedRoles;
+    this.grantedPermissions = grantedPermissions;
+    this.roleCount = roleCount;
+  }
+
+  /**
+   * Compile a policy.
+   *
+   * @param hierarchy roles directly implied by each role, e.g. admin: [staff]; cycles are allowed
+   * @param permissions permissions granted directly to each role
+   */
+  public static AuthorizationPolicy compile(
+      Map<String, ? extends Collection<String>> hierarchy,
+      Map<String, ? extends Collection<String>> permissions) {
+    Set<String> roles = new LinkedHashSet<>();
+    hierarchy.forEach(
+        (role, implied) -> {
+          roles.add(role.trim());
+          implied.forEach(r -> roles.add(r.trim()));
+        });
+    permissions.keySet().forEach(role -> roles.add(role.trim()));
+
+    Map<String, Integer> roleIndex = new HashMap<>();
+    List<String> roleNames = new ArrayList<>(roles);
+    for (int i = 0; i < roleNames.size(); i++) {
+      roleIndex.put(roleNames.get(i), i);
+    }
+
+    Map<String, Integer> permissionIndex = new HashMap<>();
+    for (Collection<String> granted : permissions.values()) {
+      granted.forEach(p -> permissionIndex.putIfAbsent(p.trim(), permissionIndex.size()));
+    }
+
+    int n = roleNames.size();
+    List<List<Integer>> direct = new ArrayList<>(n);
+    long[][] directPermissions = new long[n][];
+    for (int i = 0; i < n; i++) {
+      direct.add(new ArrayList<>());
+      directPermissions[i] = new long[words(permissionIndex.size())];
+    }
+    hierarchy.forEach(
+        (role, implied) -> {
+          List<Integer> edges = direct.get(roleIndex.get(role.trim()));
+          implied.forEach(r -> edges.add(roleIndex.get(r.trim())));
+        });
+    permissions.forEach(
+        (role, granted) -> {
+          long[] bits = directPermissions[roleIndex.get(role.trim())];
+          granted.forEach(p -> set(bits, permissionIndex.get(p.trim())));
+        });
+
+    long[][] impliedRoles = new long[n][];
+    long[][] grantedPermissions = new long[n][];
+    for (int i = 0; i < n; i++) {
+      long[] closure = new long[words(n)];
+      long[] granted = new long[words(permissionIndex.size())];
+      visit(i, direct, closure);
+      for (int r = 0; r < n; r++) {
+        if (test(closure, r)) {
+          or(granted, directPermissions[r]);
+        }
+      }
+      impliedRoles[i] = closure;
+      grantedPermissions[i] = granted;
+    }
+    return new AuthorizationPolicy(
+        Map.copyOf(roleIndex), Map.copyOf(permissionIndex), impliedRoles, grantedPermissions, n);
+  }
+
+  /** Whether the policy defines no role, in which case checks are flat role membership */
+  public boolean isEmpty() {
+    return roleCount == 0;
+  }
+
+  public int getRoleCount() {
+    return roleCount;
+  }
+
+  public int getPermissionCount() {
+    return permissionIndex.size();
+  }
+
+  /** Effective roles and permissions of a user; checks use the memoized UserContext#getGrants */
+  public Grants grantsOf(UserContext user) {
+    long[] roles = new long[words(roleCount)];
+    long[] permissions = new long[words(permissionIndex.size())];
+    for (String role : user.getRoles()) {
+      grant(roleIndex.get(role), roles, permissions);
+      if (role.startsWith(ROLE_PREFIX)) {
+        // ROLE_admin satisfies admin, as in UserContext#hasRole
+        grant(roleIndex.get(role.substring(ROLE_PREFIX.length())), roles, permissions);
+      }
+    }
+    return new Grants(this, roles, permissions);
+  }
+
+  private void grant(Integer index, long[] roles, long[] permissions) {
+    if (index != null) {
+      or(roles, impliedRoles[index]);
+      or(permissions, grantedPermissions[index]);
+    }
+  }
+
+  /** Check a role, including roles implied by the user's roles */
+  public boolean hasRole(UserContext user, String role) {
+    if (user == null || role == null) return false;
+    // Trimmed like permissions, so " staff" from an annotation matches the compiled role
+    String name = role.trim();
+    if (isEmpty()) return user.hasRole(name);
+    Integer index = roleIndex.get(name);
+    if (index != null && test(user.getGrants(this).roles, index)) {
+      return true;
+    }
+    // Roles outside the hierarchy keep flat membership
+    return user.hasRole(name);
+  }
+
+  public boolean hasAnyRole(UserContext user, String... roles) {
+    if (roles == null) return false;
+    for (String role : roles) {
+      if (hasRole(user, role)) return true;
+    }
+    return false;
+  }
+
+  public boolean hasAllRoles(UserContext user, String... roles) {
+    if (user == null || roles == null) return false;
+    for (String role : roles) {
+      if (!hasRole(user, role)) return false;
+    }
+    return true;
+  }
+
+  /** Check a permission granted by any of the user's effective roles */
+  public boolean hasPermission(UserContext user, String permission) {
+    // Names are trimmed when compiled, so " course:view" from an annotation still matches
+    Integer index = permission != null ? permissionIndex.get(permission.trim()) : null;
+    return user != null && index != null && test(user.getGrants(this).permissions, index);
+  }
+
+  public boolean hasAnyPermission(UserContext user, String... permissions) {
+    if (permissions == null) return false;
+    for (String permission : permissions) {
+      if (hasPermission(user, permission)) return true;
+    }
+    return false;
+  }
+
+  private static void visit(int role, List<List<Integer>> direct, long[] closure) {
+    if (test(closure, role)) {
+      return;
+    }
+    set(closure, role);
+    for (int implied : direct.get(role)) {
+      visit(implied, direct, closure);
+    }
+  }
+
+  private static int words(int bits) {
+    return (bits + 63) >>> 6;
+  }
+
+  private static void set(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  static boolean test(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static void or(long[] target, long[] source) {
+    for (int i = 0; i < source.length; i++) {
+      target[i] |= source[i];
+    }
+  }
+
+  /** Effective roles and permissions of one user under one policy */
+  public static final class Grants {
+    private final AuthorizationPolicy policy;
+    private final long[] roles;
+    private final long[] permissions;
+
+    private Grants(AuthorizationPolicy policy, long[] roles, long[] permissions) {
+      this.policy = policy;
+      this.roles = roles;
+      this.permissions = permissions;
+    }
+
+    /** The policy these grants were computed under */
+    public AuthorizationPolicy getPolicy() {
+      return policy;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package vn.vinaacademy.security.authorization;
+
+import java.util.Collection;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Holds the current {@link AuthorizationPolicy}, compiled from {@code security.authorization} at
+ * startup and on {@link #reload()}. Contexts recompute their grants lazily after a reload.
+ */
+@Slf4j
+public class AuthorizationPolicyHolder {
+  private static final String PREFIX = "security.authorization";
+
+  private final SecurityClientProperties properties;
+  private final Environment environment;
+  private volatile AuthorizationPolicy policy;
+
+  public AuthorizationPolicyHolder(SecurityClientProperties properties) {
+    this(properties, null);
+  }
+
+  /**
+   * @param environment the environment {@link #reload()} binds {@code security.authorization} from,
+   *     or null to reuse the properties bean
+   */
+  public AuthorizationPolicyHolder(SecurityClientProperties properties, Environment environment) {
+    this.properties = properties;
+    this.environment = environment;
+    reload();
+  }
+
+  public AuthorizationPolicy get() {
+    return policy;
+  }
+
+  /**
+   * Compile the policy again from {@code security.authorization}, bound afresh from the current
+   * environment so changed property sources apply without a context refresh. Without an
+   * environment the properties bean is used as bound at startup.
+   */
+  public AuthorizationPolicy reload() {
+    SecurityClientProperties.Authorization config =
+        environment != null
+            ? Binder.get(environment)
+                .bind(PREFIX, SecurityClientProperties.Authorization.class)
+                .orElseGet(SecurityClientProperties.Authorization::new)
+            : properties.getAuthorization();
+    return reload(config.getRoleHierarchy(), config.getPermissions());
+  }
+
+  /** Replace the policy, e.g. with one loaded from a policy store */
+  public AuthorizationPolicy reload(
+      Map<String, ? extends Collection<String>> hierarchy,
+      Map<String, ? extends Collection<String>> permissions) {
+    AuthorizationPolicy compiled = AuthorizationPolicy.compile(hierarchy, permissions);
+    policy = compiled;
+    log.info(
+        "Authorization policy compiled: {} roles, {} permissions",
+        compiled.getRoleCount(),
+        compiled.getPermissionCount());
+    return compiled;
+  }
+}
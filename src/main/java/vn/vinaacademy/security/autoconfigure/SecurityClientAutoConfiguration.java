@@ -1,56 +1,226 @@
 package vn.vinaacademy.security.autoconfigure;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
-import vn.vinaacademy.security.aspect.SecurityAspect;
-import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
-import vn.vinaacademy.security.filter.JwtAuthenticationFilter;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import vn.vinaacademy.security.audit.AuditPublisher;
+import vn.vinaacademy.security.audit.AuditSink;
+import vn.vinaacademy.security.audit.FileAuditSink;
+import vn.vinaacademy.security.audit.Slf4jAuditSink;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.cache.InMemorySecondLevelCache;
+import vn.vinaacademy.security.cache.SecondLevelCache;
+import vn.vinaacademy.security.cache.SecondLevelCacheClient;
+import vn.vinaacademy.security.cache.TokenCacheSnapshot;
+import vn.vinaacademy.security.cache.TokenValidationCache;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
+import vn.vinaacademy.security.config.oauth2.EurekaAwareClientRegistrationRepository;
+import vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig;
+import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
 import vn.vinaacademy.security.grpc.JwtGrpcClient;
 import vn.vinaacademy.security.grpc.UserGrpcClient;
+import vn.vinaacademy.security.limiter.PlatformCallLimiter;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
 import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.resolve.UserResolver;
+import vn.vinaacademy.security.revocation.TokenRevocationList;
+import vn.vinaacademy.security.revocation.TokenRevocationSynchronizer;
 
 /**
- * Autoconfiguration for security client library. This class is automatically loaded when the
- * library is included in a Spring Boot application.
+ * Core autoconfiguration for security client library: OAuth2 service credentials, the shared gRPC
+ * channel, platform clients and the optional token cache, second-level cache, revocation list and
+ * audit publisher. Web, method security and warm-up beans are registered by their own
+ * autoconfigurations so each can be switched off.
+ *
+ * <p>Runs before Spring Boot's OAuth2 client autoconfiguration so its client registration
+ * repository backs off in favour of {@link EurekaAwareClientRegistrationRepository}.
  */
 @Slf4j
-@AutoConfiguration
-@EnableAspectJAutoProxy
-@ComponentScan(basePackages = "vn.vinaacademy.security")
+@AutoConfiguration(
+    beforeName = {
+      "org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientAutoConfiguration",
+      "org.springframework.boot.autoconfigure.security.oauth2.client.servlet"
+          + ".OAuth2ClientAutoConfiguration"
+    })
 @ConditionalOnClass({JwtGrpcClient.class, UserGrpcClient.class})
 @EnableConfigurationProperties(SecurityClientProperties.class)
-@RequiredArgsConstructor
+@Import(OAuth2ClientConfig.class)
+@ImportRuntimeHints(SecurityClientRuntimeHints.class)
 public class SecurityClientAutoConfiguration {
 
-  private final SecurityClientProperties securityClientProperties;
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityClientMetrics securityClientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+    // Without a registry bean, meters go to the global composite and are no-ops unless configured
+    return new SecurityClientMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+  }
 
   @Bean
   @ConditionalOnMissingBean
-  public SecurityExpressionEvaluator securityExpressionEvaluator() {
-    log.info("Creating SecurityExpressionEvaluator bean");
-    return new SecurityExpressionEvaluator();
+  @ConditionalOnProperty(prefix = "security.eureka", name = "enabled", havingValue = "true")
+  public EurekaServiceDiscovery eurekaServiceDiscovery(
+      ApplicationContext applicationContext, SecurityClientProperties properties) {
+    return new EurekaServiceDiscovery(applicationContext, properties);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(ClientRegistrationRepository.class)
+  public EurekaAwareClientRegistrationRepository eurekaAwareClientRegistrationRepository(
+      SecurityClientProperties properties) {
+    return new EurekaAwareClientRegistrationRepository(properties);
   }
 
   @Bean
   @ConditionalOnMissingBean
-  public SecurityAspect securityAspect(SecurityExpressionEvaluator securityExpressionEvaluator) {
-    log.info("Creating SecurityAspect bean");
-    return new SecurityAspect(securityExpressionEvaluator);
+  public OAuth2GrpcClientInterceptor oAuth2GrpcClientInterceptor(
+      OAuth2AuthorizedClientManager authorizedClientManager) {
+    return new OAuth2GrpcClientInterceptor(authorizedClientManager);
   }
 
   @Bean
   @ConditionalOnMissingBean
-  public JwtAuthenticationFilter jwtAuthenticationFilter(JwtGrpcClient jwtGrpcClient) {
+  public GrpcChannelFactory grpcChannelFactory(
+      SecurityClientProperties properties, OAuth2GrpcClientInterceptor interceptor) {
     log.info(
-        "Creating JwtAuthenticationFilter bean with gRPC address: {}",
-        securityClientProperties.getGrpc().getGrpcAddress());
-    return new JwtAuthenticationFilter(jwtGrpcClient);
+        "Creating GrpcChannelFactory with gRPC address: {}",
+        properties.getGrpc().getGrpcAddress());
+    return new GrpcChannelFactory(properties, interceptor);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.limiter", name = "enabled", havingValue = "true")
+  public PlatformCallLimiter platformCallLimiter(
+      SecurityClientProperties properties, SecurityClientMetrics securityClientMetrics) {
+    return new PlatformCallLimiter(properties, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public JwtGrpcClient jwtGrpcClient(
+      GrpcChannelFactory grpcChannelFactory, SecurityClientMetrics securityClientMetrics) {
+    return new JwtGrpcClient(grpcChannelFactory, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public TokenAuthenticationService tokenAuthenticationService(JwtGrpcClient jwtGrpcClient) {
+    return new TokenAuthenticationService(jwtGrpcClient);
+  }
+
+  @Bean
+  @Lazy
+  @ConditionalOnMissingBean
+  public UserGrpcClient userGrpcClient(
+      GrpcChannelFactory grpcChannelFactory, SecurityClientMetrics securityClientMetrics) {
+    return new UserGrpcClient(grpcChannelFactory, securityClientMetrics);
+  }
+
+  @Bean
+  @Lazy
+  @ConditionalOnMissingBean
+  public UserResolver userResolver(UserGrpcClient userGrpcClient) {
+    return new UserResolver(userGrpcClient);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.token-cache", name = "enabled", havingValue = "true")
+  public TokenValidationCache tokenValidationCache(
+      SecurityClientProperties properties, SecurityClientMetrics securityClientMetrics) {
+    return new TokenValidationCache(properties, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(TokenValidationCache.class)
+  @ConditionalOnProperty(prefix = "security.token-cache", name = "snapshot-path")
+  public TokenCacheSnapshot tokenCacheSnapshot(
+      TokenValidationCache tokenValidationCache, SecurityClientProperties properties) {
+    return new TokenCacheSnapshot(tokenValidationCache, properties);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(
+      prefix = "security.second-level-cache",
+      name = "in-memory",
+      havingValue = "true")
+  public SecondLevelCache inMemorySecondLevelCache(SecurityClientProperties properties) {
+    SecurityClientProperties.SecondLevelCache config = properties.getSecondLevelCache();
+    return new InMemorySecondLevelCache(
+        config.getInMemoryMaxSize(),
+        Duration.ofSeconds(Math.max(config.getTokenTtl(), config.getUserTtl())));
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(SecondLevelCache.class)
+  public SecondLevelCacheClient secondLevelCacheClient(
+      SecondLevelCache secondLevelCache,
+      SecurityClientProperties properties,
+      SecurityClientMetrics securityClientMetrics) {
+    return new SecondLevelCacheClient(secondLevelCache, properties, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.revocation", name = "enabled", havingValue = "true")
+  public TokenRevocationList tokenRevocationList(SecurityClientMetrics securityClientMetrics) {
+    return new TokenRevocationList(securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.revocation", name = "enabled", havingValue = "true")
+  public TokenRevocationSynchronizer tokenRevocationSynchronizer(
+      JwtGrpcClient jwtGrpcClient,
+      TokenRevocationList tokenRevocationList,
+      SecurityClientProperties properties) {
+    return new TokenRevocationSynchronizer(jwtGrpcClient, tokenRevocationList, properties);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.audit", name = "enabled", havingValue = "true")
+  public AuditPublisher auditPublisher(
+      ObjectProvider<AuditSink> customSinks,
+      SecurityClientProperties properties,
+      SecurityClientMetrics securityClientMetrics) {
+    SecurityClientProperties.Audit audit = properties.getAudit();
+    List<AuditSink> sinks = new ArrayList<>();
+    if (audit.isSlf4j()) {
+      sinks.add(new Slf4jAuditSink());
+    }
+    if (audit.getFile() != null && !audit.getFile().isBlank()) {
+      try {
+        sinks.add(new FileAuditSink(Path.of(audit.getFile())));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot open audit file " + audit.getFile(), e);
+      }
+    }
+    customSinks.orderedStream().forEach(sinks::add);
+    return new AuditPublisher(sinks, properties, securityClientMetrics);
   }
 }
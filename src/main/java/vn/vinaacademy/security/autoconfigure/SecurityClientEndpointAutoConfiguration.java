@@ -0,0 +1,29 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.endpoint.SecurityClientEndpoint;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Autoconfiguration for the {@code securityclient} actuator endpoint. Registered when actuator is
+ * present and the endpoint is enabled and exposed, e.g. {@code
+ * management.endpoints.web.exposure.include=health,securityclient}.
+ */
+@AutoConfiguration(after = SecurityClientAutoConfiguration.class)
+@ConditionalOnClass(Endpoint.class)
+public class SecurityClientEndpointAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnAvailableEndpoint
+  public SecurityClientEndpoint securityClientEndpoint(
+      GrpcChannelFactory grpcChannelFactory, SecurityClientProperties properties) {
+    return new SecurityClientEndpoint(grpcChannelFactory, properties);
+  }
+}
@@ -0,0 +1,32 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import io.grpc.ServerInterceptor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.grpc.server.AuthenticationServerInterceptor;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Autoconfiguration for authenticating inbound gRPC calls. Only the interceptor bean is provided;
+ * register it on the gRPC server of the application.
+ */
+@AutoConfiguration(after = SecurityClientAutoConfiguration.class)
+@ConditionalOnClass(ServerInterceptor.class)
+@ConditionalOnProperty(
+    prefix = "security.grpc-server",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class SecurityClientGrpcServerAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public AuthenticationServerInterceptor authenticationServerInterceptor(
+      TokenAuthenticationService tokenAuthenticationService, SecurityClientProperties properties) {
+    return new AuthenticationServerInterceptor(tokenAuthenticationService, properties);
+  }
+}
@@ -0,0 +1,67 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import vn.vinaacademy.security.aspect.ResolveUsersAspect;
+import vn.vinaacademy.security.aspect.SecurityAspect;
+import vn.vinaacademy.security.authorization.AuthorizationPolicyHolder;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.resolve.UserResolver;
+
+/**
+ * Autoconfiguration for {@code @PreAuthorize}, {@code @HasAnyRole}, {@code @HasPermission} and
+ * {@code @ResolveUsers}, with the authorization policy compiled from {@code
+ * security.authorization}. Disabled with {@code security.method-security.enabled=false}, which also
+ * skips the AspectJ auto-proxy creator.
+ */
+@Slf4j
+@AutoConfiguration(after = SecurityClientAutoConfiguration.class)
+@ConditionalOnClass(Aspect.class)
+@ConditionalOnProperty(
+    prefix = "security.method-security",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@EnableAspectJAutoProxy
+public class SecurityClientMethodSecurityAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public AuthorizationPolicyHolder authorizationPolicyHolder(
+      SecurityClientProperties properties, Environment environment) {
+    return new AuthorizationPolicyHolder(properties, environment);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityExpressionEvaluator securityExpressionEvaluator() {
+    log.info("Creating SecurityExpressionEvaluator bean");
+    return new SecurityExpressionEvaluator();
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityAspect securityAspect(
+      SecurityExpressionEvaluator securityExpressionEvaluator,
+      SecurityClientMetrics securityClientMetrics) {
+    log.info("Creating SecurityAspect bean");
+    return new SecurityAspect(securityExpressionEvaluator, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public ResolveUsersAspect resolveUsersAspect(@Lazy UserResolver userResolver) {
+    // Lazy so the user client and its channel are only created once a method is called
+    return new ResolveUsersAspect(userResolver);
+  }
+}
@@ -0,0 +1,55 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import vn.vinaacademy.security.propagation.IdentityAssertionCodec;
+import vn.vinaacademy.security.propagation.IdentityPropagationClientInterceptor;
+import vn.vinaacademy.security.propagation.IdentityPropagationExchangeFilterFunction;
+import vn.vinaacademy.security.propagation.IdentityPropagationRestClientInterceptor;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Autoconfiguration for signed identity propagation, enabled with {@code
+ * security.propagation.enabled=true}. The outbound interceptors are not applied to any client
+ * automatically; register them on the clients of internal services only.
+ */
+@AutoConfiguration(after = SecurityClientAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "security.propagation", name = "enabled", havingValue = "true")
+public class SecurityClientPropagationAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdentityAssertionCodec identityAssertionCodec(SecurityClientProperties properties) {
+    return new IdentityAssertionCodec(properties.getPropagation());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdentityPropagationClientInterceptor identityPropagationClientInterceptor(
+      IdentityAssertionCodec identityAssertionCodec) {
+    return new IdentityPropagationClientInterceptor(identityAssertionCodec);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdentityPropagationRestClientInterceptor identityPropagationRestClientInterceptor(
+      IdentityAssertionCodec identityAssertionCodec) {
+    return new IdentityPropagationRestClientInterceptor(identityAssertionCodec);
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+  static class WebClientConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityPropagationExchangeFilterFunction identityPropagationExchangeFilterFunction(
+        IdentityAssertionCodec identityAssertionCodec) {
+      return new IdentityPropagationExchangeFilterFunction(identityAssertionCodec);
+    }
+  }
+}
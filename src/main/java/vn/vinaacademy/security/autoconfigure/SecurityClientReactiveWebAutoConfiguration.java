@@ -0,0 +1,40 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.controller.SecurityExceptionHandler;
+import vn.vinaacademy.security.filter.ReactiveJwtAuthenticationFilter;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * WebFlux autoconfiguration: the authentication web filter that writes the user context to the
+ * Reactor context, and the security exception handler, which maps the error signals of reactive
+ * method checks to 401 and 403 as on the servlet side. Disabled with {@code
+ * security.filter.enabled=false}.
+ */
+@AutoConfiguration(after = SecurityClientAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(
+    prefix = "security.filter",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class SecurityClientReactiveWebAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public ReactiveJwtAuthenticationFilter reactiveJwtAuthenticationFilter(
+      TokenAuthenticationService tokenAuthenticationService, SecurityClientProperties properties) {
+    return new ReactiveJwtAuthenticationFilter(tokenAuthenticationService, properties);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityExceptionHandler securityExceptionHandler() {
+    return new SecurityExceptionHandler();
+  }
+}
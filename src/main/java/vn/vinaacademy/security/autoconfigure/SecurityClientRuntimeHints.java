@@ -0,0 +1,62 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import com.vinaacademy.grpc.GetUserByIdRequest;
+import com.vinaacademy.grpc.GetUserByIdResponse;
+import com.vinaacademy.grpc.GetUserByIdsRequest;
+import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.RevokedToken;
+import com.vinaacademy.grpc.RevokedTokensRequest;
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import com.vinaacademy.grpc.TokenRequest;
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.util.List;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
+
+/**
+ * Native image hints for the reflection done by the library: the Spring Cloud discovery interfaces
+ * used by {@link EurekaServiceDiscovery}, and the generated protobuf messages whose accessors are
+ * looked up reflectively by the protobuf runtime.
+ */
+class SecurityClientRuntimeHints implements RuntimeHintsRegistrar {
+
+  private static final List<Class<?>> MESSAGES =
+      List.of(
+          TokenRequest.class,
+          ValidateTokenResponse.class,
+          RevokedTokensRequest.class,
+          RevokedTokensResponse.class,
+          RevokedToken.class,
+          GetUserByIdRequest.class,
+          GetUserByIdsRequest.class,
+          GetUserByIdResponse.class,
+          GetUserByIdsResponse.class,
+          UserInfo.class);
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (String type :
+        List.of(
+            EurekaServiceDiscovery.DISCOVERY_CLIENT_CLASS,
+            EurekaServiceDiscovery.SERVICE_INSTANCE_CLASS)) {
+      hints
+          .reflection()
+          .registerTypeIfPresent(classLoader, type, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    for (Class<?> message : MESSAGES) {
+      hints
+          .reflection()
+          .registerType(
+              message, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS)
+          .registerType(
+              TypeReference.of(message.getName() + "$Builder"),
+              MemberCategory.INVOKE_PUBLIC_METHODS,
+              MemberCategory.DECLARED_FIELDS);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.grpc.UserGrpcClient;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.validator.GrpcConnectionValidator;
+import vn.vinaacademy.security.validator.OAuth2ConnectionValidator;
+import vn.vinaacademy.security.warmup.SecurityClientHealthIndicator;
+import vn.vinaacademy.security.warmup.SecurityClientWarmup;
+
+/**
+ * Autoconfiguration for the startup warm-up and its health indicator. Disabled with {@code
+ * security.warmup.enabled=false}, in which case connections are opened on first use.
+ */
+@AutoConfiguration(
+    after = {
+      SecurityClientAutoConfiguration.class,
+      SecurityClientMethodSecurityAutoConfiguration.class
+    })
+@ConditionalOnProperty(
+    prefix = "security.warmup",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class SecurityClientWarmupAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public GrpcConnectionValidator grpcConnectionValidator(
+      ObjectProvider<UserGrpcClient> userGrpcClient) {
+    return new GrpcConnectionValidator(userGrpcClient);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public OAuth2ConnectionValidator oAuth2ConnectionValidator(
+      OAuth2AuthorizedClientManager authorizedClientManager) {
+    return new OAuth2ConnectionValidator(authorizedClientManager);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityClientWarmup securityClientWarmup(
+      GrpcChannelFactory grpcChannelFactory,
+      GrpcConnectionValidator grpcConnectionValidator,
+      OAuth2ConnectionValidator oAuth2ConnectionValidator,
+      ObjectProvider<SecurityExpressionEvaluator> securityExpressionEvaluator,
+      SecurityClientProperties properties) {
+    return new SecurityClientWarmup(
+        grpcChannelFactory,
+        grpcConnectionValidator,
+        oAuth2ConnectionValidator,
+        securityExpressionEvaluator.getIfAvailable(),
+        properties);
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(HealthIndicator.class)
+  @ConditionalOnEnabledHealthIndicator("securityClient")
+  static class HealthConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SecurityClientHealthIndicator securityClientHealthIndicator(
+        SecurityClientWarmup securityClientWarmup) {
+      return new SecurityClientHealthIndicator(securityClientWarmup);
+    }
+  }
+}
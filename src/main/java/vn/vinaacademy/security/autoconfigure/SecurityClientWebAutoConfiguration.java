@@ -0,0 +1,66 @@
+package vn.vinaacademy.security.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.config.SecurityConfig;
+import vn.vinaacademy.security.controller.SecurityExceptionHandler;
+import vn.vinaacademy.security.filter.JwtAuthenticationFilter;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.ratelimit.RequestRateLimiter;
+
+/**
+ * Servlet autoconfiguration: the JWT authentication filter, its optional rate limit, the security
+ * exception handler and the permissive filter chains. Disabled with {@code
+ * security.filter.enabled=false}.
+ *
+ * <p>Runs before Spring Boot's security autoconfigurations so their default filter chains back off
+ * in favour of {@link SecurityConfig}.
+ */
+@Slf4j
+@AutoConfiguration(
+    after = SecurityClientAutoConfiguration.class,
+    beforeName = {
+      "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+      "org.springframework.boot.actuate.autoconfigure.security.servlet"
+          + ".ManagementWebSecurityAutoConfiguration"
+    })
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    prefix = "security.filter",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Import(SecurityConfig.class)
+public class SecurityClientWebAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public JwtAuthenticationFilter jwtAuthenticationFilter(
+      TokenAuthenticationService tokenAuthenticationService, SecurityClientProperties properties) {
+    log.info(
+        "Creating JwtAuthenticationFilter bean with gRPC address: {}",
+        properties.getGrpc().getGrpcAddress());
+    return new JwtAuthenticationFilter(tokenAuthenticationService, properties);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.rate-limit", name = "enabled", havingValue = "true")
+  public RequestRateLimiter requestRateLimiter(
+      SecurityClientProperties properties, SecurityClientMetrics securityClientMetrics) {
+    return new RequestRateLimiter(properties, securityClientMetrics);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityExceptionHandler securityExceptionHandler() {
+    return new SecurityExceptionHandler();
+  }
+}
@@ -0,0 +1,95 @@
+package vn.vinaacademy.security.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference {@link SecondLevelCache} backed by a cache in this JVM. Not shared between replicas,
+ * so it is meant for tests and single-node setups. The store holds at most {@code maxSize}
+ * entries and drops each one {@code maxTtl} after it was written, read or not; shorter TTLs are
+ * also checked on read. TTLs longer than {@code maxTtl} are capped.
+ */
+public class InMemorySecondLevelCache implements SecondLevelCache {
+  private static final long DEFAULT_MAX_SIZE = 10_000;
+  private static final Duration DEFAULT_MAX_TTL = Duration.ofHours(1);
+
+  private final Cache<String, Entry> entries;
+  private final Ticker ticker;
+
+  public InMemorySecondLevelCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_MAX_TTL);
+  }
+
+  public InMemorySecondLevelCache(long maxSize, Duration maxTtl) {
+    this(maxSize, maxTtl, Ticker.systemTicker());
+  }
+
+  InMemorySecondLevelCache(long maxSize, Duration maxTtl, Ticker ticker) {
+    this.ticker = ticker;
+    this.entries =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(maxTtl.toNanos(), TimeUnit.NANOSECONDS)
+            .ticker(ticker)
+            .build();
+  }
+
+  @Override
+  public CompletableFuture<byte[]> get(String key) {
+    return CompletableFuture.completedFuture(read(key, ticker.read()));
+  }
+
+  @Override
+  public CompletableFuture<Map<String, byte[]>> getAll(Collection<String> keys) {
+    long now = ticker.read();
+    Map<String, byte[]> values = new HashMap<>();
+    for (String key : keys) {
+      byte[] value = read(key, now);
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return CompletableFuture.completedFuture(values);
+  }
+
+  @Override
+  public CompletableFuture<Void> put(String key, byte[] value, Duration ttl) {
+    if (!ttl.isNegative() && !ttl.isZero()) {
+      entries.put(key, new Entry(value.clone(), ticker.read() + ttl.toNanos()));
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public CompletableFuture<Void> evict(String key) {
+    entries.invalidate(key);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /** Number of entries held, after dropping those past {@code maxTtl} */
+  public long size() {
+    entries.cleanUp();
+    return entries.size();
+  }
+
+  private byte[] read(String key, long now) {
+    Entry entry = entries.getIfPresent(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAt() - now <= 0) {
+      entries.asMap().remove(key, entry);
+      return null;
+    }
+    return entry.value().clone();
+  }
+
+  private record Entry(byte[] value, long expiresAt) {}
+}
@@ -0,0 +1,30 @@
+package vn.vinaacademy.security.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SPI of a cache shared between replicas, layered under the local caches of token validations and
+ * user lookups. Keys are opaque strings, already hashed where they derive from a token, and values
+ * are protobuf-encoded messages. Implementations must not throw from these methods; failures are
+ * reported through the returned future and treated as a miss.
+ *
+ * <p>{@link InMemorySecondLevelCache} is the reference implementation; {@link
+ * SecondLevelCacheConformance} checks a custom implementation against the expected semantics.
+ */
+public interface SecondLevelCache {
+
+  /** Get a value, completing with null if absent or expired */
+  CompletableFuture<byte[]> get(String key);
+
+  /** Get several values at once, completing with the present entries only */
+  CompletableFuture<Map<String, byte[]>> getAll(Collection<String> keys);
+
+  /** Store a value that expires after the given time to live */
+  CompletableFuture<Void> put(String key, byte[] value, Duration ttl);
+
+  /** Remove a value, if present */
+  CompletableFuture<Void> evict(String key);
+}
@@ -0,0 +1,201 @@
+package vn.vinaacademy.security.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Typed access to the {@link SecondLevelCache} for token validations and user info. Lookups wait
+ * at most {@code timeout} and treat slow or failing stores as a miss; writes are not awaited. User
+ * info is also kept in a short-lived local near cache, while token validations rely on {@link
+ * TokenValidationCache} as their local layer.
+ *
+ * <p>Shared validations are keyed by token hash, so {@link #evictUser} cannot find the entries of a
+ * user. It leaves a marker instead, for the lifetime of a shared validation, and lookups treat the
+ * validations of a marked user as a miss until the marker expires.
+ */
+@Slf4j
+public class SecondLevelCacheClient {
+  public static final String NEAR_CACHE_NAME = "security-client-user";
+
+  private static final String TOKEN_PREFIX = "security:token:";
+  private static final String USER_PREFIX = "security:user:";
+  private static final String EVICTED_PREFIX = "security:evicted-user:";
+  private static final byte[] EVICTED = {1};
+
+  private final SecondLevelCache cache;
+  private final SecurityClientProperties.SecondLevelCache config;
+  private final Cache<String, UserInfo> nearUsers;
+
+  public SecondLevelCacheClient(
+      SecondLevelCache cache, SecurityClientProperties properties, SecurityClientMetrics metrics) {
+    this.cache = cache;
+    this.config = properties.getSecondLevelCache();
+    this.nearUsers =
+        CacheBuilder.newBuilder()
+            .maximumSize(config.getNearCacheMaxSize())
+            .expireAfterWrite(config.getNearCacheTtl(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    metrics.monitorCache(NEAR_CACHE_NAME, nearUsers);
+  }
+
+  /** Get a shared valid response for the token hash, or null on a miss */
+  public ValidateTokenResponse getValidation(String tokenHash) {
+    byte[] value = await(cache.get(TOKEN_PREFIX + tokenHash), null);
+    if (value == null) {
+      return null;
+    }
+    ValidateTokenResponse response;
+    try {
+      response = ValidateTokenResponse.parseFrom(value);
+    } catch (InvalidProtocolBufferException e) {
+      log.debug("Discarding unreadable shared token entry: {}", e.getMessage());
+      return null;
+    }
+    if (await(cache.get(EVICTED_PREFIX + response.getUserId()), null) != null) {
+      return null;
+    }
+    return response;
+  }
+
+  /**
+   * Share a valid response.
+   *
+   * @param tokenHash the token hash
+   * @param tokenExpiresAt the exp claim of the token in epoch seconds, 0 if unknown
+   * @param response the validation response, ignored unless valid
+   */
+  public void putValidation(String tokenHash, long tokenExpiresAt, ValidateTokenResponse response) {
+    if (!response.getIsValid()) {
+      return;
+    }
+    long ttl = config.getTokenTtl();
+    if (tokenExpiresAt > 0) {
+      ttl = Math.min(ttl, tokenExpiresAt - Instant.now().getEpochSecond());
+    }
+    if (ttl > 0) {
+      write(cache.put(TOKEN_PREFIX + tokenHash, response.toByteArray(), Duration.ofSeconds(ttl)));
+    }
+  }
+
+  public void evictValidation(String tokenHash) {
+    write(cache.evict(TOKEN_PREFIX + tokenHash));
+  }
+
+  /** Get user info from the near cache or the shared cache, or null on a miss */
+  public UserInfo getUser(String userId) {
+    UserInfo user = nearUsers.getIfPresent(userId);
+    if (user != null) {
+      return user;
+    }
+    byte[] value = await(cache.get(USER_PREFIX + userId), null);
+    user = parseUser(value);
+    if (user != null) {
+      nearUsers.put(userId, user);
+    }
+    return user;
+  }
+
+  /** Get the user info of several ids, returning only the ids found in either layer */
+  public Map<String, UserInfo> getUsers(Collection<String> userIds) {
+    Map<String, UserInfo> users = new HashMap<>(nearUsers.getAllPresent(userIds));
+    if (users.size() == userIds.size()) {
+      return users;
+    }
+    List<String> keys = new ArrayList<>();
+    for (String userId : userIds) {
+      if (!users.containsKey(userId)) {
+        keys.add(USER_PREFIX + userId);
+      }
+    }
+    Map<String, byte[]> values = await(cache.getAll(keys), Map.of());
+    for (Map.Entry<String, byte[]> value : values.entrySet()) {
+      UserInfo user = parseUser(value.getValue());
+      if (user != null) {
+        String userId = value.getKey().substring(USER_PREFIX.length());
+        users.put(userId, user);
+        nearUsers.put(userId, user);
+      }
+    }
+    return users;
+  }
+
+  /** Share user info fetched from the platform */
+  public void putUser(UserInfo user) {
+    nearUsers.put(user.getId(), user);
+    write(
+        cache.put(
+            USER_PREFIX + user.getId(),
+            user.toByteArray(),
+            Duration.ofSeconds(config.getUserTtl())));
+  }
+
+  /** Drop a user from the near cache and the shared cache, including their shared validations */
+  public void evictUser(String userId) {
+    nearUsers.invalidate(userId);
+    write(cache.evict(USER_PREFIX + userId));
+    write(
+        cache.put(EVICTED_PREFIX + userId, EVICTED, Duration.ofSeconds(config.getTokenTtl())));
+  }
+
+  public void invalidateNearCache() {
+    nearUsers.invalidateAll();
+  }
+
+  public long nearCacheSize() {
+    return nearUsers.size();
+  }
+
+  public CacheStats nearCacheStats() {
+    return nearUsers.stats();
+  }
+
+  private static UserInfo parseUser(byte[] value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return UserInfo.parseFrom(value);
+    } catch (InvalidProtocolBufferException e) {
+      log.debug("Discarding unreadable shared user entry: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private <T> T await(CompletableFuture<T> future, T miss) {
+    try {
+      T value = future.get(config.getTimeout(), TimeUnit.MILLISECONDS);
+      return value != null ? value : miss;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return miss;
+    } catch (Exception e) {
+      log.debug("Second-level cache lookup failed: {}", e.toString());
+      return miss;
+    }
+  }
+
+  private static void write(CompletableFuture<Void> future) {
+    future.exceptionally(
+        e -> {
+          log.debug("Second-level cache write failed: {}", e.toString());
+          return null;
+        });
+  }
+}
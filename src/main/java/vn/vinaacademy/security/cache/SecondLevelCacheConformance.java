@@ -0,0 +1,79 @@
+package vn.vinaacademy.security.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Conformance kit for {@link SecondLevelCache} implementations, independent of any test framework.
+ * Call {@link #verify(SecondLevelCache)} from a test against a fresh or shared store; keys are
+ * randomized so runs do not interfere. Throws {@link AssertionError} on the first violation. The
+ * expiry check waits about two seconds, so stores with second-granularity TTLs pass.
+ */
+@UtilityClass
+public class SecondLevelCacheConformance {
+  private static final long TIMEOUT_SECONDS = 5;
+
+  public static void verify(SecondLevelCache cache) {
+    String prefix = "conformance:" + UUID.randomUUID() + ":";
+    byte[] value = "value".getBytes(StandardCharsets.UTF_8);
+    Duration ttl = Duration.ofMinutes(1);
+
+    check(await(cache.get(prefix + "missing")) == null, "get of a missing key must be null");
+
+    await(cache.put(prefix + "a", value, ttl));
+    check(Arrays.equals(value, await(cache.get(prefix + "a"))), "get must return the put value");
+
+    byte[] replaced = "replaced".getBytes(StandardCharsets.UTF_8);
+    await(cache.put(prefix + "a", replaced, ttl));
+    check(Arrays.equals(replaced, await(cache.get(prefix + "a"))), "put must replace the value");
+
+    byte[] copied = value.clone();
+    await(cache.put(prefix + "copy", copied, ttl));
+    copied[0] = 0;
+    check(
+        Arrays.equals(value, await(cache.get(prefix + "copy"))),
+        "stored values must not change with the caller's array");
+
+    await(cache.put(prefix + "b", value, ttl));
+    Map<String, byte[]> values =
+        await(cache.getAll(List.of(prefix + "a", prefix + "b", prefix + "missing")));
+    check(values.size() == 2, "getAll must return only present keys, got " + values.keySet());
+    check(Arrays.equals(replaced, values.get(prefix + "a")), "getAll must return each value");
+    check(Arrays.equals(value, values.get(prefix + "b")), "getAll must return each value");
+    check(await(cache.getAll(List.of())).isEmpty(), "getAll of no keys must be empty");
+
+    await(cache.evict(prefix + "b"));
+    check(await(cache.get(prefix + "b")) == null, "evict must remove the value");
+    await(cache.evict(prefix + "missing"));
+
+    await(cache.put(prefix + "expiring", value, Duration.ofSeconds(1)));
+    try {
+      TimeUnit.MILLISECONDS.sleep(2100);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting for expiry", e);
+    }
+    check(await(cache.get(prefix + "expiring")) == null, "values must expire after their ttl");
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      throw new AssertionError("Operation did not complete within " + TIMEOUT_SECONDS + "s", e);
+    }
+  }
+
+  private static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package vn.vinaacademy.security.cache;
+
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.revocation.TokenRevocationList;
+
+/**
+ * Saves the {@link TokenValidationCache} to a memory-mapped file on shutdown and reloads it in the
+ * background on startup, so a restarted pod does not revalidate every active token at once.
+ *
+ * <p>The file holds token hashes, expiry and the encoded validation response, never raw tokens. It
+ * is rejected as a whole if its checksum, format version or age does not match, and expired entries
+ * are dropped on load.
+ *
+ * <p>With a {@link TokenRevocationList}, revoked entries are not saved, and loading waits for its
+ * first sync so that no entry is served before revocations since the snapshot are known. Entries
+ * whose hash has been revoked are dropped on load; those revoked by jti are rejected on use, as the
+ * list is checked before the cache.
+ */
+@Slf4j
+public class TokenCacheSnapshot {
+  private static final int MAGIC = 0x53435443; // "SCTC"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+  private static final int HASH_SIZE = 32;
+  private static final int TRAILER_SIZE = 8;
+
+  private final TokenValidationCache cache;
+  private final Path path;
+  private final int maxAge;
+  private final int syncTimeout;
+
+  @Autowired(required = false)
+  private TokenRevocationList revocationList;
+
+  public TokenCacheSnapshot(TokenValidationCache cache, SecurityClientProperties properties) {
+    this.cache = cache;
+    this.path = Path.of(properties.getTokenCache().getSnapshotPath());
+    this.maxAge = properties.getTokenCache().getSnapshotMaxAge();
+    this.syncTimeout = properties.getTokenCache().getSnapshotSyncTimeout();
+  }
+
+  /** Load the snapshot off the startup path; lookups miss until it is applied */
+  @PostConstruct
+  public void start() {
+    Thread loader = new Thread(this::load, "security-token-cache-snapshot");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    save();
+  }
+
+  /** Restore the entries of the snapshot file, if present and intact */
+  public int load() {
+    List<SnapshotEntry> entries = read();
+    if (entries.isEmpty() || !awaitRevocationSync()) {
+      return 0;
+    }
+    int restored = 0;
+    for (SnapshotEntry entry : entries) {
+      if (!isRevoked(entry.tokenHash())
+          && cache.restore(entry.tokenHash(), entry.expiresAt(), entry.response())) {
+        restored++;
+      }
+    }
+    log.info("Loaded {} of {} token cache entries from {}", restored, entries.size(), path);
+    return restored;
+  }
+
+  private List<SnapshotEntry> read() {
+    if (!Files.isRegularFile(path)) {
+      return List.of();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+        log.warn("Ignoring token cache snapshot {}: unexpected size {}", path, size);
+        return List.of();
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      int end = (int) size - TRAILER_SIZE;
+      CRC32 crc = new CRC32();
+      crc.update(buffer.duplicate().limit(end));
+      if (crc.getValue() != buffer.getLong(end)) {
+        log.warn("Ignoring token cache snapshot {}: checksum mismatch", path);
+        return List.of();
+      }
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        log.warn("Ignoring token cache snapshot {}: unknown format", path);
+        return List.of();
+      }
+      long writtenAt = buffer.getLong();
+      if (Instant.now().getEpochSecond() - writtenAt > maxAge) {
+        log.info("Ignoring token cache snapshot {}: older than {}s", path, maxAge);
+        return List.of();
+      }
+
+      int count = buffer.getInt();
+      buffer.limit(end);
+      byte[] hash = new byte[HASH_SIZE];
+      List<SnapshotEntry> entries = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        buffer.get(hash);
+        long expiresAt = buffer.getLong();
+        byte[] encoded = new byte[buffer.getInt()];
+        buffer.get(encoded);
+        entries.add(
+            new SnapshotEntry(
+                HexFormat.of().formatHex(hash),
+                expiresAt,
+                ValidateTokenResponse.parseFrom(encoded)));
+      }
+      return entries;
+    } catch (IOException | BufferUnderflowException | NegativeArraySizeException e) {
+      log.warn("Failed to load token cache snapshot {}: {}", path, e.toString());
+      return List.of();
+    }
+  }
+
+  /** Hold the restore until the revocation list has synced once, if there is one */
+  private boolean awaitRevocationSync() {
+    if (revocationList == null) {
+      return true;
+    }
+    try {
+      if (revocationList.awaitSync(syncTimeout, TimeUnit.SECONDS)) {
+        return true;
+      }
+      log.warn(
+          "Ignoring token cache snapshot {}: revocation list not synced within {}s",
+          path,
+          syncTimeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private boolean isRevoked(String tokenHash) {
+    return revocationList != null && revocationList.isRevokedReference(tokenHash, null);
+  }
+
+  /** Write the live cache entries to the snapshot file, replacing it atomically */
+  public int save() {
+    HexFormat hex = HexFormat.of();
+    List<byte[]> hashes = new ArrayList<>();
+    List<Long> expiries = new ArrayList<>();
+    List<byte[]> responses = new ArrayList<>();
+    cache.forEachEntry(
+        (tokenHash, expiresAt, response) -> {
+          if (isRevoked(tokenHash)) {
+            return;
+          }
+          hashes.add(hex.parseHex(tokenHash));
+          expiries.add(expiresAt);
+          responses.add(response.toByteArray());
+        });
+
+    long size = HEADER_SIZE + TRAILER_SIZE;
+    for (byte[] encoded : responses) {
+      size += HASH_SIZE + 8 + 4 + encoded.length;
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      Files.deleteIfExists(temp);
+      try {
+        // Holds user details, so readable by the service user only where supported
+        Files.createFile(
+            temp,
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+      } catch (UnsupportedOperationException e) {
+        Files.createFile(temp);
+      }
+      try (FileChannel channel =
+          FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(Instant.now().getEpochSecond());
+        buffer.putInt(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+          byte[] encoded = responses.get(i);
+          buffer.put(hashes.get(i)).putLong(expiries.get(i)).putInt(encoded.length).put(encoded);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().flip());
+        buffer.putLong(crc.getValue());
+        buffer.force();
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("Saved {} token cache entries to {}", hashes.size(), path);
+      return hashes.size();
+    } catch (IOException e) {
+      log.warn("Failed to save token cache snapshot {}: {}", path, e.toString());
+      return 0;
+    }
+  }
+
+  private record SnapshotEntry(String tokenHash, long expiresAt, ValidateTokenResponse response) {}
+}
@@ -0,0 +1,194 @@
+package vn.vinaacademy.security.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Local cache of successful token validations, keyed by token hash. An entry never outlives the
+ * exp claim of its token, so a cached validation is at most {@code ttl} seconds stale. Each entry
+ * also holds the {@link UserContext} built from it, shared by every request with the token.
+ */
+@Slf4j
+public class TokenValidationCache {
+  public static final String CACHE_NAME = "security-client-token";
+
+  private final Cache<String, Entry> cache;
+  private final int maxTtl;
+  private volatile int ttl;
+
+  public TokenValidationCache(SecurityClientProperties properties, SecurityClientMetrics metrics) {
+    SecurityClientProperties.TokenCache config = properties.getTokenCache();
+    this.ttl = config.getTtl();
+    this.maxTtl = config.getTtl();
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(config.getMaxSize())
+            .expireAfterWrite(config.getTtl(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    metrics.monitorCache(CACHE_NAME, cache);
+    if (!properties.getRevocation().isEnabled()) {
+      log.warn(
+          "Token cache is enabled without security.revocation.enabled, "
+              + "revoked tokens stay valid for up to {}s",
+          ttl);
+    }
+  }
+
+  /** Get a cached valid response for the token hash, or null if absent or expired */
+  public ValidateTokenResponse get(String tokenHash) {
+    Entry entry = cache.getIfPresent(tokenHash);
+    if (entry == null) {
+      return null;
+    }
+    long now = Instant.now().getEpochSecond();
+    if (entry.expiresAt() <= now || entry.cachedAt() + ttl <= now) {
+      cache.invalidate(tokenHash);
+      return null;
+    }
+    return entry.response();
+  }
+
+  /**
+   * The context of a valid response, the same instance for as long as the response is cached.
+   *
+   * @param response a response obtained for the token, from this cache or the platform
+   */
+  public UserContext getContext(String tokenHash, String token, ValidateTokenResponse response) {
+    Entry entry = cache.getIfPresent(tokenHash);
+    if (entry == null || entry.response() != response) {
+      return UserContext.fromValidation(response, token);
+    }
+    UserContext context = entry.context;
+    if (context == null) {
+      // Racing requests may each build one; any of them is fine to keep
+      context = UserContext.fromValidation(response, token);
+      entry.context = context;
+    }
+    return context;
+  }
+
+  /**
+   * Cache a valid response.
+   *
+   * @param tokenHash the token hash
+   * @param tokenExpiresAt the exp claim of the token in epoch seconds, 0 if unknown
+   * @param response the validation response, ignored unless valid
+   */
+  public void put(String tokenHash, long tokenExpiresAt, ValidateTokenResponse response) {
+    if (!response.getIsValid()) {
+      return;
+    }
+    long now = Instant.now().getEpochSecond();
+    long expiresAt = now + ttl;
+    if (tokenExpiresAt > 0) {
+      expiresAt = Math.min(expiresAt, tokenExpiresAt);
+    }
+    cache.put(tokenHash, new Entry(response, expiresAt, now));
+  }
+
+  /**
+   * Restore an entry from a snapshot with its original expiry. Expired entries and tokens cached
+   * since startup are left alone.
+   *
+   * @return true if the entry was restored
+   */
+  public boolean restore(String tokenHash, long expiresAt, ValidateTokenResponse response) {
+    long now = Instant.now().getEpochSecond();
+    if (!response.getIsValid() || expiresAt <= now) {
+      return false;
+    }
+    return cache.asMap().putIfAbsent(tokenHash, new Entry(response, expiresAt, now)) == null;
+  }
+
+  /** Visit each entry that has not expired yet, for snapshots */
+  public void forEachEntry(EntryVisitor visitor) {
+    long now = Instant.now().getEpochSecond();
+    cache
+        .asMap()
+        .forEach(
+            (tokenHash, entry) -> {
+              if (entry.expiresAt() > now) {
+                visitor.visit(tokenHash, entry.expiresAt(), entry.response());
+              }
+            });
+  }
+
+  public void evict(String tokenHash) {
+    cache.invalidate(tokenHash);
+  }
+
+  /** Evict every cached validation of a user, returning how many were removed */
+  public int evictUser(String userId) {
+    int evicted = 0;
+    for (var entries = cache.asMap().values().iterator(); entries.hasNext(); ) {
+      if (userId.equals(entries.next().response().getUserId())) {
+        entries.remove();
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public int getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Change how long validations are reused, applying to existing entries as well. Capped by the
+   * configured ttl, which bounds how long the underlying cache keeps entries.
+   */
+  public void setTtl(int ttl) {
+    this.ttl = Math.max(1, Math.min(maxTtl, ttl));
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  @FunctionalInterface
+  public interface EntryVisitor {
+    void visit(String tokenHash, long expiresAt, ValidateTokenResponse response);
+  }
+
+  private static final class Entry {
+    private final ValidateTokenResponse response;
+    private final long expiresAt;
+    private final long cachedAt;
+    private volatile UserContext context;
+
+    Entry(ValidateTokenResponse response, long expiresAt, long cachedAt) {
+      this.response = response;
+      this.expiresAt = expiresAt;
+      this.cachedAt = cachedAt;
+    }
+
+    ValidateTokenResponse response() {
+      return response;
+    }
+
+    long expiresAt() {
+      return expiresAt;
+    }
+
+    long cachedAt() {
+      return cachedAt;
+    }
+  }
+}
@@ -1,17 +1,53 @@
 package vn.vinaacademy.security.config;
 
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.constants.AuthConstants;
+import vn.vinaacademy.security.endpoint.SecurityClientEndpoint;
 
-@Configuration
+/**
+ * Permissive filter chains; authentication is done by JwtAuthenticationFilter and the aspect. The
+ * {@code securityclient} endpoint is the exception: its operations require the admin role, unless
+ * the actuator runs on a separate management port.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(
+    prefix = "security.filter",
+    name = "security-chains",
+    havingValue = "true",
+    matchIfMissing = true)
 public class SecurityConfig {
 
+  @Bean
+  @Order(0)
+  SecurityFilterChain securityClientEndpointChain(HttpSecurity http, Environment environment)
+      throws Exception {
+    http.securityMatcher(EndpointRequest.to(SecurityClientEndpoint.class))
+        .csrf(AbstractHttpConfigurer::disable)
+        .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .httpBasic(AbstractHttpConfigurer::disable);
+    if (ManagementPortType.get(environment) == ManagementPortType.DIFFERENT) {
+      // The management port is not exposed publicly, and the JWT filter does not run on it
+      http.authorizeHttpRequests(a -> a.anyRequest().permitAll());
+    } else {
+      http.authorizeHttpRequests(
+          a -> a.anyRequest().access((authentication, request) -> isAdmin()));
+    }
+    return http.build();
+  }
+
   @Bean
   @Order(1)
   SecurityFilterChain actuatorChain(HttpSecurity http) throws Exception {
@@ -30,4 +66,10 @@ public class SecurityConfig {
         .httpBasic(AbstractHttpConfigurer::disable);
     return http.build();
   }
+
+  private static AuthorizationDecision isAdmin() {
+    UserContext context = SecurityContextHolder.getContext();
+    return new AuthorizationDecision(
+        context != null && context.isAuthenticated() && context.hasRole(AuthConstants.ADMIN_ROLE));
+  }
 }
@@ -0,0 +1,56 @@
+package vn.vinaacademy.security.config.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.CompressorRegistry;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.MethodDescriptor;
+import java.util.Map;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Compresses request messages of configured methods with their codec, skipping messages smaller
+ * than the threshold where compression costs more CPU than it saves bandwidth. Responses are
+ * compressed by the server; the client accepts every codec of the default decompressor registry.
+ */
+final class CompressionClientInterceptor implements ClientInterceptor {
+  private final Map<String, String> codecs;
+  private final int minMessageSize;
+
+  CompressionClientInterceptor(SecurityClientProperties.Compression config) {
+    for (Map.Entry<String, String> method : config.getMethods().entrySet()) {
+      if (CompressorRegistry.getDefaultInstance().lookupCompressor(method.getValue()) == null) {
+        throw new IllegalArgumentException(
+            "Unknown gRPC compressor '" + method.getValue() + "' for " + method.getKey());
+      }
+    }
+    this.codecs = Map.copyOf(config.getMethods());
+    this.minMessageSize = config.getMinMessageSize();
+  }
+
+  boolean isEmpty() {
+    return codecs.isEmpty();
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    String codec = codecs.get(method.getFullMethodName());
+    if (codec == null) {
+      return next.newCall(method, callOptions);
+    }
+    return new SimpleForwardingClientCall<>(
+        next.newCall(method, callOptions.withCompression(codec))) {
+      @Override
+      public void sendMessage(ReqT message) {
+        if (message instanceof MessageLite proto) {
+          setMessageCompression(proto.getSerializedSize() >= minMessageSize);
+        }
+        super.sendMessage(message);
+      }
+    };
+  }
+}
@@ -1,19 +1,49 @@
 package vn.vinaacademy.security.config.grpc;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
 import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
 import vn.vinaacademy.security.properties.SecurityClientProperties;
 
+/**
+ * Channels to the platform server, one shared channel per {@link TrafficClass} with its own
+ * connection, flow-control window, message size limit, executor and default deadline. The address
+ * may point at a TCP host, a Unix domain socket or an in-process server. Channels can share one
+ * event loop group and executor, and compress requests of configured methods.
+ */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class GrpcChannelFactory {
+  /** Minimum delay between re-resolving a failing shared channel through Eureka */
+  private static final long RERESOLVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private static final String UNIX_SCHEME = "unix:";
+  private static final String INPROCESS_SCHEME = "inprocess:";
 
   private final SecurityClientProperties properties;
 
@@ -22,26 +52,279 @@ public class GrpcChannelFactory {
 
   private final OAuth2GrpcClientInterceptor interceptor;
 
+  private final SharedChannel[] sharedChannels = newSharedChannels();
+
+  /** Event loop group and executor shared by all channels, guarded by {@code sharedChannels} */
+  private EventLoopGroup eventLoopGroup;
+
+  private ExecutorService sharedExecutor;
+
+  /**
+   * Get the shared validation channel to the platform server, creating it on first use.
+   *
+   * @see #getChannel(TrafficClass)
+   */
+  public ManagedChannel getAuthChannel() {
+    return getChannel(TrafficClass.VALIDATION);
+  }
+
+  /**
+   * Get the shared channel of a traffic class, creating it on first use. The channel is rebuilt if
+   * it was shut down, or if it is failing while Eureka may know a newer address.
+   */
+  public ManagedChannel getChannel(TrafficClass trafficClass) {
+    SharedChannel shared = sharedChannels[trafficClass.ordinal()];
+    ManagedChannel channel = shared.channel;
+    if (channel != null && !needsRebuild(shared, channel)) {
+      return channel;
+    }
+
+    synchronized (shared) {
+      channel = shared.channel;
+      if (channel != null && !needsRebuild(shared, channel)) {
+        return channel;
+      }
+      ManagedChannel previous = channel;
+      channel = createChannel(trafficClass);
+      shared.channel = channel;
+      shared.createdAt = System.nanoTime();
+      if (previous != null) {
+        previous.shutdown();
+      }
+      return channel;
+    }
+  }
+
+  /** State of the shared channel of a traffic class, or null if it has not been created */
+  public ConnectivityState getChannelState(TrafficClass trafficClass) {
+    ManagedChannel channel = sharedChannels[trafficClass.ordinal()].channel;
+    return channel != null ? channel.getState(false) : null;
+  }
+
+  /**
+   * Drop the shared channels so the next call resolves the address again, e.g. through Eureka.
+   * Calls in flight on the old channels are allowed to finish.
+   */
+  public void resetChannels() {
+    for (SharedChannel shared : sharedChannels) {
+      synchronized (shared) {
+        if (shared.channel != null) {
+          shared.channel.shutdown();
+          shared.channel = null;
+        }
+      }
+    }
+  }
+
+  /** Start connecting the shared validation channel without waiting for a call */
+  public void warmUpAuthChannel() {
+    getAuthChannel().getState(true);
+  }
+
+  /** Create a new, unshared validation channel. The caller must shut it down. */
   public ManagedChannel createAuthChannel() {
+    return createChannel(TrafficClass.VALIDATION);
+  }
+
+  /**
+   * Create a new, unshared channel of a traffic class. The caller must shut it down. Besides {@code
+   * host:port}, the address may be {@code unix:///path} for a co-located sidecar on a Unix domain
+   * socket (requires Netty native epoll) or {@code inprocess:name} for a server in the same JVM.
+   */
+  public ManagedChannel createChannel(TrafficClass trafficClass) {
     String grpcAddress = properties.getGrpc().getGrpcAddress();
     if (eurekaServiceDiscovery != null && properties.getEureka().isEnabled()) {
       grpcAddress = eurekaServiceDiscovery.resolveGrpcAddress();
       log.info("✅ [Dynamic] Using Eureka-resolved gRPC address: {}", grpcAddress);
     }
-    grpcAddress = grpcAddress.trim().replaceAll("^(https?|grpc)://", "");
-    String[] parts = grpcAddress.split(":");
-    String host = parts[0];
-    int port = Integer.parseInt(parts[1]);
+    grpcAddress = grpcAddress.trim();
+
+    SecurityClientProperties.Channel config = properties.getGrpc().getChannel(trafficClass);
+    SharedChannel shared = sharedChannels[trafficClass.ordinal()];
+    ManagedChannelBuilder<?> builder;
+    if (grpcAddress.startsWith(INPROCESS_SCHEME)) {
+      // No transport, so flow control and keep-alive do not apply
+      builder = InProcessChannelBuilder.forName(grpcAddress.substring(INPROCESS_SCHEME.length()));
+    } else {
+      NettyChannelBuilder nettyBuilder;
+      if (grpcAddress.startsWith(UNIX_SCHEME)) {
+        if (!Epoll.isAvailable()) {
+          throw new IllegalStateException(
+              "Unix domain socket gRPC address requires Netty native epoll",
+              Epoll.unavailabilityCause());
+        }
+        nettyBuilder =
+            NettyChannelBuilder.forAddress(new DomainSocketAddress(unixSocketPath(grpcAddress)))
+                .channelType(EpollDomainSocketChannel.class)
+                .eventLoopGroup(eventLoopGroup());
+      } else {
+        grpcAddress = grpcAddress.replaceAll("^(https?|grpc)://", "");
+        String[] parts = grpcAddress.split(":");
+        String host = parts[0];
+        int port = Integer.parseInt(parts[1]);
+        nettyBuilder = NettyChannelBuilder.forAddress(host, port);
+        // Otherwise gRPC's default group, which also uses native epoll when it is available
+        if (properties.getGrpc().getEventLoopThreads() > 0) {
+          EventLoopGroup group = eventLoopGroup();
+          nettyBuilder
+              .eventLoopGroup(group)
+              .channelType(
+                  group instanceof EpollEventLoopGroup
+                      ? EpollSocketChannel.class
+                      : NioSocketChannel.class);
+        }
+      }
+      builder =
+          nettyBuilder
+              .usePlaintext()
+              .keepAliveTime(properties.getGrpc().getKeepAliveTime(), TimeUnit.SECONDS)
+              .keepAliveTimeout(properties.getGrpc().getKeepAliveTimeout(), TimeUnit.SECONDS)
+              .keepAliveWithoutCalls(true)
+              .flowControlWindow(config.getFlowControlWindow());
+    }
+    builder.maxInboundMessageSize(config.getMaxInboundMessageSize());
 
-    var builder =
-        ManagedChannelBuilder.forAddress(host, port)
-            .usePlaintext()
-            .keepAliveTime(properties.getGrpc().getKeepAliveTime(), TimeUnit.SECONDS)
-            .keepAliveTimeout(properties.getGrpc().getKeepAliveTimeout(), TimeUnit.SECONDS)
-            .keepAliveWithoutCalls(true);
+    if (properties.getGrpc().getExecutorThreads() > 0) {
+      builder.executor(sharedExecutor());
+    } else if (config.getExecutorThreads() > 0) {
+      builder.executor(shared.executor(trafficClass, config.getExecutorThreads()));
+    }
 
+    // Interceptors run in reverse order, so the deadline is set before the service token is added
     builder.intercept(interceptor);
+    CompressionClientInterceptor compression =
+        new CompressionClientInterceptor(properties.getGrpc().getCompression());
+    if (!compression.isEmpty()) {
+      builder.intercept(compression);
+    }
+    if (config.getDeadline() > 0) {
+      builder.intercept(new DefaultDeadlineInterceptor(config.getDeadline()));
+    }
 
     return builder.build();
   }
+
+  /** Path of a {@code unix:///path} or {@code unix:path} address */
+  private static String unixSocketPath(String address) {
+    String path = address.substring(UNIX_SCHEME.length());
+    return path.startsWith("//") ? path.substring(2) : path;
+  }
+
+  /**
+   * Event loop group shared by all channels, created on first use: native epoll when available,
+   * NIO otherwise. Sized by {@code event-loop-threads}, or a single thread when only needed for
+   * domain sockets.
+   */
+  private EventLoopGroup eventLoopGroup() {
+    synchronized (sharedChannels) {
+      if (eventLoopGroup == null) {
+        int threads = Math.max(1, properties.getGrpc().getEventLoopThreads());
+        ThreadFactory threadFactory = daemonThreadFactory("security-grpc-event-loop-");
+        eventLoopGroup =
+            Epoll.isAvailable()
+                ? new EpollEventLoopGroup(threads, threadFactory)
+                : new NioEventLoopGroup(threads, threadFactory);
+      }
+      return eventLoopGroup;
+    }
+  }
+
+  private ExecutorService sharedExecutor() {
+    synchronized (sharedChannels) {
+      if (sharedExecutor == null) {
+        sharedExecutor =
+            Executors.newFixedThreadPool(
+                properties.getGrpc().getExecutorThreads(),
+                daemonThreadFactory("security-grpc-executor-"));
+      }
+      return sharedExecutor;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (SharedChannel shared : sharedChannels) {
+      synchronized (shared) {
+        if (shared.channel != null) {
+          shared.channel.shutdown();
+          shared.channel = null;
+        }
+        if (shared.executor != null) {
+          shared.executor.shutdown();
+          shared.executor = null;
+        }
+      }
+    }
+    synchronized (sharedChannels) {
+      if (eventLoopGroup != null) {
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        eventLoopGroup = null;
+      }
+      if (sharedExecutor != null) {
+        sharedExecutor.shutdown();
+        sharedExecutor = null;
+      }
+    }
+  }
+
+  private boolean needsRebuild(SharedChannel shared, ManagedChannel channel) {
+    if (channel.isShutdown()) {
+      return true;
+    }
+    return eurekaServiceDiscovery != null
+        && properties.getEureka().isEnabled()
+        && channel.getState(false) == ConnectivityState.TRANSIENT_FAILURE
+        && System.nanoTime() - shared.createdAt > RERESOLVE_INTERVAL_NANOS;
+  }
+
+  private static SharedChannel[] newSharedChannels() {
+    SharedChannel[] channels = new SharedChannel[TrafficClass.values().length];
+    for (int i = 0; i < channels.length; i++) {
+      channels[i] = new SharedChannel();
+    }
+    return channels;
+  }
+
+  /** Shared channel of one traffic class, guarded by its own monitor */
+  private static final class SharedChannel {
+    private volatile ManagedChannel channel;
+    private volatile long createdAt;
+    private ExecutorService executor;
+
+    /** The executor outlives channel rebuilds and is shut down with the factory */
+    synchronized ExecutorService executor(TrafficClass trafficClass, int threads) {
+      if (executor == null) {
+        String prefix = "security-grpc-" + trafficClass.name().toLowerCase() + "-";
+        executor = Executors.newFixedThreadPool(threads, daemonThreadFactory(prefix));
+      }
+      return executor;
+    }
+  }
+
+  private static ThreadFactory daemonThreadFactory(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /** Sets the traffic class deadline on calls that do not carry one */
+  private static final class DefaultDeadlineInterceptor implements ClientInterceptor {
+    private final long deadlineMillis;
+
+    DefaultDeadlineInterceptor(long deadlineMillis) {
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+        MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+      if (callOptions.getDeadline() == null) {
+        callOptions = callOptions.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS);
+      }
+      return next.newCall(method, callOptions);
+    }
+  }
 }
@@ -16,15 +16,15 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
-import org.springframework.stereotype.Component;
 import vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig;
+import vn.vinaacademy.security.observability.ServiceTokenAttachEvent;
 
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class OAuth2GrpcClientInterceptor implements ClientInterceptor {
   private static final String TOKEN_KEY = "security-client-key";
-  private static final String TOKEN_PRINCIPAL = "internal-service";
+  /** Principal the service token is stored under in the OAuth2AuthorizedClientService */
+  public static final String TOKEN_PRINCIPAL = "internal-service";
   private static final String TOKEN_ROLE = "ROLE_INTERNAL_SERVICE";
 
   private final OAuth2AuthorizedClientManager manager;
@@ -33,23 +33,20 @@ public class OAuth2GrpcClientInterceptor implements ClientInterceptor {
   public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
       MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions, Channel channel) {
     log.debug("Intercepting gRPC call to method: {}", methodDescriptor.getFullMethodName());
-    var principal =
-        new AnonymousAuthenticationToken(
-            TOKEN_KEY, TOKEN_PRINCIPAL, List.of(new SimpleGrantedAuthority(TOKEN_ROLE)));
-
-    var request =
-        OAuth2AuthorizeRequest.withClientRegistrationId(OAuth2ClientConfig.CLIENT_REGISTRATION_ID)
-            .principal(principal)
-            .build();
-
-    OAuth2AuthorizedClient client = manager.authorize(request);
-    if (client == null || client.getAccessToken() == null) {
-      log.error("Failed to authorize gRPC client");
-      throw new IllegalStateException("Failed to obtain access token for gRPC call");
+    ServiceTokenAttachEvent event = new ServiceTokenAttachEvent();
+    event.begin();
+    event.method = methodDescriptor.getFullMethodName();
+    String tokenValue;
+    try {
+      tokenValue = authorize();
+    } catch (RuntimeException e) {
+      event.failure = e.toString();
+      throw e;
+    } finally {
+      // Committed on failure too, a failing token fetch is what the recording is opened for
+      event.commit();
     }
 
-    String tokenValue = client.getAccessToken().getTokenValue();
-
     // add Authorization header
     Metadata headers = new Metadata();
     Metadata.Key<String> AUTHORIZATION =
@@ -67,4 +64,22 @@ public class OAuth2GrpcClientInterceptor implements ClientInterceptor {
 
     return channel.newCall(methodDescriptor, callOptions.withCallCredentials(callCredentials));
   }
+
+  private String authorize() {
+    var principal =
+        new AnonymousAuthenticationToken(
+            TOKEN_KEY, TOKEN_PRINCIPAL, List.of(new SimpleGrantedAuthority(TOKEN_ROLE)));
+
+    var request =
+        OAuth2AuthorizeRequest.withClientRegistrationId(OAuth2ClientConfig.CLIENT_REGISTRATION_ID)
+            .principal(principal)
+            .build();
+
+    OAuth2AuthorizedClient client = manager.authorize(request);
+    if (client == null || client.getAccessToken() == null) {
+      log.error("Failed to authorize gRPC client");
+      throw new IllegalStateException("Failed to obtain access token for gRPC call");
+    }
+    return client.getAccessToken().getTokenValue();
+  }
 }
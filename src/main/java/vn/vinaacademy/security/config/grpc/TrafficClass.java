@@ -0,0 +1,13 @@
+package vn.vinaacademy.security.config.grpc;
+
+/**
+ * Class of platform traffic. Each class gets its own channel, and so its own HTTP/2 connection and
+ * flow-control window, so large user list responses cannot delay token validation.
+ */
+public enum TrafficClass {
+  /** Latency-critical calls on the request path: validateToken and single user lookups */
+  VALIDATION,
+
+  /** Batch user lookups and revocation sync, which may carry large messages */
+  BULK
+}
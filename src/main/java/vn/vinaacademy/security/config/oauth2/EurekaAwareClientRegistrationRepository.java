@@ -5,11 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
-import org.springframework.stereotype.Component;
 import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
 import vn.vinaacademy.security.properties.SecurityClientProperties;
 
-@Component
 @RequiredArgsConstructor
 public class EurekaAwareClientRegistrationRepository implements ClientRegistrationRepository {
 
@@ -6,17 +6,21 @@ import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProvider;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
 import vn.vinaacademy.security.properties.SecurityClientProperties;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 @RequiredArgsConstructor
 public class OAuth2ClientConfig {
   @Getter private final SecurityClientProperties securityClientProperties;
@@ -30,9 +34,13 @@ public class OAuth2ClientConfig {
 
   @Bean
   public OAuth2AuthorizedClientManager authorizedClientManager(
-      ClientRegistrationRepository clients, OAuth2AuthorizedClientService authorizedClientService) {
+      ClientRegistrationRepository clients,
+      OAuth2AuthorizedClientService authorizedClientService,
+      SecurityClientMetrics metrics) {
 
-    var provider = OAuth2AuthorizedClientProviderBuilder.builder().clientCredentials().build();
+    var provider =
+        timedProvider(
+            OAuth2AuthorizedClientProviderBuilder.builder().clientCredentials().build(), metrics);
 
     var manager =
         new AuthorizedClientServiceOAuth2AuthorizedClientManager(clients, authorizedClientService);
@@ -40,7 +48,35 @@ public class OAuth2ClientConfig {
     return manager;
   }
 
+  /**
+   * Time the provider calls that actually fetch or refresh the service token. The provider returns
+   * null when the stored token is still usable, those calls are not recorded.
+   */
+  private static OAuth2AuthorizedClientProvider timedProvider(
+      OAuth2AuthorizedClientProvider delegate, SecurityClientMetrics metrics) {
+    return context -> {
+      String type =
+          context.getAuthorizedClient() == null
+              ? SecurityClientMetrics.TOKEN_FETCH
+              : SecurityClientMetrics.TOKEN_REFRESH;
+      long start = System.nanoTime();
+      try {
+        OAuth2AuthorizedClient client = delegate.authorize(context);
+        if (client != null) {
+          metrics.recordServiceToken(
+              type, SecurityClientMetrics.OUTCOME_SUCCESS, System.nanoTime() - start);
+        }
+        return client;
+      } catch (RuntimeException e) {
+        metrics.recordServiceToken(
+            type, SecurityClientMetrics.OUTCOME_ERROR, System.nanoTime() - start);
+        throw e;
+      }
+    };
+  }
+
   @Bean
+  @Lazy
   WebClient oauth2WebClient(OAuth2AuthorizedClientManager manager) {
     var oauth = new ServletOAuth2AuthorizedClientExchangeFilterFunction(manager);
     oauth.setDefaultClientRegistrationId(CLIENT_REGISTRATION_ID);
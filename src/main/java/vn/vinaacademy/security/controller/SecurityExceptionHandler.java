@@ -1,18 +1,21 @@
 package vn.vinaacademy.security.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import vn.vinaacademy.security.exception.AccessDeniedException;
 import vn.vinaacademy.security.exception.AuthenticationException;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
- * Global exception handler for security-related exceptions
+ * Global exception handler for security-related exceptions, for both Spring MVC
+ * and WebFlux controllers
  */
 @Slf4j
 @RestControllerAdvice
@@ -45,4 +48,20 @@ public class SecurityExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+
+        Map<String, Object> errorResponse = Map.of(
+            "error", "Service Unavailable",
+            "message", ex.getMessage(),
+            "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "timestamp", LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
 }
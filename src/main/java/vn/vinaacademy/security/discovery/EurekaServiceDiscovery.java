@@ -4,24 +4,31 @@ import java.lang.reflect.Method;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
-import org.springframework.stereotype.Component;
+import vn.vinaacademy.security.observability.DiscoveryLookupEvent;
 import vn.vinaacademy.security.properties.SecurityClientProperties;
 
 /**
  * Eureka service discovery helper. Uses reflection to avoid compile-time dependency on Spring Cloud
- * Netflix Eureka Client.
+ * Netflix Eureka Client. Methods are looked up once on the {@code DiscoveryClient} and {@code
+ * ServiceInstance} interfaces, which are the only types that need reflection hints in a native
+ * image.
  */
 @Slf4j
-@Component
-@ConditionalOnProperty(prefix = "security.eureka", name = "enabled", havingValue = "true")
 public class EurekaServiceDiscovery {
+  public static final String DISCOVERY_CLIENT_CLASS =
+      "org.springframework.cloud.client.discovery.DiscoveryClient";
+  public static final String SERVICE_INSTANCE_CLASS =
+      "org.springframework.cloud.client.ServiceInstance";
 
   private final ApplicationContext applicationContext;
   private final SecurityClientProperties properties;
   private final Object discoveryClient;
 
+  private Method getInstances;
+  private Method getHost;
+  private Method getPort;
+
   @Autowired
   public EurekaServiceDiscovery(
       ApplicationContext applicationContext, SecurityClientProperties properties) {
@@ -33,8 +40,11 @@ public class EurekaServiceDiscovery {
   private Object initializeDiscoveryClient() {
     try {
       // Try to get DiscoveryClient bean using reflection
-      Class<?> discoveryClientClass =
-          Class.forName("org.springframework.cloud.client.discovery.DiscoveryClient");
+      Class<?> discoveryClientClass = Class.forName(DISCOVERY_CLIENT_CLASS);
+      Class<?> serviceInstanceClass = Class.forName(SERVICE_INSTANCE_CLASS);
+      getInstances = discoveryClientClass.getMethod("getInstances", String.class);
+      getHost = serviceInstanceClass.getMethod("getHost");
+      getPort = serviceInstanceClass.getMethod("getPort");
       return applicationContext.getBean(discoveryClientClass);
     } catch (ClassNotFoundException e) {
       log.warn(
@@ -61,8 +71,7 @@ public class EurekaServiceDiscovery {
     }
 
     try {
-      Method getHostMethod = instance.getClass().getMethod("getHost");
-      String host = (String) getHostMethod.invoke(instance);
+      String host = (String) getHost.invoke(instance);
       log.info("Resolved service '{}' to host: {}", serviceName, host);
       return host;
     } catch (Exception e) {
@@ -89,15 +98,14 @@ public class EurekaServiceDiscovery {
     }
 
     try {
-      Method getHostMethod = instance.getClass().getMethod("getHost");
-      String host = (String) getHostMethod.invoke(instance);
+      String host = (String) getHost.invoke(instance);
 
       int port;
       if (properties.getEureka().isUseSecurePort()) {
+        // Not part of ServiceInstance, so looked up on the concrete instance type
         Method getSecurePort = instance.getClass().getMethod("getSecurePort");
         port = (int) getSecurePort.invoke(instance);
       } else {
-        Method getPort = instance.getClass().getMethod("getPort");
         port = (int) getPort.invoke(instance);
       }
 
@@ -116,13 +124,22 @@ public class EurekaServiceDiscovery {
 
   /** Common method to find a service instance from Eureka using reflection. */
   private Object findServiceInstance(String serviceName) {
+    DiscoveryLookupEvent event = new DiscoveryLookupEvent();
+    event.begin();
+    Object instance = lookupServiceInstance(serviceName);
+    event.serviceName = serviceName;
+    event.found = instance != null;
+    event.commit();
+    return instance;
+  }
+
+  private Object lookupServiceInstance(String serviceName) {
     if (!properties.getEureka().isEnabled() || discoveryClient == null) {
       log.debug("Eureka discovery disabled or unavailable for '{}'", serviceName);
       return null;
     }
 
     try {
-      Method getInstances = discoveryClient.getClass().getMethod("getInstances", String.class);
       List<?> instances = (List<?>) getInstances.invoke(discoveryClient, serviceName);
 
       if (instances == null || instances.isEmpty()) {
@@ -0,0 +1,276 @@
+package vn.vinaacademy.security.endpoint;
+
+import com.google.common.cache.CacheStats;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authorization.AuthorizationPolicy;
+import vn.vinaacademy.security.authorization.AuthorizationPolicyHolder;
+import vn.vinaacademy.security.cache.SecondLevelCacheClient;
+import vn.vinaacademy.security.cache.TokenValidationCache;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig;
+import vn.vinaacademy.security.discovery.EurekaServiceDiscovery;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.limiter.PlatformCallLimiter;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.ratelimit.RequestRateLimiter;
+import vn.vinaacademy.security.revocation.TokenRevocationList;
+
+/**
+ * Actuator endpoint {@code securityclient}: reads the state of the authentication path and runs
+ * operational changes without a redeploy. Write operations are selected by path, e.g. {@code POST
+ * /actuator/securityclient/evict-user} with {@code {"userId": "..."}}:
+ *
+ * <ul>
+ *   <li>{@code flush-caches}: drop all local token validations and user info
+ *   <li>{@code evict-user} ({@code userId}): drop the cached validations and info of one user,
+ *       locally and in the second-level cache
+ *   <li>{@code token-cache-ttl} ({@code ttl}): reuse validations for at most {@code ttl} seconds
+ *   <li>{@code platform-limit} ({@code limit}): reset the adaptive platform call limit
+ *   <li>{@code rate-limit} ({@code rate}, {@code burst}): change the default per-user rate limit
+ *   <li>{@code rediscover}: rebuild the platform channels, resolving their address again
+ *   <li>{@code reload-authorization}: recompile the role hierarchy and permissions, binding
+ *       {@code security.authorization} again from the current environment
+ * </ul>
+ *
+ * Changes last until restart. Like other actuator endpoints, it is only reachable once exposed.
+ */
+@Slf4j
+@Endpoint(id = "securityclient")
+@RequiredArgsConstructor
+public class SecurityClientEndpoint {
+  private final GrpcChannelFactory channelFactory;
+  private final SecurityClientProperties properties;
+
+  @Autowired(required = false)
+  private TokenAuthenticationService authenticationService;
+
+  @Autowired(required = false)
+  private EurekaServiceDiscovery eurekaServiceDiscovery;
+
+  @Autowired(required = false)
+  private OAuth2AuthorizedClientService authorizedClientService;
+
+  @Autowired(required = false)
+  private TokenValidationCache tokenCache;
+
+  @Autowired(required = false)
+  private SecondLevelCacheClient sharedCache;
+
+  @Autowired(required = false)
+  private TokenRevocationList revocationList;
+
+  @Autowired(required = false)
+  private PlatformCallLimiter limiter;
+
+  @Autowired(required = false)
+  private RequestRateLimiter rateLimiter;
+
+  @Autowired(required = false)
+  private SecurityExpressionEvaluator expressionEvaluator;
+
+  @Autowired(required = false)
+  private AuthorizationPolicyHolder policyHolder;
+
+  @ReadOperation
+  public Map<String, Object> report() {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("grpc", grpc());
+    report.put("oauth2", oauth2());
+    report.put("caches", caches());
+    if (limiter != null) {
+      Map<String, Object> platformLimit = new LinkedHashMap<>();
+      for (TrafficClass trafficClass : TrafficClass.values()) {
+        platformLimit.put(
+            trafficClass.name().toLowerCase(),
+            Map.of(
+                "limit", limiter.getLimit(trafficClass),
+                "inFlight", limiter.getInFlight(trafficClass)));
+      }
+      report.put("platformLimit", platformLimit);
+    }
+    if (rateLimiter != null) {
+      report.put(
+          "rateLimit",
+          Map.of(
+              "buckets", rateLimiter.size(),
+              "userRate", rateLimiter.getUserLimit().getRate(),
+              "userBurst", rateLimiter.getUserLimit().getBurst()));
+    }
+    if (authenticationService != null) {
+      report.put("inFlightValidations", authenticationService.getInFlightValidations());
+    }
+    if (expressionEvaluator != null) {
+      report.put("compiledExpressions", expressionEvaluator.getCompiledExpressionCount());
+    }
+    if (policyHolder != null) {
+      AuthorizationPolicy policy = policyHolder.get();
+      report.put(
+          "authorization",
+          Map.of("roles", policy.getRoleCount(), "permissions", policy.getPermissionCount()));
+    }
+    return report;
+  }
+
+  @WriteOperation
+  public Map<String, Object> operate(
+      @Selector String operation,
+      @Nullable String userId,
+      @Nullable Integer ttl,
+      @Nullable Integer limit,
+      @Nullable Double rate,
+      @Nullable Integer burst,
+      @Nullable String trafficClass) {
+    log.info("Security client operation requested: {}", operation);
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("operation", operation);
+    switch (operation) {
+      case "flush-caches" -> {
+        if (tokenCache != null) tokenCache.invalidateAll();
+        if (sharedCache != null) sharedCache.invalidateNearCache();
+      }
+      case "evict-user" -> {
+        String id = require(userId, "userId");
+        result.put("evictedValidations", tokenCache != null ? tokenCache.evictUser(id) : 0);
+        if (sharedCache != null) sharedCache.evictUser(id);
+      }
+      case "token-cache-ttl" -> {
+        TokenValidationCache cache = enabled(tokenCache, "Token cache");
+        cache.setTtl(require(ttl, "ttl"));
+        result.put("ttl", cache.getTtl());
+      }
+      case "platform-limit" -> {
+        PlatformCallLimiter callLimiter = enabled(limiter, "Platform call limiter");
+        int newLimit = require(limit, "limit");
+        for (TrafficClass target : trafficClasses(trafficClass)) {
+          callLimiter.setLimit(target, newLimit);
+          result.put(target.name().toLowerCase(), callLimiter.getLimit(target));
+        }
+      }
+      case "rate-limit" -> {
+        RequestRateLimiter requestLimiter = enabled(rateLimiter, "Rate limiter");
+        double newRate = require(rate, "rate");
+        int newBurst = require(burst, "burst");
+        if (newRate <= 0 || newBurst <= 0) {
+          throw new InvalidEndpointRequestException(
+              "rate and burst must be positive", "Invalid rate limit");
+        }
+        requestLimiter.setUserLimit(newRate, newBurst);
+      }
+      case "rediscover" -> channelFactory.resetChannels();
+      case "reload-authorization" -> {
+        AuthorizationPolicy policy = enabled(policyHolder, "Method security").reload();
+        result.put("roles", policy.getRoleCount());
+        result.put("permissions", policy.getPermissionCount());
+      }
+      default ->
+          throw new InvalidEndpointRequestException(
+              "Unknown operation: " + operation, "Unknown operation");
+    }
+    return result;
+  }
+
+  private Map<String, Object> grpc() {
+    Map<String, Object> grpc = new LinkedHashMap<>();
+    grpc.put("address", properties.getGrpc().getGrpcAddress());
+    if (eurekaServiceDiscovery != null && properties.getEureka().isEnabled()) {
+      grpc.put("discoveredAddress", eurekaServiceDiscovery.resolveGrpcAddress());
+      grpc.put("discoveredTokenUri", eurekaServiceDiscovery.resolveOAuth2TokenUri());
+    }
+    Map<String, Object> channels = new LinkedHashMap<>();
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      var state = channelFactory.getChannelState(trafficClass);
+      channels.put(trafficClass.name().toLowerCase(), state != null ? state.name() : "NOT_CREATED");
+    }
+    grpc.put("channels", channels);
+    return grpc;
+  }
+
+  private Map<String, Object> oauth2() {
+    Map<String, Object> oauth2 = new LinkedHashMap<>();
+    oauth2.put("registrationId", OAuth2ClientConfig.CLIENT_REGISTRATION_ID);
+    OAuth2AuthorizedClient client =
+        authorizedClientService != null
+            ? authorizedClientService.loadAuthorizedClient(
+                OAuth2ClientConfig.CLIENT_REGISTRATION_ID,
+                OAuth2GrpcClientInterceptor.TOKEN_PRINCIPAL)
+            : null;
+    Instant expiresAt = client != null ? client.getAccessToken().getExpiresAt() : null;
+    oauth2.put("serviceTokenPresent", client != null);
+    if (expiresAt != null) {
+      oauth2.put("serviceTokenExpiresAt", expiresAt.toString());
+      oauth2.put("serviceTokenExpiresIn", Duration.between(Instant.now(), expiresAt).toSeconds());
+    }
+    return oauth2;
+  }
+
+  private Map<String, Object> caches() {
+    Map<String, Object> caches = new LinkedHashMap<>();
+    if (tokenCache != null) {
+      Map<String, Object> token = cacheStats(tokenCache.size(), tokenCache.stats());
+      token.put("ttl", tokenCache.getTtl());
+      caches.put("token", token);
+    }
+    if (sharedCache != null) {
+      caches.put("userNear", cacheStats(sharedCache.nearCacheSize(), sharedCache.nearCacheStats()));
+    }
+    if (revocationList != null) {
+      caches.put(
+          "revocation",
+          Map.of("size", revocationList.size(), "version", revocationList.getVersion()));
+    }
+    return caches;
+  }
+
+  private static Map<String, Object> cacheStats(long size, CacheStats stats) {
+    Map<String, Object> cache = new LinkedHashMap<>();
+    cache.put("size", size);
+    cache.put("hitRatio", stats.hitRate());
+    cache.put("evictions", stats.evictionCount());
+    return cache;
+  }
+
+  private static <T> T enabled(T component, String name) {
+    if (component == null) {
+      throw new InvalidEndpointRequestException(name + " is not enabled", name + " is disabled");
+    }
+    return component;
+  }
+
+  private static <T> T require(T value, String name) {
+    if (value == null) {
+      throw new InvalidEndpointRequestException(name + " is required", name + " is missing");
+    }
+    return value;
+  }
+
+  /** The named traffic class, or all of them when no name is given */
+  private static TrafficClass[] trafficClasses(@Nullable String name) {
+    if (name == null) {
+      return TrafficClass.values();
+    }
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      if (trafficClass.name().equalsIgnoreCase(name)) {
+        return new TrafficClass[] {trafficClass};
+      }
+    }
+    throw new InvalidEndpointRequestException(
+        "Unknown traffic class: " + name, "Unknown traffic class");
+  }
+}
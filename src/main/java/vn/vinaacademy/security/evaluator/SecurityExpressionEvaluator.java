@@ -3,33 +3,43 @@ package vn.vinaacademy.security.evaluator;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.stereotype.Component;
 import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.authorization.AuthorizationPolicy;
+import vn.vinaacademy.security.authorization.AuthorizationPolicyHolder;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Evaluates SpEL expressions for @PreAuthorize annotations.
  * Supports custom security expressions and method parameter access.
+ * Role and permission functions follow the compiled authorization policy.
  */
 @Slf4j
-@Component
 public class SecurityExpressionEvaluator {
 
     private final ExpressionParser parser = new SpelExpressionParser();
 
+    /** Parsed expressions by source; the set of expressions is bounded by the annotations in use */
+    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private AuthorizationPolicyHolder policyHolder;
+
     /**
      * Evaluate a SpEL expression in the security context
      */
     public boolean evaluate(String expressionString, UserContext userContext, JoinPoint joinPoint) {
         try {
-            Expression expression = parser.parseExpression(expressionString);
+            Expression expression = getExpression(expressionString);
             EvaluationContext context = createEvaluationContext(userContext, joinPoint);
             
             Object result = expression.getValue(context);
@@ -40,6 +50,22 @@ public class SecurityExpressionEvaluator {
         }
     }
 
+    /**
+     * Parse an expression once and reuse it for later evaluations
+     *
+     * @throws org.springframework.expression.ParseException if the expression is invalid
+     */
+    public Expression getExpression(String expressionString) {
+        return expressionCache.computeIfAbsent(expressionString, parser::parseExpression);
+    }
+
+    /**
+     * Number of parsed expressions held
+     */
+    public int getCompiledExpressionCount() {
+        return expressionCache.size();
+    }
+
     private EvaluationContext createEvaluationContext(UserContext userContext, JoinPoint joinPoint) {
         StandardEvaluationContext context = new StandardEvaluationContext();
         
@@ -71,13 +97,16 @@ public class SecurityExpressionEvaluator {
 
     private void registerSecurityFunctions(EvaluationContext context, UserContext userContext) {
         // Register security functions
-        SecurityFunctions functions = new SecurityFunctions(userContext);
+        AuthorizationPolicy policy = policyHolder != null ? policyHolder.get() : AuthorizationPolicy.EMPTY;
+        SecurityFunctions functions = new SecurityFunctions(userContext, policy);
         
         // Register security functions as variables
         context.setVariable("hasRole", (java.util.function.Function<String, Boolean>) functions::hasRole);
         context.setVariable("hasAnyRole", (java.util.function.Function<String[], Boolean>) functions::hasAnyRole);
         context.setVariable("hasAllRoles", (java.util.function.Function<String[], Boolean>) functions::hasAllRoles);
         context.setVariable("isAuthenticated", (java.util.function.Supplier<Boolean>) functions::isAuthenticated);
+        context.setVariable("hasPermission", (java.util.function.Function<String, Boolean>) functions::hasPermission);
+        context.setVariable("hasAnyPermission", (java.util.function.Function<String[], Boolean>) functions::hasAnyPermission);
         
         // For StandardEvaluationContext, we can set the root object
         if (context instanceof StandardEvaluationContext) {
@@ -90,21 +119,35 @@ public class SecurityExpressionEvaluator {
      */
     public static class SecurityFunctions {
         private final UserContext userContext;
+        private final AuthorizationPolicy policy;
 
         public SecurityFunctions(UserContext userContext) {
+            this(userContext, AuthorizationPolicy.EMPTY);
+        }
+
+        public SecurityFunctions(UserContext userContext, AuthorizationPolicy policy) {
             this.userContext = userContext;
+            this.policy = policy;
         }
 
         public boolean hasRole(String role) {
-            return userContext != null && userContext.hasRole(role);
+            return policy.hasRole(userContext, role);
         }
 
         public boolean hasAnyRole(String... roles) {
-            return userContext != null && userContext.hasAnyRole(roles);
+            return policy.hasAnyRole(userContext, roles);
         }
 
         public boolean hasAllRoles(String... roles) {
-            return userContext != null && userContext.hasAllRoles(roles);
+            return policy.hasAllRoles(userContext, roles);
+        }
+
+        public boolean hasPermission(String permission) {
+            return policy.hasPermission(userContext, permission);
+        }
+
+        public boolean hasAnyPermission(String... permissions) {
+            return policy.hasAnyPermission(userContext, permissions);
         }
 
         public boolean isAuthenticated() {
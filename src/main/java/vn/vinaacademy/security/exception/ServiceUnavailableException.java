@@ -0,0 +1,18 @@
+package vn.vinaacademy.security.exception;
+
+/**
+ * Exception thrown when a call to the platform server is shed because it is overloaded
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Seconds the caller should wait before retrying */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
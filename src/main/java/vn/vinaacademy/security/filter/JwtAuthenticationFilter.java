@@ -2,33 +2,78 @@ package vn.vinaacademy.security.filter;
 
 import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
 
-import com.vinaacademy.grpc.ValidateTokenResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.net.InetAddresses;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
-import org.springframework.stereotype.Component;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import vn.vinaacademy.security.audit.AuditEvent;
+import vn.vinaacademy.security.audit.AuditPublisher;
 import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
 import vn.vinaacademy.security.authentication.UserContext;
-import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.observability.AuthPhaseTimings;
+import vn.vinaacademy.security.observability.TokenExtractEvent;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.ratelimit.ClientAddressResolver;
+import vn.vinaacademy.security.ratelimit.RequestRateLimiter;
+import vn.vinaacademy.security.route.AuthMode;
+import vn.vinaacademy.security.route.RouteMatcher;
 
 /**
  * Filter to extract JWT token from Authorization header and validate it via gRPC. Sets up the
- * security context for the current request.
+ * security context for the current request. Routes configured under {@code security.filter.routes}
+ * can skip authentication entirely or require it, in which case anonymous requests are rejected
+ * with 401 before reaching the controller. With {@code security.filter.lazy} the token of an
+ * optional route is only validated when the security context is first read. With {@code
+ * security.propagation.enabled} a valid identity assertion from a trusted internal caller replaces
+ * the token validation. With {@code security.rate-limit.enabled} requests over the caller's rate
+ * are rejected with 429 once the identity is known. With {@code security.audit.enabled} each
+ * outcome is published as an authentication audit event. User and token lookups are memoized for
+ * the duration of the request unless {@code security.filter.lookup-memo=false}.
  */
 @Slf4j
-@Component
 @Order(HIGHEST_PRECEDENCE)
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+  private static final String AUTH_MODE_ATTRIBUTE =
+      JwtAuthenticationFilter.class.getName() + ".AUTH_MODE";
+  private static final ObjectMapper objectMapper = new ObjectMapper();
 
-  private final JwtGrpcClient jwtGrpcClient;
+  private final TokenAuthenticationService authenticationService;
+  private final SecurityClientProperties properties;
+  private final RouteMatcher routeMatcher;
+  private final ClientAddressResolver clientAddressResolver;
+
+  @Autowired(required = false)
+  private RequestRateLimiter rateLimiter;
+
+  @Autowired(required = false)
+  private AuditPublisher auditPublisher;
+
+  public JwtAuthenticationFilter(
+      TokenAuthenticationService authenticationService, SecurityClientProperties properties) {
+    this.authenticationService = authenticationService;
+    this.properties = properties;
+    this.routeMatcher = RouteMatcher.compile(properties.getFilter());
+    this.clientAddressResolver = new ClientAddressResolver(properties.getRateLimit());
+  }
 
   @Override
   protected void doFilterInternal(
@@ -36,21 +81,91 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain)
       throws ServletException, IOException {
+    AuthPhaseTimings timings =
+        properties.getObservability().isServerTiming() ? new AuthPhaseTimings() : null;
+    long start = auditPublisher != null ? System.nanoTime() : 0L;
+    String userId = null;
+    if (properties.getFilter().isLookupMemo()) {
+      SecurityContextHolder.enableLookupMemo();
+    }
     try {
+      TokenExtractEvent extractEvent = new TokenExtractEvent();
+      extractEvent.begin();
+      long extractStart = timings != null ? System.nanoTime() : 0L;
       String token = extractTokenFromRequest(request);
+      extractEvent.tokenPresent = token != null;
+      extractEvent.commit();
+      if (timings != null) timings.recordExtract(System.nanoTime() - extractStart);
 
-      if (token != null) {
-        UserContext userContext = validateTokenAndCreateContext(token);
+      AuthMode mode = resolveAuthMode(request);
+      boolean authenticated = false;
+      String outcome = "anonymous";
+      UserContext asserted =
+          properties.getPropagation().isEnabled()
+              ? authenticationService.authenticateAssertion(
+                  request.getHeader(properties.getPropagation().getHeader()),
+                  peerAddress(request),
+                  requestPath(request))
+              : null;
+      if (asserted != null) {
+        // Identity already validated upstream and signed by an internal service
+        SecurityContextHolder.setContext(asserted);
+        authenticated = true;
+        userId = asserted.getUserId();
+        outcome = "asserted";
+        log.debug("Security context set from identity assertion: {}", asserted.getUserId());
+      } else if (token != null && mode != AuthMode.REQUIRED && properties.getFilter().isLazy()) {
+        // Validated on first SecurityContextHolder access, so untouched requests skip the RPC
+        SecurityContextHolder.setLazyContext(() -> authenticationService.authenticate(token));
+        outcome = "deferred";
+        log.trace("Token validation deferred until first context access");
+      } else if (token != null) {
+        UserContext userContext = authenticationService.authenticate(token, timings);
         SecurityContextHolder.setContext(userContext);
+        authenticated = userContext.isAuthenticated();
+        userId = userContext.getUserId();
+        outcome = authenticated ? "authenticated" : "invalid_token";
         log.debug("Security context set for user: {}", userContext.getUserId());
       } else {
         log.trace("No token found in request");
       }
 
+      if (timings != null) {
+        response.addHeader(AuthPhaseTimings.HEADER, timings.toHeaderValue());
+      }
+      if (rateLimiter != null && !CorsUtils.isPreFlightRequest(request)) {
+        // A pending lazy context counts as anonymous so the limit does not force validation
+        boolean pending = SecurityContextHolder.isContextPending();
+        long wait =
+            rateLimiter.tryAcquire(
+                pending ? null : SecurityContextHolder.getContext(),
+                clientAddressResolver.resolve(request));
+        if (wait > 0) {
+          audit(request, userId, "rate_limited", false, start, "Rate limit exceeded");
+          rejectRateLimited(response, wait);
+          return;
+        }
+      }
+      if (!authenticated && mode == AuthMode.REQUIRED && !CorsUtils.isPreFlightRequest(request)) {
+        String message = token == null ? "Authentication token is required" : "Invalid token";
+        audit(request, userId, "unauthenticated", false, start, message);
+        rejectUnauthenticated(response, message);
+        return;
+      }
+      audit(request, userId, outcome, !"invalid_token".equals(outcome), start, null);
       filterChain.doFilter(request, response);
 
+    } catch (ServiceUnavailableException e) {
+      if (response.isCommitted()) {
+        throw e;
+      }
+      log.warn("Request shed: {}", e.getMessage());
+      audit(request, userId, "shed", false, start, e.getMessage());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+      writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", e.getMessage());
     } catch (Exception e) {
-      log.error("Error processing JWT token", e);
+      log.error("Error processing JWT token: {}", e.toString());
+      log.debug("JWT processing failure", e);
       // Continue with empty security context
       filterChain.doFilter(request, response);
     } finally {
@@ -59,6 +174,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
   }
 
+  private void audit(
+      HttpServletRequest request,
+      String userId,
+      String decision,
+      boolean granted,
+      long start,
+      String reason) {
+    if (auditPublisher != null) {
+      auditPublisher.publish(
+          AuditEvent.AUTHENTICATION,
+          userId,
+          request.getMethod() + " " + requestPath(request),
+          decision,
+          granted,
+          System.nanoTime() - start,
+          reason);
+    }
+  }
+
   private String extractTokenFromRequest(HttpServletRequest request) {
     String authHeader = request.getHeader("Authorization");
 
@@ -69,38 +203,60 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     return null;
   }
 
-  private UserContext validateTokenAndCreateContext(String token) {
-    try {
-      ValidateTokenResponse response = jwtGrpcClient.validateToken(token);
-
-      if (response.getIsValid()) {
-        return UserContext.builder()
-            .userId(response.getUserId())
-            .email(response.getEmail())
-            .fullName(response.getFullName())
-            .avatarUrl(response.getAvatarUrl())
-            .roles(UserContext.parseRoles(response.getRoles()))
-            .token(token)
-            .authenticated(true)
-            .build();
-      } else {
-        log.debug("Token validation failed: {}", response.getMessage());
-        return createUnauthenticatedContext(token);
-      }
-    } catch (Exception e) {
-      log.error("Error validating token via gRPC", e);
-      return createUnauthenticatedContext(token);
+  private void rejectUnauthenticated(HttpServletResponse response, String message)
+      throws IOException {
+    log.debug("Request rejected: {}", message);
+    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+    writeError(response, HttpStatus.UNAUTHORIZED, "Authentication Required", message);
+  }
+
+  private void rejectRateLimited(HttpServletResponse response, long waitNanos)
+      throws IOException {
+    long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    log.debug("Request rate limited, retry after {}s", retryAfter);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", "Rate limit exceeded");
+  }
+
+  /** Write the same body as SecurityExceptionHandler */
+  private static void writeError(
+      HttpServletResponse response, HttpStatus status, String error, String message)
+      throws IOException {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("error", error);
+    body.put("message", message);
+    body.put("status", status.value());
+    body.put("timestamp", LocalDateTime.now().toString());
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getWriter(), body);
+  }
+
+  private AuthMode resolveAuthMode(HttpServletRequest request) {
+    if (request.getAttribute(AUTH_MODE_ATTRIBUTE) instanceof AuthMode mode) {
+      return mode;
     }
+    return routeMatcher.match(request.getMethod(), requestPath(request));
+  }
+
+  /** Address of the direct peer, which forwarded headers cannot spoof */
+  private static InetAddress peerAddress(HttpServletRequest request) {
+    String address = request.getRemoteAddr();
+    return address != null && InetAddresses.isInetAddress(address)
+        ? InetAddresses.forString(address)
+        : null;
   }
 
-  private UserContext createUnauthenticatedContext(String token) {
-    return UserContext.builder().token(token).authenticated(false).build();
+  /** Path within the application, decoded and normalized by the container */
+  private static String requestPath(HttpServletRequest request) {
+    String pathInfo = request.getPathInfo();
+    return pathInfo != null ? request.getServletPath() + pathInfo : request.getServletPath();
   }
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
-    // Skip filter for health check endpoints and actuator endpoints
-    String path = request.getRequestURI();
-    return path.startsWith("/actuator/") || path.equals("/health") || path.equals("/ping");
+    AuthMode mode = routeMatcher.match(request.getMethod(), requestPath(request));
+    request.setAttribute(AUTH_MODE_ATTRIBUTE, mode);
+    return mode == AuthMode.SKIP;
   }
 }
@@ -0,0 +1,202 @@
+package vn.vinaacademy.security.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import vn.vinaacademy.security.audit.AuditEvent;
+import vn.vinaacademy.security.audit.AuditPublisher;
+import vn.vinaacademy.security.authentication.ReactiveSecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.route.AuthMode;
+import vn.vinaacademy.security.route.RouteMatcher;
+
+/**
+ * WebFlux counterpart of {@link JwtAuthenticationFilter}: validates the bearer token or identity
+ * assertion of the request and writes the user context to the Reactor context through {@link
+ * ReactiveSecurityContextHolder}, where the security aspect reads it for methods returning {@code
+ * Mono} or {@code Flux}. Route rules apply as in the servlet filter. Validation is a blocking gRPC
+ * call and runs on the bounded elastic scheduler. Lazy validation, the request rate limit and
+ * lookup memoization are servlet-only.
+ */
+@Slf4j
+public class ReactiveJwtAuthenticationFilter implements WebFilter, Ordered {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final TokenAuthenticationService authenticationService;
+  private final SecurityClientProperties properties;
+  private final RouteMatcher routeMatcher;
+
+  @Autowired(required = false)
+  private AuditPublisher auditPublisher;
+
+  public ReactiveJwtAuthenticationFilter(
+      TokenAuthenticationService authenticationService, SecurityClientProperties properties) {
+    this.authenticationService = authenticationService;
+    this.properties = properties;
+    this.routeMatcher = RouteMatcher.compile(properties.getFilter());
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    String path = request.getPath().pathWithinApplication().value();
+    AuthMode mode = routeMatcher.match(request.getMethod().name(), path);
+    if (mode == AuthMode.SKIP) {
+      return chain.filter(exchange);
+    }
+    long start = auditPublisher != null ? System.nanoTime() : 0L;
+    String route = request.getMethod().name() + " " + path;
+    return Mono.fromCallable(() -> authenticate(request, path))
+        .subscribeOn(Schedulers.boundedElastic())
+        .map(Authentication::new)
+        .defaultIfEmpty(Authentication.ANONYMOUS)
+        .onErrorResume(
+            e -> !(e instanceof ServiceUnavailableException),
+            e -> {
+              log.error("Error processing JWT token: {}", e.toString());
+              log.debug("JWT processing failure", e);
+              return Mono.just(Authentication.ANONYMOUS);
+            })
+        .flatMap(
+            authentication -> {
+              UserContext context = authentication.context();
+              boolean authenticated = context != null && context.isAuthenticated();
+              String userId = context != null ? context.getUserId() : null;
+              if (!authenticated
+                  && mode == AuthMode.REQUIRED
+                  && !CorsUtils.isPreFlightRequest(request)) {
+                String message =
+                    context == null ? "Authentication token is required" : "Invalid token";
+                audit(userId, route, "unauthenticated", false, start, message);
+                log.debug("Request rejected: {}", message);
+                exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                return writeError(
+                    exchange.getResponse(),
+                    HttpStatus.UNAUTHORIZED,
+                    "Authentication Required",
+                    message);
+              }
+              String outcome =
+                  context == null ? "anonymous" : authenticated ? "authenticated" : "invalid_token";
+              audit(userId, route, outcome, context == null || authenticated, start, null);
+              if (context == null) {
+                return chain.filter(exchange);
+              }
+              return chain
+                  .filter(exchange)
+                  .contextWrite(ReactiveSecurityContextHolder.withContext(context));
+            })
+        .onErrorResume(
+            ServiceUnavailableException.class,
+            e -> {
+              if (exchange.getResponse().isCommitted()) {
+                return Mono.error(e);
+              }
+              log.warn("Request shed: {}", e.getMessage());
+              audit(null, route, "shed", false, start, e.getMessage());
+              exchange
+                  .getResponse()
+                  .getHeaders()
+                  .set(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+              return writeError(
+                  exchange.getResponse(),
+                  HttpStatus.SERVICE_UNAVAILABLE,
+                  "Service Unavailable",
+                  e.getMessage());
+            });
+  }
+
+  /** The asserted or validated user, or null when the request carries no credentials */
+  private UserContext authenticate(ServerHttpRequest request, String path) {
+    if (properties.getPropagation().isEnabled()) {
+      UserContext asserted =
+          authenticationService.authenticateAssertion(
+              request.getHeaders().getFirst(properties.getPropagation().getHeader()),
+              peerAddress(request),
+              path);
+      if (asserted != null) {
+        log.debug("Security context set from identity assertion: {}", asserted.getUserId());
+        return asserted;
+      }
+    }
+    String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+      log.trace("No token found in request");
+      return null;
+    }
+    UserContext userContext = authenticationService.authenticate(authHeader.substring(7));
+    log.debug("Security context set for user: {}", userContext.getUserId());
+    return userContext;
+  }
+
+  private void audit(
+      String userId, String route, String decision, boolean granted, long start, String reason) {
+    if (auditPublisher != null) {
+      auditPublisher.publish(
+          AuditEvent.AUTHENTICATION,
+          userId,
+          route,
+          decision,
+          granted,
+          System.nanoTime() - start,
+          reason);
+    }
+  }
+
+  /** Write the same body as SecurityExceptionHandler */
+  private static Mono<Void> writeError(
+      ServerHttpResponse response, HttpStatus status, String error, String message) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("error", error);
+    body.put("message", message);
+    body.put("status", status.value());
+    body.put("timestamp", LocalDateTime.now().toString());
+    byte[] bytes;
+    try {
+      bytes = objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException e) {
+      bytes = message.getBytes(StandardCharsets.UTF_8);
+    }
+    response.setStatusCode(status);
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+  }
+
+  /** Address of the direct peer, which forwarded headers cannot spoof */
+  private static InetAddress peerAddress(ServerHttpRequest request) {
+    InetSocketAddress address = request.getRemoteAddress();
+    return address != null ? address.getAddress() : null;
+  }
+
+  /** Result of the authentication step; Reactor does not carry null values */
+  private record Authentication(UserContext context) {
+    private static final Authentication ANONYMOUS = new Authentication(null);
+  }
+}
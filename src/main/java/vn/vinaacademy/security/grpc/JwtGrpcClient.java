@@ -2,37 +2,133 @@ package vn.vinaacademy.security.grpc;
 
 import com.vinaacademy.grpc.JwtServiceGrpc;
 import com.vinaacademy.grpc.JwtServiceGrpc.JwtServiceBlockingStub;
+import com.vinaacademy.grpc.RevokedTokensRequest;
+import com.vinaacademy.grpc.RevokedTokensResponse;
 import com.vinaacademy.grpc.TokenRequest;
 import com.vinaacademy.grpc.ValidateTokenResponse;
 import io.grpc.ManagedChannel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import vn.vinaacademy.security.authentication.RequestLookupMemo;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
 import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.limiter.PlatformCallLimiter;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.observability.PlatformRpcEvent;
 
 @Slf4j
-@Service
 @RequiredArgsConstructor
 public class JwtGrpcClient {
-
   private final GrpcChannelFactory channelFactory;
+  private final SecurityClientMetrics metrics;
+
+  @Autowired(required = false)
+  private PlatformCallLimiter limiter;
 
+  /**
+   * Validate a token via gRPC call to platform server. Within a request, the verdict of an earlier
+   * call for the same token is reused.
+   *
+   * @param jwtToken the raw token
+   * @return ValidateTokenResponse, invalid with an error message if the call failed or was shed
+   */
   public ValidateTokenResponse validateToken(String jwtToken) {
-    ManagedChannel channel = null;
+    return validate(jwtToken).response();
+  }
+
+  /**
+   * Validate a token like {@link #validateToken(String)}, telling a verdict of the platform apart
+   * from a failed call.
+   *
+   * @param jwtToken the raw token
+   * @return the verdict, or the failure of the call, a {@link ServiceUnavailableException} if it
+   *     was shed by the limiter
+   */
+  public TokenValidation validate(String jwtToken) {
+    RequestLookupMemo memo = SecurityContextHolder.getLookupMemo();
+    if (memo == null) {
+      return callValidateToken(jwtToken);
+    }
+    ValidateTokenResponse memoized = memo.getValidation(jwtToken);
+    if (memoized != null) {
+      return new TokenValidation(memoized, null);
+    }
+    TokenValidation validation = callValidateToken(jwtToken);
+    // Verdicts are kept, failed calls are not so a later caller may retry
+    if (validation.isVerdict()) {
+      memo.putValidation(jwtToken, validation.response());
+    }
+    return validation;
+  }
+
+  private TokenValidation callValidateToken(String jwtToken) {
+    long permit = 0L;
+    boolean acquired = false;
+    Throwable failure = null;
+    PlatformRpcEvent event = new PlatformRpcEvent();
+    event.begin();
+    long start = System.nanoTime();
+    String outcome = SecurityClientMetrics.OUTCOME_ERROR;
     try {
-      channel = channelFactory.createAuthChannel();
+      if (limiter != null) {
+        permit = limiter.acquire(TrafficClass.VALIDATION);
+        acquired = true;
+      }
+      ManagedChannel channel = channelFactory.getAuthChannel();
 
       JwtServiceBlockingStub stub = JwtServiceGrpc.newBlockingStub(channel);
       TokenRequest request = TokenRequest.newBuilder().setToken(jwtToken).build();
-      return stub.validateToken(request);
+      ValidateTokenResponse response = stub.validateToken(request);
+      outcome =
+          response.getIsValid()
+              ? SecurityClientMetrics.OUTCOME_VALID
+              : SecurityClientMetrics.OUTCOME_INVALID;
+      return new TokenValidation(response, null);
+    } catch (ServiceUnavailableException e) {
+      outcome = SecurityClientMetrics.OUTCOME_SHED;
+      log.debug("Token validation shed: {}", e.getMessage());
+      return new TokenValidation(
+          ValidateTokenResponse.newBuilder().setIsValid(false).setMessage(e.getMessage()).build(),
+          e);
     } catch (Exception e) {
+      failure = e;
       log.error("Error validating token via gRPC: {}", e.getMessage());
-      return ValidateTokenResponse.newBuilder()
-          .setIsValid(false)
-          .setMessage("Failed to validate token: " + e.getMessage())
-          .build();
+      ValidateTokenResponse response =
+          ValidateTokenResponse.newBuilder()
+              .setIsValid(false)
+              .setMessage("Failed to validate token: " + e.getMessage())
+              .build();
+      return new TokenValidation(response, e);
     } finally {
-      if (channel != null) channel.shutdownNow();
+      if (acquired) limiter.release(TrafficClass.VALIDATION, permit, failure);
+      metrics.recordTokenValidation(outcome, System.nanoTime() - start);
+      event.method = "validateToken";
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
+  /**
+   * Fetch token revocations newer than the given version via gRPC call to platform server
+   *
+   * @param sinceVersion the last revocation version applied locally, 0 for a full snapshot
+   * @return RevokedTokensResponse with the revocation delta, or an empty response at sinceVersion
+   *     on error
+   */
+  public RevokedTokensResponse getRevokedTokens(long sinceVersion) {
+    try {
+      ManagedChannel channel = channelFactory.getChannel(TrafficClass.BULK);
+
+      JwtServiceBlockingStub stub = JwtServiceGrpc.newBlockingStub(channel);
+      RevokedTokensRequest request =
+          RevokedTokensRequest.newBuilder().setSinceVersion(sinceVersion).build();
+      return stub.getRevokedTokens(request);
+    } catch (Exception e) {
+      log.error("Error fetching revoked tokens via gRPC: {}", e.getMessage());
+      return RevokedTokensResponse.newBuilder().setVersion(sinceVersion).build();
     }
   }
 }
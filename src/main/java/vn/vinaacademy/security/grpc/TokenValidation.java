@@ -0,0 +1,18 @@
+package vn.vinaacademy.security.grpc;
+
+import com.vinaacademy.grpc.ValidateTokenResponse;
+
+/**
+ * Result of a token validation call: the platform's verdict, or the failure that prevented one.
+ *
+ * @param response the platform's response, or an invalid response carrying the error message if
+ *     the call failed
+ * @param failure the exception the call failed with, or null if the platform gave a verdict
+ */
+public record TokenValidation(ValidateTokenResponse response, Exception failure) {
+
+  /** Whether the platform answered, valid or not, as opposed to the call failing */
+  public boolean isVerdict() {
+    return failure == null;
+  }
+}
@@ -4,32 +4,94 @@ import com.vinaacademy.grpc.GetUserByIdRequest;
 import com.vinaacademy.grpc.GetUserByIdResponse;
 import com.vinaacademy.grpc.GetUserByIdsRequest;
 import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.UserInfo;
 import com.vinaacademy.grpc.UserServiceGrpc;
 import com.vinaacademy.grpc.UserServiceGrpc.UserServiceBlockingStub;
 import io.grpc.ManagedChannel;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import vn.vinaacademy.security.authentication.RequestLookupMemo;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.cache.SecondLevelCacheClient;
 import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.limiter.PlatformCallLimiter;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.observability.PlatformRpcEvent;
 
 @Slf4j
-@Service
 @RequiredArgsConstructor
 public class UserGrpcClient {
   private final GrpcChannelFactory channelFactory;
+  private final SecurityClientMetrics metrics;
+
+  @Autowired(required = false)
+  private PlatformCallLimiter limiter;
+
+  @Autowired(required = false)
+  private SecondLevelCacheClient sharedCache;
 
   /**
-   * Get user information by user ID via gRPC call to platform server
+   * Get user information by user ID via gRPC call to platform server, or from the request's lookup
+   * memo and the near and shared caches when present
    *
    * @param userId the user ID to fetch information for
    * @return GetUserByIdResponse containing user information or error response
    */
   public GetUserByIdResponse getUserById(String userId) {
-    ManagedChannel channel;
+    RequestLookupMemo memo = SecurityContextHolder.getLookupMemo();
+    if (memo == null) {
+      return lookupUserById(userId);
+    }
+    UserInfo memoized = memo.getUser(userId);
+    if (memoized != null) {
+      return GetUserByIdResponse.newBuilder().setSuccess(true).setUser(memoized).build();
+    }
+    GetUserByIdResponse response = lookupUserById(userId);
+    if (response.getSuccess() && response.hasUser()) {
+      memo.putUser(response.getUser());
+    }
+    return response;
+  }
+
+  private GetUserByIdResponse lookupUserById(String userId) {
+    if (sharedCache == null) {
+      return fetchUserById(userId);
+    }
+    UserInfo cached = sharedCache.getUser(userId);
+    if (cached != null) {
+      return GetUserByIdResponse.newBuilder().setSuccess(true).setUser(cached).build();
+    }
+    GetUserByIdResponse response = fetchUserById(userId);
+    if (response.getSuccess() && response.hasUser()) {
+      sharedCache.putUser(response.getUser());
+    }
+    return response;
+  }
+
+  private GetUserByIdResponse fetchUserById(String userId) {
+    long permit = 0L;
+    boolean acquired = false;
+    Throwable failure = null;
+    PlatformRpcEvent event = new PlatformRpcEvent();
+    event.begin();
+    long start = System.nanoTime();
+    String outcome = SecurityClientMetrics.OUTCOME_ERROR;
     try {
-      channel = channelFactory.createAuthChannel();
+      if (limiter != null) {
+        permit = limiter.acquire(TrafficClass.VALIDATION);
+        acquired = true;
+      }
+      ManagedChannel channel = channelFactory.getAuthChannel();
       UserServiceBlockingStub userServiceStub = UserServiceGrpc.newBlockingStub(channel);
 
       GetUserByIdRequest request = GetUserByIdRequest.newBuilder().setUserId(userId).build();
@@ -43,9 +105,18 @@ public class UserGrpcClient {
         log.warn(
             "Failed to fetch user info for userId: {}. Message: {}", userId, response.getMessage());
       }
+      outcome =
+          response.getSuccess()
+              ? SecurityClientMetrics.OUTCOME_SUCCESS
+              : SecurityClientMetrics.OUTCOME_FAILURE;
 
       return response;
+    } catch (ServiceUnavailableException e) {
+      outcome = SecurityClientMetrics.OUTCOME_SHED;
+      log.debug("User lookup shed for userId: {}. {}", userId, e.getMessage());
+      return GetUserByIdResponse.newBuilder().setSuccess(false).setMessage(e.getMessage()).build();
     } catch (Exception e) {
+      failure = e;
       log.error(
           "Error fetching user info via gRPC for userId: {}. Error: {}", userId, e.getMessage());
 
@@ -54,6 +125,13 @@ public class UserGrpcClient {
           .setSuccess(false)
           .setMessage("Failed to fetch user information: " + e.getMessage())
           .build();
+    } finally {
+      if (acquired) limiter.release(TrafficClass.VALIDATION, permit, failure);
+      metrics.recordUserLookup(
+          SecurityClientMetrics.METHOD_GET_USER_BY_ID, outcome, System.nanoTime() - start);
+      event.method = SecurityClientMetrics.METHOD_GET_USER_BY_ID;
+      event.outcome = outcome;
+      event.commit();
     }
   }
 
@@ -62,15 +140,79 @@ public class UserGrpcClient {
   }
 
   /**
-   * Get multiple users information by user IDs via gRPC call to platform server
+   * Get multiple users information by user IDs via gRPC call to platform server. Only the ids
+   * missing from the request's lookup memo and the near and shared caches are requested.
    *
    * @param userIds the list of user IDs to fetch information for
    * @return GetUserByIdsResponse containing users information or error response
    */
   public GetUserByIdsResponse getUserByIds(List<String> userIds) {
-    ManagedChannel channel;
+    RequestLookupMemo memo = SecurityContextHolder.getLookupMemo();
+    if (memo == null) {
+      return lookupUserByIds(userIds);
+    }
+    Map<String, UserInfo> users = new HashMap<>();
+    for (String id : userIds) {
+      UserInfo memoized = memo.getUser(id);
+      if (memoized != null) {
+        users.put(id, memoized);
+      }
+    }
+    return merge(userIds, users, this::lookupUserByIds, memo::putUser);
+  }
+
+  private GetUserByIdsResponse lookupUserByIds(List<String> userIds) {
+    if (sharedCache == null) {
+      return fetchUserByIds(userIds);
+    }
+    Map<String, UserInfo> cached = sharedCache.getUsers(userIds);
+    return merge(userIds, cached, this::fetchUserByIds, sharedCache::putUser);
+  }
+
+  /**
+   * Complete the users found locally with a lookup of the missing ids, in the order requested
+   *
+   * @param found users already found, by id; filled with the fetched ones
+   * @param store called for each fetched user
+   */
+  private static GetUserByIdsResponse merge(
+      List<String> userIds,
+      Map<String, UserInfo> found,
+      Function<List<String>, GetUserByIdsResponse> lookup,
+      Consumer<UserInfo> store) {
+    List<String> missing =
+        userIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+    GetUserByIdsResponse.Builder merged = GetUserByIdsResponse.newBuilder().setSuccess(true);
+    if (!missing.isEmpty()) {
+      GetUserByIdsResponse response = lookup.apply(missing);
+      if (!response.getSuccess()) {
+        return response;
+      }
+      for (UserInfo user : response.getUsersList()) {
+        found.put(user.getId(), user);
+        store.accept(user);
+      }
+      merged.setMessage(response.getMessage()).addAllNotFoundIds(response.getNotFoundIdsList());
+    }
+    userIds.stream().distinct().map(found::get).filter(Objects::nonNull).forEach(merged::addUsers);
+    return merged.build();
+  }
+
+  private GetUserByIdsResponse fetchUserByIds(List<String> userIds) {
+    long permit = 0L;
+    boolean acquired = false;
+    Throwable failure = null;
+    PlatformRpcEvent event = new PlatformRpcEvent();
+    event.begin();
+    long start = System.nanoTime();
+    String outcome = SecurityClientMetrics.OUTCOME_ERROR;
+    metrics.recordUserLookupBatchSize(userIds.size());
     try {
-      channel = channelFactory.createAuthChannel();
+      if (limiter != null) {
+        permit = limiter.acquire(TrafficClass.BULK);
+        acquired = true;
+      }
+      ManagedChannel channel = channelFactory.getChannel(TrafficClass.BULK);
       UserServiceBlockingStub userServiceStub = UserServiceGrpc.newBlockingStub(channel);
 
       GetUserByIdsRequest request = GetUserByIdsRequest.newBuilder().addAllUserIds(userIds).build();
@@ -88,9 +230,18 @@ public class UserGrpcClient {
             userIds,
             response.getMessage());
       }
+      outcome =
+          response.getSuccess()
+              ? SecurityClientMetrics.OUTCOME_SUCCESS
+              : SecurityClientMetrics.OUTCOME_FAILURE;
 
       return response;
+    } catch (ServiceUnavailableException e) {
+      outcome = SecurityClientMetrics.OUTCOME_SHED;
+      log.debug("User lookup shed for {} userIds. {}", userIds.size(), e.getMessage());
+      return GetUserByIdsResponse.newBuilder().setSuccess(false).setMessage(e.getMessage()).build();
     } catch (Exception e) {
+      failure = e;
       log.error(
           "Error fetching users info via gRPC for userIds: {}. Error: {}", userIds, e.getMessage());
 
@@ -99,6 +250,13 @@ public class UserGrpcClient {
           .setSuccess(false)
           .setMessage("Failed to fetch users information: " + e.getMessage())
           .build();
+    } finally {
+      if (acquired) limiter.release(TrafficClass.BULK, permit, failure);
+      metrics.recordUserLookup(
+          SecurityClientMetrics.METHOD_GET_USER_BY_IDS, outcome, System.nanoTime() - start);
+      event.method = SecurityClientMetrics.METHOD_GET_USER_BY_IDS;
+      event.outcome = outcome;
+      event.commit();
     }
   }
 
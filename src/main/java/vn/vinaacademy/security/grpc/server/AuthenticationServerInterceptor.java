@@ -0,0 +1,209 @@
+package vn.vinaacademy.security.grpc.server;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.route.AuthMode;
+
+/**
+ * Server interceptor authenticating inbound gRPC calls with the same pipeline as {@code
+ * JwtAuthenticationFilter}: signed identity assertions, revocation list, token cache and coalesced
+ * remote validation. The user is bound to the gRPC {@link Context} under {@link
+ * GrpcSecurityContext#USER_CONTEXT} and to {@link SecurityContextHolder} around every listener
+ * callback, so {@code @PreAuthorize} and {@code @HasAnyRole} work in service implementations.
+ */
+@Slf4j
+public class AuthenticationServerInterceptor implements ServerInterceptor {
+  /** Built-in skipped services, applied after the configured ones */
+  private static final Map<String, AuthMode> DEFAULT_METHODS =
+      Map.of(
+          "grpc.health.v1.Health/*", AuthMode.SKIP,
+          "grpc.reflection.v1.ServerReflection/*", AuthMode.SKIP,
+          "grpc.reflection.v1alpha.ServerReflection/*", AuthMode.SKIP);
+
+  private static final Metadata.Key<String> AUTHORIZATION =
+      Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final TokenAuthenticationService authenticationService;
+  private final Metadata.Key<String> assertionKey;
+  private final AuthMode defaultMode;
+  private final Map<String, AuthMode> methods = new HashMap<>();
+
+  /** Resolved mode per full method name, bounded by the number of methods served */
+  private final Map<String, AuthMode> resolvedModes = new ConcurrentHashMap<>();
+
+  public AuthenticationServerInterceptor(
+      TokenAuthenticationService authenticationService, SecurityClientProperties properties) {
+    this.authenticationService = authenticationService;
+    this.assertionKey =
+        properties.getPropagation().isEnabled()
+            ? Metadata.Key.of(
+                properties.getPropagation().getHeader(), Metadata.ASCII_STRING_MARSHALLER)
+            : null;
+    this.defaultMode = properties.getGrpcServer().getDefaultMode();
+    this.methods.putAll(DEFAULT_METHODS);
+    this.methods.putAll(properties.getGrpcServer().getMethods());
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    AuthMode mode = resolveMode(call.getMethodDescriptor().getFullMethodName());
+    if (mode == AuthMode.SKIP) {
+      return next.startCall(call, headers);
+    }
+
+    UserContext userContext;
+    try {
+      userContext = authenticate(call, headers);
+    } catch (ServiceUnavailableException e) {
+      log.debug("Shed gRPC call to {}: {}", call.getMethodDescriptor(), e.getMessage());
+      call.close(Status.UNAVAILABLE.withDescription(e.getMessage()), new Metadata());
+      return new ServerCall.Listener<>() {};
+    }
+    if (mode == AuthMode.REQUIRED && (userContext == null || !userContext.isAuthenticated())) {
+      log.debug("Rejected unauthenticated gRPC call to {}", call.getMethodDescriptor());
+      call.close(Status.UNAUTHENTICATED.withDescription("Authentication required"), new Metadata());
+      return new ServerCall.Listener<>() {};
+    }
+    if (userContext == null) {
+      return next.startCall(call, headers);
+    }
+
+    Context context = Context.current().withValue(GrpcSecurityContext.USER_CONTEXT, userContext);
+    ServerCall.Listener<ReqT> listener;
+    SecurityContextHolder.setContext(userContext);
+    try {
+      listener = Contexts.interceptCall(context, call, headers, next);
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    return new SecurityContextListener<>(listener, userContext);
+  }
+
+  private UserContext authenticate(ServerCall<?, ?> call, Metadata headers) {
+    if (assertionKey != null) {
+      UserContext asserted =
+          authenticationService.authenticateAssertion(
+              headers.get(assertionKey), peerAddress(call), null);
+      if (asserted != null) {
+        return asserted;
+      }
+    }
+
+    String authorization = headers.get(AUTHORIZATION);
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+      return null;
+    }
+    String token = authorization.substring(BEARER_PREFIX.length());
+    // Detached from the inbound call so its cancellation cannot fail a coalesced validation
+    Context previous = Context.ROOT.attach();
+    try {
+      return authenticationService.authenticate(token);
+    } finally {
+      Context.ROOT.detach(previous);
+    }
+  }
+
+  /** Address of the direct peer; in-process and Unix domain socket peers count as loopback */
+  private static InetAddress peerAddress(ServerCall<?, ?> call) {
+    SocketAddress address = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+    if (address instanceof InetSocketAddress inet) {
+      return inet.getAddress();
+    }
+    return address != null ? InetAddress.getLoopbackAddress() : null;
+  }
+
+  private AuthMode resolveMode(String fullMethodName) {
+    return resolvedModes.computeIfAbsent(
+        fullMethodName,
+        name -> {
+          AuthMode mode = methods.get(name);
+          if (mode == null) {
+            int slash = name.indexOf('/');
+            mode = slash < 0 ? null : methods.get(name.substring(0, slash) + "/*");
+          }
+          return mode != null ? mode : defaultMode;
+        });
+  }
+
+  /** Binds the user to SecurityContextHolder while each callback runs on the call executor. */
+  private static final class SecurityContextListener<ReqT>
+      extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+    private final UserContext userContext;
+
+    private SecurityContextListener(ServerCall.Listener<ReqT> delegate, UserContext userContext) {
+      super(delegate);
+      this.userContext = userContext;
+    }
+
+    @Override
+    public void onMessage(ReqT message) {
+      SecurityContextHolder.setContext(userContext);
+      try {
+        super.onMessage(message);
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    }
+
+    @Override
+    public void onHalfClose() {
+      SecurityContextHolder.setContext(userContext);
+      try {
+        super.onHalfClose();
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    }
+
+    @Override
+    public void onCancel() {
+      SecurityContextHolder.setContext(userContext);
+      try {
+        super.onCancel();
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      SecurityContextHolder.setContext(userContext);
+      try {
+        super.onComplete();
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    }
+
+    @Override
+    public void onReady() {
+      SecurityContextHolder.setContext(userContext);
+      try {
+        super.onReady();
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    }
+  }
+}
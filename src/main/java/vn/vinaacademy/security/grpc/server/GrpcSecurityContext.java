@@ -0,0 +1,17 @@
+package vn.vinaacademy.security.grpc.server;
+
+import io.grpc.Context;
+import lombok.experimental.UtilityClass;
+import vn.vinaacademy.security.authentication.UserContext;
+
+/** Access to the {@link UserContext} bound to the current gRPC {@link Context}. */
+@UtilityClass
+public class GrpcSecurityContext {
+  /** Key the authenticated user is bound under by {@link AuthenticationServerInterceptor} */
+  public static final Context.Key<UserContext> USER_CONTEXT = Context.key("vinaacademy-user");
+
+  /** Get the user context of the current gRPC call, or null outside an intercepted call */
+  public static UserContext current() {
+    return USER_CONTEXT.get();
+  }
+}
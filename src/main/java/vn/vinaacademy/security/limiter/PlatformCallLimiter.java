@@ -0,0 +1,142 @@
+package vn.vinaacademy.security.limiter;
+
+import io.grpc.Status;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Adaptive (AIMD) concurrency limit for blocking calls to the platform server. The limit grows by
+ * one for each fast call made while at least half of it is in use, and shrinks by {@code
+ * backoff-ratio} for each call slower than {@code latency-threshold} or failing with UNAVAILABLE,
+ * DEADLINE_EXCEEDED or RESOURCE_EXHAUSTED. Calls over the limit are rejected immediately with
+ * {@link ServiceUnavailableException} instead of queueing on a slow server.
+ *
+ * <p>Each {@link TrafficClass} has its own limit and in-flight count, so slow bulk lookups cannot
+ * shrink the limit of token validation, just as they do not share its channel.
+ */
+@Slf4j
+public class PlatformCallLimiter {
+  private final Map<TrafficClass, Lane> lanes = new EnumMap<>(TrafficClass.class);
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private final int retryAfter;
+  private final SecurityClientMetrics metrics;
+
+  public PlatformCallLimiter(SecurityClientProperties properties, SecurityClientMetrics metrics) {
+    SecurityClientProperties.Limiter config = properties.getLimiter();
+    this.minLimit = config.getMinLimit();
+    this.maxLimit = config.getMaxLimit();
+    int initialLimit = Math.max(minLimit, Math.min(maxLimit, config.getInitialLimit()));
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLatencyThreshold());
+    this.backoffRatio = config.getBackoffRatio();
+    this.retryAfter = config.getRetryAfter();
+    this.metrics = metrics;
+
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      Lane lane = new Lane(initialLimit);
+      lanes.put(trafficClass, lane);
+      String tag = trafficClass.name().toLowerCase(Locale.ROOT);
+      metrics.gauge(
+          "limiter.limit",
+          "Concurrency limit for platform calls",
+          lane.limit,
+          Number::intValue,
+          "class",
+          tag);
+      metrics.gauge(
+          "limiter.in.flight",
+          "Platform calls currently in flight",
+          lane.inFlight,
+          Number::intValue,
+          "class",
+          tag);
+    }
+  }
+
+  /**
+   * Acquire a slot for a platform call.
+   *
+   * @return a permit to pass to {@link #release(TrafficClass, long, Throwable)}
+   * @throws ServiceUnavailableException if the limit of the traffic class is reached
+   */
+  public long acquire(TrafficClass trafficClass) {
+    Lane lane = lanes.get(trafficClass);
+    while (true) {
+      int current = lane.inFlight.get();
+      if (current >= lane.limit.get()) {
+        metrics.recordLimiterRejection(trafficClass);
+        throw new ServiceUnavailableException(
+            "Authentication service is overloaded, retry later", retryAfter);
+      }
+      if (lane.inFlight.compareAndSet(current, current + 1)) {
+        return System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * Release a slot and adjust the limit of the traffic class from the call's outcome.
+   *
+   * @param permit the permit returned by {@link #acquire(TrafficClass)}
+   * @param failure the exception the call failed with, or null
+   */
+  public void release(TrafficClass trafficClass, long permit, Throwable failure) {
+    Lane lane = lanes.get(trafficClass);
+    long rtt = System.nanoTime() - permit;
+    int current = lane.inFlight.getAndDecrement();
+    if (isCongestion(failure) || rtt > latencyThresholdNanos) {
+      int previous = lane.limit.getAndUpdate(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+      if (previous > minLimit) {
+        log.debug(
+            "Platform call limit of {} decreased from {}, rtt {} ms",
+            trafficClass,
+            previous,
+            rtt / 1_000_000);
+      }
+    } else if (failure == null && current * 2 >= lane.limit.get()) {
+      lane.limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+    }
+  }
+
+  public int getLimit(TrafficClass trafficClass) {
+    return lanes.get(trafficClass).limit.get();
+  }
+
+  /** Override the current limit, within the configured bounds; it keeps adapting from there */
+  public void setLimit(TrafficClass trafficClass, int limit) {
+    lanes.get(trafficClass).limit.set(Math.max(minLimit, Math.min(maxLimit, limit)));
+  }
+
+  public int getInFlight(TrafficClass trafficClass) {
+    return lanes.get(trafficClass).inFlight.get();
+  }
+
+  private static boolean isCongestion(Throwable failure) {
+    if (failure == null) {
+      return false;
+    }
+    Status.Code code = Status.fromThrowable(failure).getCode();
+    return code == Status.Code.UNAVAILABLE
+        || code == Status.Code.DEADLINE_EXCEEDED
+        || code == Status.Code.RESOURCE_EXHAUSTED;
+  }
+
+  private static final class Lane {
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private Lane(int initialLimit) {
+      this.limit = new AtomicInteger(initialLimit);
+    }
+  }
+}
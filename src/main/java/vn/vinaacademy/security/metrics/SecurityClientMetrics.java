@@ -0,0 +1,225 @@
+package vn.vinaacademy.security.metrics;
+
+import com.google.common.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+
+/**
+ * Micrometer instrumentation for the security client. All meters are registered up front with a
+ * fixed set of tag values, so recording is a map lookup plus a timer update and tag cardinality
+ * stays bounded regardless of traffic.
+ */
+public class SecurityClientMetrics {
+  public static final String OUTCOME_VALID = "valid";
+  public static final String OUTCOME_INVALID = "invalid";
+  public static final String OUTCOME_SUCCESS = "success";
+  public static final String OUTCOME_FAILURE = "failure";
+  public static final String OUTCOME_ERROR = "error";
+  public static final String OUTCOME_SHED = "shed";
+
+  public static final String METHOD_GET_USER_BY_ID = "getUserById";
+  public static final String METHOD_GET_USER_BY_IDS = "getUserByIds";
+
+  public static final String TOKEN_FETCH = "fetch";
+  public static final String TOKEN_REFRESH = "refresh";
+
+  public static final String ANNOTATION_HAS_ANY_ROLE = "HasAnyRole";
+  public static final String ANNOTATION_PRE_AUTHORIZE = "PreAuthorize";
+  public static final String ANNOTATION_HAS_PERMISSION = "HasPermission";
+
+  public static final String DECISION_GRANTED = "granted";
+  public static final String DECISION_DENIED = "denied";
+  public static final String DECISION_UNAUTHENTICATED = "unauthenticated";
+
+  public static final String RATE_LIMIT_USER = "user";
+  public static final String RATE_LIMIT_ANONYMOUS = "anonymous";
+
+  public static final String AUDIT_OVERFLOW = "overflow";
+  public static final String AUDIT_SINK_ERROR = "sink_error";
+
+  private static final String PREFIX = "security.client.";
+
+  private final MeterRegistry registry;
+  private final Map<String, Timer> tokenValidationTimers = new HashMap<>();
+  private final Map<String, Map<String, Timer>> userLookupTimers = new HashMap<>();
+  private final Map<String, Map<String, Timer>> serviceTokenTimers = new HashMap<>();
+  private final Map<String, Map<String, Timer>> authorizationTimers = new HashMap<>();
+  private final DistributionSummary userLookupBatchSize;
+  private final Map<TrafficClass, Counter> limiterRejections = new EnumMap<>(TrafficClass.class);
+  private final Map<String, Counter> rateLimitRejections = new HashMap<>();
+  private final Counter auditWritten;
+  private final Map<String, Counter> auditDropped = new HashMap<>();
+
+  public SecurityClientMetrics(MeterRegistry registry) {
+    this.registry = registry;
+
+    for (String outcome :
+        new String[] {OUTCOME_VALID, OUTCOME_INVALID, OUTCOME_ERROR, OUTCOME_SHED}) {
+      tokenValidationTimers.put(
+          outcome,
+          histogramTimer(
+              "token.validation",
+              "Latency of validateToken calls to the platform server",
+              "outcome",
+              outcome));
+    }
+
+    for (String method : new String[] {METHOD_GET_USER_BY_ID, METHOD_GET_USER_BY_IDS}) {
+      for (String outcome :
+          new String[] {OUTCOME_SUCCESS, OUTCOME_FAILURE, OUTCOME_ERROR, OUTCOME_SHED}) {
+        Timer timer =
+            histogramTimer(
+                "user.lookup",
+                "Latency of user lookups to the platform server",
+                "method",
+                method,
+                "outcome",
+                outcome);
+        userLookupTimers.computeIfAbsent(method, k -> new HashMap<>()).put(outcome, timer);
+      }
+    }
+
+    userLookupBatchSize =
+        DistributionSummary.builder(PREFIX + "user.lookup.batch.size")
+            .description("Number of user ids requested per GetUserByIds call")
+            .baseUnit("users")
+            .publishPercentileHistogram()
+            .register(registry);
+
+    for (String type : new String[] {TOKEN_FETCH, TOKEN_REFRESH}) {
+      for (String outcome : new String[] {OUTCOME_SUCCESS, OUTCOME_ERROR}) {
+        Timer timer =
+            Timer.builder(PREFIX + "oauth2.token")
+                .description("Time to obtain the OAuth2 service token used for gRPC calls")
+                .tags("type", type, "outcome", outcome)
+                .register(registry);
+        serviceTokenTimers.computeIfAbsent(type, k -> new HashMap<>()).put(outcome, timer);
+      }
+    }
+
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      limiterRejections.put(
+          trafficClass,
+          Counter.builder(PREFIX + "limiter.rejected")
+              .description("Platform calls rejected by the adaptive concurrency limit")
+              .tag("class", trafficClass.name().toLowerCase(Locale.ROOT))
+              .register(registry));
+    }
+
+    for (String key : new String[] {RATE_LIMIT_USER, RATE_LIMIT_ANONYMOUS}) {
+      rateLimitRejections.put(
+          key,
+          Counter.builder(PREFIX + "rate.limited")
+              .description("Requests rejected with 429 by the per-identity rate limit")
+              .tag("key", key)
+              .register(registry));
+    }
+
+    auditWritten =
+        Counter.builder(PREFIX + "audit.written")
+            .description("Audit events written to the sinks")
+            .register(registry);
+
+    for (String reason : new String[] {AUDIT_OVERFLOW, AUDIT_SINK_ERROR}) {
+      auditDropped.put(
+          reason,
+          Counter.builder(PREFIX + "audit.dropped")
+              .description("Audit events lost to a full buffer or a failing sink")
+              .tag("reason", reason)
+              .register(registry));
+    }
+
+    for (String annotation :
+        new String[] {
+          ANNOTATION_HAS_ANY_ROLE, ANNOTATION_PRE_AUTHORIZE, ANNOTATION_HAS_PERMISSION
+        }) {
+      for (String decision :
+          new String[] {DECISION_GRANTED, DECISION_DENIED, DECISION_UNAUTHENTICATED}) {
+        Timer timer =
+            Timer.builder(PREFIX + "authorization")
+                .description("Decisions and evaluation time of security annotations")
+                .tags("annotation", annotation, "decision", decision)
+                .register(registry);
+        authorizationTimers.computeIfAbsent(annotation, k -> new HashMap<>()).put(decision, timer);
+      }
+    }
+  }
+
+  /** Record a validateToken call with outcome valid, invalid, error or shed */
+  public void recordTokenValidation(String outcome, long nanos) {
+    tokenValidationTimers.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Record a user lookup call with outcome success, failure, error or shed */
+  public void recordUserLookup(String method, String outcome, long nanos) {
+    userLookupTimers.get(method).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Record the number of ids requested in one batch lookup */
+  public void recordUserLookupBatchSize(int size) {
+    userLookupBatchSize.record(size);
+  }
+
+  /** Record an OAuth2 service token fetch or refresh */
+  public void recordServiceToken(String type, String outcome, long nanos) {
+    serviceTokenTimers.get(type).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Record an authorization decision of a security annotation */
+  public void recordAuthorization(String annotation, String decision, long nanos) {
+    authorizationTimers.get(annotation).get(decision).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Record a platform call shed by the concurrency limiter of its traffic class */
+  public void recordLimiterRejection(TrafficClass trafficClass) {
+    limiterRejections.get(trafficClass).increment();
+  }
+
+  /** Record a request rejected by the rate limit, keyed by user or anonymous */
+  public void recordRateLimited(String key) {
+    rateLimitRejections.get(key).increment();
+  }
+
+  /** Record audit events written to the sinks */
+  public void recordAuditWritten(int count) {
+    auditWritten.increment(count);
+  }
+
+  /** Record audit events dropped, by overflow or sink error */
+  public void recordAuditDropped(String reason, long count) {
+    auditDropped.get(reason).increment(count);
+  }
+
+  /** Expose hit, miss, eviction and size meters of a local cache, tagged with the cache name */
+  public void monitorCache(String name, Cache<?, ?> cache) {
+    GuavaCacheMetrics.monitor(registry, cache, name);
+  }
+
+  /** Register a gauge reading a value from the given object, with optional tag key-value pairs */
+  public <T> void gauge(
+      String name, String description, T object, ToDoubleFunction<T> value, String... tags) {
+    Gauge.builder(PREFIX + name, object, value)
+        .description(description)
+        .tags(tags)
+        .register(registry);
+  }
+
+  private Timer histogramTimer(String name, String description, String... tags) {
+    return Timer.builder(PREFIX + name)
+        .description(description)
+        .tags(tags)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+}
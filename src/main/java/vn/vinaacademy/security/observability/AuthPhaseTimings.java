@@ -0,0 +1,44 @@
+package vn.vinaacademy.security.observability;
+
+import java.util.Locale;
+
+/**
+ * Per-request durations of the authentication phases, rendered as a {@code Server-Timing} response
+ * header. Only allocated when {@code security.observability.server-timing} is enabled.
+ */
+public class AuthPhaseTimings {
+  public static final String HEADER = "Server-Timing";
+
+  private long extractNanos;
+  private long cacheLookupNanos = -1;
+  private long rpcNanos = -1;
+
+  public void recordExtract(long nanos) {
+    extractNanos = nanos;
+  }
+
+  public void recordCacheLookup(long nanos) {
+    cacheLookupNanos = nanos;
+  }
+
+  public void recordRpc(long nanos) {
+    rpcNanos = nanos;
+  }
+
+  /** Header value, e.g. {@code auth-extract;dur=0.004, auth-rpc;dur=3.215} */
+  public String toHeaderValue() {
+    StringBuilder value = new StringBuilder(96);
+    append(value, "auth-extract", extractNanos);
+    if (cacheLookupNanos >= 0) {
+      append(value.append(", "), "auth-cache", cacheLookupNanos);
+    }
+    if (rpcNanos >= 0) {
+      append(value.append(", "), "auth-rpc", rpcNanos);
+    }
+    return value.toString();
+  }
+
+  private static void append(StringBuilder value, String name, long nanos) {
+    value.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+  }
+}
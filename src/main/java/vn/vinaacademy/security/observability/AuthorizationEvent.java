@@ -0,0 +1,25 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Evaluation of a security annotation before a method call */
+@Name("vn.vinaacademy.security.AuthorizationEvaluate")
+@Label("Authorization Evaluate")
+@Description("Evaluation of a security annotation before a method call")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class AuthorizationEvent extends Event {
+  @Label("Annotation")
+  public String annotation;
+
+  @Label("Method")
+  public String method;
+
+  @Label("Decision")
+  public String decision;
+}
@@ -0,0 +1,22 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Service instance lookup through the Eureka discovery client */
+@Name("vn.vinaacademy.security.DiscoveryLookup")
+@Label("Discovery Lookup")
+@Description("Service instance lookup through the Eureka discovery client")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class DiscoveryLookupEvent extends Event {
+  @Label("Service Name")
+  public String serviceName;
+
+  @Label("Found")
+  public boolean found;
+}
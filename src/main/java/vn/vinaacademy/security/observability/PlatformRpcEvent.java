@@ -0,0 +1,22 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Blocking gRPC call from the security client to the platform server */
+@Name("vn.vinaacademy.security.PlatformRpc")
+@Label("Platform RPC")
+@Description("Blocking gRPC call from the security client to the platform server")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class PlatformRpcEvent extends Event {
+  @Label("Method")
+  public String method;
+
+  @Label("Outcome")
+  public String outcome;
+}
@@ -0,0 +1,23 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Obtaining the OAuth2 service token and attaching it to an outgoing gRPC call */
+@Name("vn.vinaacademy.security.ServiceTokenAttach")
+@Label("Service Token Attach")
+@Description("Obtaining the OAuth2 service token and attaching it to an outgoing gRPC call")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class ServiceTokenAttachEvent extends Event {
+  @Label("Method")
+  public String method;
+
+  @Label("Failure")
+  @Description("Exception the token fetch failed with, null on success")
+  public String failure;
+}
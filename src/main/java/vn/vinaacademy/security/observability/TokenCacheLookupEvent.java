@@ -0,0 +1,22 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Revocation check and token cache lookup for an incoming token */
+@Name("vn.vinaacademy.security.TokenCacheLookup")
+@Label("Token Cache Lookup")
+@Description("Revocation check and token cache lookup for an incoming token")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class TokenCacheLookupEvent extends Event {
+  @Label("Revoked")
+  public boolean revoked;
+
+  @Label("Cache Hit")
+  public boolean hit;
+}
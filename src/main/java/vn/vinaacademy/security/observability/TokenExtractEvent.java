@@ -0,0 +1,19 @@
+package vn.vinaacademy.security.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Extraction of the bearer token from an incoming request */
+@Name("vn.vinaacademy.security.TokenExtract")
+@Label("Token Extract")
+@Description("Extraction of the bearer token from an incoming request")
+@Category({"VinaAcademy", "Security Client"})
+@StackTrace(false)
+public class TokenExtractEvent extends Event {
+  @Label("Token Present")
+  public boolean tokenPresent;
+}
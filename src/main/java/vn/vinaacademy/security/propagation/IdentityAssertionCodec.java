@@ -0,0 +1,270 @@
+package vn.vinaacademy.security.propagation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Signs and verifies short-lived identity assertions passed between internal services, so a user
+ * validated at the edge is not validated against the platform again on every hop.
+ *
+ * <p>Format: {@code v1.<kid>.<payload>.<signature>}, with a Base64url JSON payload and a Base64url
+ * HMAC-SHA256 over {@code v1.<kid>.<payload>}. Keys are pre-shared and selected by key id, so keys
+ * can be rotated by adding the new key everywhere before signing with it. The raw token is never
+ * included, only its hash and jti so that receivers can check their revocation list.
+ *
+ * <p>Inbound assertions are only acceptable from callers in {@code trusted-networks} or on {@code
+ * internal-paths}, and no older than {@code max-age}, so an assertion leaked to a client cannot be
+ * replayed at the edge.
+ */
+@Slf4j
+public class IdentityAssertionCodec {
+  private static final String VERSION = "v1";
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int MIN_KEY_BYTES = 32;
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+  private final String signingKeyId;
+  private final String header;
+  private final long ttl;
+  private final long clockSkew;
+  private final long maxAge;
+  private final TrustedNetworks trustedNetworks;
+  private final List<String> internalPaths;
+
+  /** Last assertion signed on this thread, reused while the context is unchanged */
+  private final ThreadLocal<Signed> lastSigned = new ThreadLocal<>();
+
+  /**
+   * Create a codec from the propagation settings.
+   *
+   * @throws IllegalArgumentException if a key is invalid or the signing key is unknown
+   */
+  public IdentityAssertionCodec(SecurityClientProperties.Propagation config) {
+    for (Map.Entry<String, String> entry : config.getKeys().entrySet()) {
+      String kid = entry.getKey();
+      if (kid.isEmpty() || kid.indexOf('.') >= 0) {
+        throw new IllegalArgumentException("Invalid propagation key id: '" + kid + "'");
+      }
+      byte[] secret = Base64.getDecoder().decode(entry.getValue());
+      if (secret.length < MIN_KEY_BYTES) {
+        throw new IllegalArgumentException(
+            "Propagation key '" + kid + "' must be at least " + MIN_KEY_BYTES + " bytes");
+      }
+      SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+      macs.put(kid, ThreadLocal.withInitial(() -> newMac(key)));
+    }
+
+    signingKeyId = config.getSigningKeyId();
+    if (signingKeyId != null && !macs.containsKey(signingKeyId)) {
+      throw new IllegalArgumentException("Unknown propagation signing key: " + signingKeyId);
+    }
+    if (signingKeyId == null) {
+      log.info("No security.propagation.signing-key-id, identity assertions are only verified");
+    }
+
+    header = config.getHeader();
+    ttl = config.getTtl();
+    clockSkew = config.getClockSkew();
+    maxAge = config.getMaxAge();
+    trustedNetworks = TrustedNetworks.parse(config.getTrustedNetworks());
+    internalPaths =
+        config.getInternalPaths().stream()
+            .map(prefix -> prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix)
+            .toList();
+    if (trustedNetworks.isEmpty() && internalPaths.isEmpty()) {
+      log.warn(
+          "No security.propagation.trusted-networks or internal-paths, inbound identity"
+              + " assertions are ignored");
+    }
+  }
+
+  /**
+   * Check whether an inbound assertion may be accepted from a caller.
+   *
+   * @param caller the direct peer address, never taken from forwarded headers, or null
+   * @param path the request path within the application, or null for gRPC calls
+   */
+  public boolean acceptsFrom(InetAddress caller, String path) {
+    if (trustedNetworks.contains(caller)) {
+      return true;
+    }
+    if (path != null) {
+      for (String prefix : internalPaths) {
+        if (path.startsWith(prefix)
+            && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Header and gRPC metadata key carrying the assertion */
+  public String getHeader() {
+    return header;
+  }
+
+  /**
+   * Get an assertion for the current security context, or null if there is no authenticated user
+   * or no signing key. An assertion is reused for calls made within half its lifetime.
+   */
+  public String currentAssertion() {
+    UserContext context = SecurityContextHolder.getContext();
+    if (context == null || !context.isAuthenticated() || signingKeyId == null) {
+      return null;
+    }
+
+    long now = Instant.now().getEpochSecond();
+    Signed signed = lastSigned.get();
+    if (signed != null && signed.context() == context && now < signed.refreshAt()) {
+      return signed.assertion();
+    }
+    String assertion = encode(context, now);
+    lastSigned.set(new Signed(context, assertion, now + ttl / 2));
+    return assertion;
+  }
+
+  /** Sign an assertion for an authenticated user context */
+  public String encode(UserContext context) {
+    if (signingKeyId == null) {
+      throw new IllegalStateException("No propagation signing key configured");
+    }
+    return encode(context, Instant.now().getEpochSecond());
+  }
+
+  /** Verify an assertion and rebuild its user context, or return null if it is not acceptable */
+  public UserContext decode(String assertion) {
+    int versionEnd = assertion.indexOf('.');
+    int kidEnd = versionEnd < 0 ? -1 : assertion.indexOf('.', versionEnd + 1);
+    int payloadEnd = kidEnd < 0 ? -1 : assertion.indexOf('.', kidEnd + 1);
+    if (payloadEnd < 0 || !VERSION.equals(assertion.substring(0, versionEnd))) {
+      log.debug("Rejected identity assertion: malformed");
+      return null;
+    }
+
+    ThreadLocal<Mac> mac = macs.get(assertion.substring(versionEnd + 1, kidEnd));
+    if (mac == null) {
+      log.debug("Rejected identity assertion: unknown key id");
+      return null;
+    }
+
+    try {
+      byte[] expected = sign(mac.get(), assertion.substring(0, payloadEnd));
+      byte[] actual = Base64.getUrlDecoder().decode(assertion.substring(payloadEnd + 1));
+      if (!MessageDigest.isEqual(expected, actual)) {
+        log.debug("Rejected identity assertion: bad signature");
+        return null;
+      }
+
+      JsonNode payload =
+          objectMapper.readTree(
+              Base64.getUrlDecoder().decode(assertion.substring(kidEnd + 1, payloadEnd)));
+      long now = Instant.now().getEpochSecond();
+      if (text(payload, "sub") == null) {
+        log.debug("Rejected identity assertion: no subject");
+        return null;
+      }
+      long issuedAt = payload.path("iat").asLong();
+      if (payload.path("exp").asLong() + clockSkew < now
+          || issuedAt + maxAge + clockSkew < now
+          || issuedAt - clockSkew > now) {
+        log.debug("Rejected identity assertion: expired or not yet valid");
+        return null;
+      }
+
+      Set<String> roles = new HashSet<>();
+      payload.path("roles").forEach(role -> roles.add(role.asText()));
+      return UserContext.builder()
+          .userId(text(payload, "sub"))
+          .email(text(payload, "email"))
+          .fullName(text(payload, "name"))
+          .avatarUrl(text(payload, "avatar"))
+          .roles(roles)
+          .tokenHash(text(payload, "th"))
+          .tokenId(text(payload, "jti"))
+          .authenticated(true)
+          .build();
+    } catch (Exception e) {
+      log.debug("Rejected identity assertion: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private String encode(UserContext context, long now) {
+    ObjectNode payload = objectMapper.createObjectNode();
+    payload.put("sub", context.getUserId());
+    putIfPresent(payload, "email", context.getEmail());
+    putIfPresent(payload, "name", context.getFullName());
+    putIfPresent(payload, "avatar", context.getAvatarUrl());
+    putIfPresent(payload, "th", context.getTokenHash());
+    putIfPresent(payload, "jti", context.getTokenId());
+    ArrayNode roles = payload.putArray("roles");
+    if (context.getRoles() != null) {
+      context.getRoles().forEach(roles::add);
+    }
+    payload.put("iat", now);
+    payload.put("exp", now + ttl);
+
+    try {
+      String signingInput =
+          VERSION
+              + "."
+              + signingKeyId
+              + "."
+              + Base64.getUrlEncoder()
+                  .withoutPadding()
+                  .encodeToString(objectMapper.writeValueAsBytes(payload));
+      byte[] signature = sign(macs.get(signingKeyId).get(), signingInput);
+      return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to sign identity assertion", e);
+    }
+  }
+
+  private static byte[] sign(Mac mac, String input) {
+    return mac.doFinal(input.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void putIfPresent(ObjectNode payload, String field, String value) {
+    if (value != null) {
+      payload.put(field, value);
+    }
+  }
+
+  private static String text(JsonNode payload, String field) {
+    JsonNode value = payload.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private static Mac newMac(SecretKeySpec key) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " not available", e);
+    }
+  }
+
+  private record Signed(UserContext context, String assertion, long refreshAt) {}
+}
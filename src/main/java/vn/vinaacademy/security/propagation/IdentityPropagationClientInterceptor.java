@@ -0,0 +1,40 @@
+package vn.vinaacademy.security.propagation;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+/**
+ * Attaches the identity assertion of the current user to outgoing gRPC calls. Register it only on
+ * channels to internal services, the assertion carries the user's identity and roles.
+ */
+public class IdentityPropagationClientInterceptor implements ClientInterceptor {
+  private final IdentityAssertionCodec codec;
+  private final Metadata.Key<String> key;
+
+  public IdentityPropagationClientInterceptor(IdentityAssertionCodec codec) {
+    this.codec = codec;
+    this.key = Metadata.Key.of(codec.getHeader(), Metadata.ASCII_STRING_MARSHALLER);
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions, Channel channel) {
+    String assertion = codec.currentAssertion();
+    if (assertion == null) {
+      return channel.newCall(methodDescriptor, callOptions);
+    }
+    return new ForwardingClientCall.SimpleForwardingClientCall<>(
+        channel.newCall(methodDescriptor, callOptions)) {
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        headers.put(key, assertion);
+        super.start(responseListener, headers);
+      }
+    };
+  }
+}
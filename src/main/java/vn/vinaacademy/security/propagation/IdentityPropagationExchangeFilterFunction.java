@@ -0,0 +1,27 @@
+package vn.vinaacademy.security.propagation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Attaches the identity assertion of the current user to WebClient requests. The security context
+ * is read when the exchange is subscribed, so subscribe on the request thread (e.g. {@code
+ * block()}). Register it only on clients for internal services.
+ */
+@RequiredArgsConstructor
+public class IdentityPropagationExchangeFilterFunction implements ExchangeFilterFunction {
+  private final IdentityAssertionCodec codec;
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    String assertion = codec.currentAssertion();
+    if (assertion == null) {
+      return next.exchange(request);
+    }
+    return next.exchange(ClientRequest.from(request).header(codec.getHeader(), assertion).build());
+  }
+}
@@ -0,0 +1,27 @@
+package vn.vinaacademy.security.propagation;
+
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Attaches the identity assertion of the current user to RestClient and RestTemplate requests.
+ * Register it only on clients for internal services.
+ */
+@RequiredArgsConstructor
+public class IdentityPropagationRestClientInterceptor implements ClientHttpRequestInterceptor {
+  private final IdentityAssertionCodec codec;
+
+  @Override
+  public ClientHttpResponse intercept(
+      HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    String assertion = codec.currentAssertion();
+    if (assertion != null) {
+      request.getHeaders().set(codec.getHeader(), assertion);
+    }
+    return execution.execute(request, body);
+  }
+}
@@ -0,0 +1,85 @@
+package vn.vinaacademy.security.propagation;
+
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Address ranges in CIDR notation, such as {@code 10.0.0.0/8} or {@code fd00::/8}. A bare address
+ * is a range of one. Addresses are parsed as literals only, never resolved through DNS.
+ */
+public final class TrustedNetworks {
+  private final List<Network> networks;
+
+  private TrustedNetworks(List<Network> networks) {
+    this.networks = networks;
+  }
+
+  /**
+   * Parse a list of CIDR blocks.
+   *
+   * @throws IllegalArgumentException if a block is not a valid address or prefix length
+   */
+  public static TrustedNetworks parse(List<String> blocks) {
+    List<Network> networks = new ArrayList<>(blocks.size());
+    for (String block : blocks) {
+      String trimmed = block.trim();
+      int slash = trimmed.indexOf('/');
+      byte[] address =
+          InetAddresses.forString(slash < 0 ? trimmed : trimmed.substring(0, slash)).getAddress();
+      int prefix = slash < 0 ? address.length * 8 : Integer.parseInt(trimmed.substring(slash + 1));
+      if (prefix < 0 || prefix > address.length * 8) {
+        throw new IllegalArgumentException("Invalid prefix length in network: " + block);
+      }
+      networks.add(new Network(address, prefix));
+    }
+    return new TrustedNetworks(List.copyOf(networks));
+  }
+
+  public boolean isEmpty() {
+    return networks.isEmpty();
+  }
+
+  /** Check whether a literal IP address, as from {@code getRemoteAddr()}, is in a range */
+  public boolean contains(String address) {
+    if (address == null || networks.isEmpty() || !InetAddresses.isInetAddress(address)) {
+      return false;
+    }
+    return contains(InetAddresses.forString(address));
+  }
+
+  /** Check whether an address is in a range */
+  public boolean contains(InetAddress address) {
+    if (address == null) {
+      return false;
+    }
+    byte[] bytes = address.getAddress();
+    for (Network network : networks) {
+      if (network.contains(bytes)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record Network(byte[] address, int prefix) {
+    boolean contains(byte[] candidate) {
+      if (candidate.length != address.length) {
+        return false;
+      }
+      int fullBytes = prefix / 8;
+      for (int i = 0; i < fullBytes; i++) {
+        if (candidate[i] != address[i]) {
+          return false;
+        }
+      }
+      int remainingBits = prefix % 8;
+      if (remainingBits == 0) {
+        return true;
+      }
+      int mask = 0xFF << (8 - remainingBits);
+      return (candidate[fullBytes] & mask) == (address[fullBytes] & mask);
+    }
+  }
+}
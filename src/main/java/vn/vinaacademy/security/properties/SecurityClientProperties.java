@@ -1,7 +1,15 @@
 package vn.vinaacademy.security.properties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import vn.vinaacademy.security.config.grpc.TrafficClass;
+import vn.vinaacademy.security.route.AuthMode;
 
 /**
  * Configuration properties for security client library. Allows services to override default gRPC
@@ -20,6 +28,45 @@ public class SecurityClientProperties {
   /** Eureka service discovery settings */
   private Eureka eureka = new Eureka();
 
+  /** Token revocation list settings */
+  private Revocation revocation = new Revocation();
+
+  /** Local cache of validated tokens */
+  private TokenCache tokenCache = new TokenCache();
+
+  /** Per-request observability settings */
+  private Observability observability = new Observability();
+
+  /** Startup warm-up settings */
+  private Warmup warmup = new Warmup();
+
+  /** Servlet authentication filter settings */
+  private Filter filter = new Filter();
+
+  /** Annotation-based method security settings */
+  private MethodSecurity methodSecurity = new MethodSecurity();
+
+  /** Signed identity propagation between internal services */
+  private Propagation propagation = new Propagation();
+
+  /** Authentication of inbound gRPC calls */
+  private GrpcServer grpcServer = new GrpcServer();
+
+  /** Adaptive concurrency limit for calls to the platform server */
+  private Limiter limiter = new Limiter();
+
+  /** Per-user and per-client request rate limit of the authentication filter */
+  private RateLimit rateLimit = new RateLimit();
+
+  /** Cache shared between replicas, used when a SecondLevelCache bean is present */
+  private SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+  /** Audit trail of authentication and authorization decisions */
+  private Audit audit = new Audit();
+
+  /** Role hierarchy and permissions */
+  private Authorization authorization = new Authorization();
+
   @Data
   public static class Grpc {
     /** Service name for gRPC server in Eureka */
@@ -39,6 +86,58 @@ public class SecurityClientProperties {
 
     /** Keep-alive timeout in seconds */
     private int keepAliveTimeout = 5;
+
+    /** Channel of token validation and single user lookups */
+    private Channel validation = new Channel(1024 * 1024, 1024 * 1024, 0, 0);
+
+    /** Channel of batch user lookups and revocation sync */
+    private Channel bulk = new Channel(8 * 1024 * 1024, 16 * 1024 * 1024, 0, 0);
+
+    /**
+     * Threads of a Netty event loop group shared by all channels of the library, using native epoll
+     * when available; 0 for gRPC's default group
+     */
+    private int eventLoopThreads = 0;
+
+    /** Threads of an executor shared by all channels, 0 to use the traffic class executors */
+    private int executorThreads = 0;
+
+    /** Request compression per method */
+    private Compression compression = new Compression();
+
+    public Channel getChannel(TrafficClass trafficClass) {
+      return trafficClass == TrafficClass.BULK ? bulk : validation;
+    }
+  }
+
+  @Data
+  public static class Compression {
+    /**
+     * Codec by full method name, e.g. {@code "[com.vinaacademy.grpc.UserService/GetUserByIds]":
+     * gzip}; the brackets keep the dots and slash of the key when binding from YAML. Codecs must be
+     * registered in gRPC's default compressor registry
+     */
+    private Map<String, String> methods = new HashMap<>();
+
+    /** Messages smaller than this, in bytes, are sent uncompressed */
+    private int minMessageSize = 1024;
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Channel {
+    /** HTTP/2 flow-control window in bytes */
+    private int flowControlWindow;
+
+    /** Largest response accepted, in bytes */
+    private int maxInboundMessageSize;
+
+    /** Threads of a dedicated executor for call callbacks, 0 to use gRPC's shared executor */
+    private int executorThreads;
+
+    /** Deadline of calls without one, in milliseconds, 0 for none */
+    private long deadline;
   }
 
   @Data
@@ -78,4 +177,287 @@ public class SecurityClientProperties {
 
     private boolean isUseSecurePort = false;
   }
+
+  @Data
+  public static class Revocation {
+    /** Enable the local revocation list, synced incrementally from the platform server */
+    private boolean enabled = false;
+
+    /** Delay between revocation syncs in seconds */
+    private int syncInterval = 30;
+  }
+
+  @Data
+  public static class TokenCache {
+    /** Cache successful token validations instead of validating every request remotely */
+    private boolean enabled = false;
+
+    /** Maximum time in seconds a validation is reused, capped by the token's exp claim */
+    private int ttl = 60;
+
+    /** Maximum number of cached tokens */
+    private long maxSize = 10_000;
+
+    /** File the cache is saved to on shutdown and reloaded from on startup, unset to disable */
+    private String snapshotPath;
+
+    /** Snapshots older than this, in seconds, are not loaded */
+    private int snapshotMaxAge = 900;
+
+    /**
+     * Longest wait in seconds for the first revocation sync before a snapshot is loaded; the
+     * snapshot is dropped if the revocation list has not synced by then
+     */
+    private int snapshotSyncTimeout = 60;
+  }
+
+  @Data
+  public static class Observability {
+    /** Add a Server-Timing response header with the duration of each authentication phase */
+    private boolean serverTiming = false;
+  }
+
+  @Data
+  public static class Warmup {
+    /** Connect, prefetch the service token and compile authorization metadata after startup */
+    private boolean enabled = true;
+
+    /** Block startup until warm-up succeeds and abort it on failure, instead of reporting health */
+    private boolean failFast = false;
+
+    /** Timeout in seconds for each warm-up check */
+    private int timeout = 10;
+
+    /** Delay in seconds before retrying a failed warm-up, doubled after each failed retry */
+    private int retryDelay = 5;
+
+    /** Upper bound in seconds of the retry delay */
+    private int maxRetryDelay = 300;
+  }
+
+  @Data
+  public static class Filter {
+    /** Register the JWT authentication filter and the security exception handler */
+    private boolean enabled = true;
+
+    /** Register the permissive SecurityFilterChains for actuator and application endpoints */
+    private boolean securityChains = true;
+
+    /**
+     * Defer token validation on optional routes until the security context is first read, so
+     * requests that never read it make no validation call. Server-Timing then omits those phases.
+     */
+    private boolean lazy = false;
+
+    /** Authentication mode of requests matching no route */
+    private AuthMode defaultMode = AuthMode.OPTIONAL;
+
+    /** Reuse user and token lookups within one request instead of repeating the RPC */
+    private boolean lookupMemo = true;
+
+    /**
+     * Per-route authentication modes, the most specific pattern wins. /actuator/**, /health and
+     * /ping are skipped unless overridden here; /actuator/** also covers the bare /actuator
+     * discovery page, add a /actuator route to authenticate it.
+     */
+    private List<Route> routes = new ArrayList<>();
+  }
+
+  @Data
+  public static class Route {
+    /** Path pattern: '*' matches one segment, a trailing '**' any number of segments */
+    private String pattern;
+
+    /** HTTP methods the rule applies to, all methods if empty */
+    private List<String> methods = new ArrayList<>();
+
+    /** skip, optional or required */
+    private AuthMode mode = AuthMode.OPTIONAL;
+  }
+
+  @Data
+  public static class MethodSecurity {
+    /** Enforce @PreAuthorize and @HasAnyRole through the security aspect */
+    private boolean enabled = true;
+  }
+
+  @Data
+  public static class Propagation {
+    /** Accept signed identity assertions instead of validating the token again */
+    private boolean enabled = false;
+
+    /** HTTP header and gRPC metadata key carrying the assertion */
+    private String header = "X-Internal-Identity";
+
+    /** Key id used to sign outbound assertions, verify-only if unset */
+    private String signingKeyId;
+
+    /** Pre-shared HMAC-SHA256 keys by key id, Base64 encoded, at least 32 bytes each */
+    private Map<String, String> keys = new HashMap<>();
+
+    /** Lifetime of an outbound assertion in seconds */
+    private int ttl = 30;
+
+    /** Clock skew tolerated when verifying assertions, in seconds */
+    private int clockSkew = 5;
+
+    /** Maximum age of an inbound assertion in seconds, whatever its own expiry */
+    private int maxAge = 60;
+
+    /**
+     * Networks of internal callers in CIDR notation, matched against the direct peer address.
+     * Must not include the proxies forwarding external traffic.
+     */
+    private List<String> trustedNetworks = new ArrayList<>();
+
+    /** Path prefixes only reachable by internal callers, where assertions are accepted as well */
+    private List<String> internalPaths = new ArrayList<>();
+  }
+
+  @Data
+  public static class GrpcServer {
+    /** Provide the AuthenticationServerInterceptor bean */
+    private boolean enabled = true;
+
+    /** Authentication mode of methods not listed in methods */
+    private AuthMode defaultMode = AuthMode.OPTIONAL;
+
+    /**
+     * Authentication mode by full method name (package.Service/Method) or service
+     * (package.Service/*). Health and reflection services are skipped unless overridden here.
+     */
+    private Map<String, AuthMode> methods = new HashMap<>();
+  }
+
+  @Data
+  public static class Limiter {
+    /** Limit concurrent platform calls and reject the excess with 503 instead of queueing */
+    private boolean enabled = false;
+
+    /** Concurrency limit at startup */
+    private int initialLimit = 20;
+
+    /** Lower bound of the limit */
+    private int minLimit = 5;
+
+    /** Upper bound of the limit */
+    private int maxLimit = 200;
+
+    /** Calls slower than this, in milliseconds, are treated as congestion and shrink the limit */
+    private long latencyThreshold = 250;
+
+    /** Factor applied to the limit on congestion */
+    private double backoffRatio = 0.9;
+
+    /** Retry-After of rejected requests, in seconds */
+    private int retryAfter = 1;
+  }
+
+  @Data
+  public static class RateLimit {
+    /** Reject requests over the limit with 429 before they reach controllers */
+    private boolean enabled = false;
+
+    /** Limit of authenticated users without a matching role limit */
+    private Limit user = new Limit(20, 40);
+
+    /** Limit per client IP of anonymous requests */
+    private Limit anonymous = new Limit(5, 10);
+
+    /**
+     * Limits by role name as in AuthConstants (admin, staff, instructor, student); a user gets the
+     * highest limit among their roles
+     */
+    private Map<String, Limit> roles = new HashMap<>();
+
+    /** Buckets unused for this long, in seconds, are evicted */
+    private long idleTimeout = 600;
+
+    /** Upper bound of buckets held in memory */
+    private long maxBuckets = 100_000;
+
+    /**
+     * Header listing the client and proxy addresses, such as X-Forwarded-For, read for the client
+     * address of anonymous requests. Unset to use the remote address, which honors {@code
+     * server.forward-headers-strategy}
+     */
+    private String forwardedHeader;
+
+    /** Number of trusted proxies in front of the service, each appending to forwarded-header */
+    private int trustedProxies = 1;
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Limit {
+    /** Sustained requests per second */
+    private double rate;
+
+    /** Requests admitted at once after an idle period */
+    private int burst;
+  }
+
+  @Data
+  public static class SecondLevelCache {
+    /** Register the in-memory reference implementation, for tests and single-node setups */
+    private boolean inMemory = false;
+
+    /** Maximum number of entries held by the in-memory implementation */
+    private long inMemoryMaxSize = 10_000;
+
+    /** Longest wait for a lookup in milliseconds before falling back to the platform */
+    private long timeout = 50;
+
+    /** Time to live of shared token validations in seconds, capped by the token's exp claim */
+    private int tokenTtl = 60;
+
+    /** Time to live of shared user info in seconds */
+    private int userTtl = 300;
+
+    /** Time to live of the local near cache of user info in seconds */
+    private int nearCacheTtl = 30;
+
+    /** Maximum number of users in the near cache */
+    private long nearCacheMaxSize = 10_000;
+  }
+
+  @Data
+  public static class Audit {
+    /** Record decisions to the audit sinks on a background thread */
+    private boolean enabled = false;
+
+    /** Capacity of the event buffer, rounded up to a power of two; overflow is dropped */
+    private int bufferSize = 8192;
+
+    /** Maximum number of events handed to a sink at once */
+    private int batchSize = 256;
+
+    /** Longest delay in milliseconds before buffered events are written */
+    private long flushInterval = 200;
+
+    /** Fraction of granted and authenticated decisions recorded, between 0 and 1 */
+    private double grantedSampleRate = 1.0;
+
+    /** Fraction of denials and rejections recorded, between 0 and 1 */
+    private double deniedSampleRate = 1.0;
+
+    /** Write events to the security.audit SLF4J logger */
+    private boolean slf4j = true;
+
+    /** Append events as JSON lines to this file, disabled if unset */
+    private String file;
+  }
+
+  @Data
+  public static class Authorization {
+    /**
+     * Roles directly implied by each role, e.g. admin: [staff]; implications are transitive. A
+     * bare name also applies to users holding the ROLE_ prefixed role, not the other way round
+     */
+    private Map<String, List<String>> roleHierarchy = new HashMap<>();
+
+    /** Permissions granted by each role, inherited by the roles implying it */
+    private Map<String, List<String>> permissions = new HashMap<>();
+  }
 }
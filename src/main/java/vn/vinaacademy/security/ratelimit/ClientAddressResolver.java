@@ -0,0 +1,35 @@
+package vn.vinaacademy.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Resolves the client address a request is rate limited by. Without {@code forwarded-header} it is
+ * the remote address, already rewritten by the container under {@code
+ * server.forward-headers-strategy}. With it, the address is read from the header counting {@code
+ * trusted-proxies} entries from the right, since entries left of the ones appended by trusted
+ * proxies are supplied by the client and could be spoofed.
+ */
+public class ClientAddressResolver {
+  private final String forwardedHeader;
+  private final int trustedProxies;
+
+  public ClientAddressResolver(SecurityClientProperties.RateLimit config) {
+    this.forwardedHeader = config.getForwardedHeader();
+    this.trustedProxies = Math.max(1, config.getTrustedProxies());
+  }
+
+  public String resolve(HttpServletRequest request) {
+    if (forwardedHeader == null) {
+      return request.getRemoteAddr();
+    }
+    String forwarded = request.getHeader(forwardedHeader);
+    if (forwarded == null || forwarded.isBlank()) {
+      // Not through the proxies, e.g. a probe from inside the network
+      return request.getRemoteAddr();
+    }
+    String[] hops = forwarded.split(",");
+    String client = hops[Math.max(0, hops.length - trustedProxies)].trim();
+    return client.isEmpty() ? request.getRemoteAddr() : client;
+  }
+}
@@ -0,0 +1,108 @@
+package vn.vinaacademy.security.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Per-identity request rate limit applied by {@code JwtAuthenticationFilter}. Requests are keyed by
+ * user id once the token is validated, and otherwise by client address at the anonymous limit, so
+ * that unvalidated or made-up tokens cannot open fresh buckets. Buckets live in a size-bounded
+ * cache and are evicted after {@code idle-timeout}; the limit of a user is chosen from their roles
+ * when the bucket is created.
+ */
+@Slf4j
+public class RequestRateLimiter {
+  public static final String CACHE_NAME = "security-client-rate-limit";
+
+  private final Cache<String, TokenBucket> buckets;
+  private final SecurityClientProperties.RateLimit config;
+  private final SecurityClientMetrics metrics;
+
+  /** Default user limit, overridable at runtime without touching the shared properties */
+  private volatile SecurityClientProperties.Limit userLimit;
+
+  public RequestRateLimiter(SecurityClientProperties properties, SecurityClientMetrics metrics) {
+    this.config = properties.getRateLimit();
+    this.metrics = metrics;
+    this.userLimit = config.getUser();
+    this.buckets =
+        CacheBuilder.newBuilder()
+            .maximumSize(config.getMaxBuckets())
+            .expireAfterAccess(config.getIdleTimeout(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    metrics.monitorCache(CACHE_NAME, buckets);
+  }
+
+  /**
+   * Take a request from the caller's bucket.
+   *
+   * @param context the validated user context, or null if anonymous or not validated yet
+   * @param clientAddress the client address used for requests without a validated user
+   * @return 0 if admitted, otherwise the nanoseconds until the caller may retry
+   */
+  public long tryAcquire(UserContext context, String clientAddress) {
+    String key;
+    String keyType;
+    SecurityClientProperties.Limit limit;
+    if (context != null && context.isAuthenticated() && context.getUserId() != null) {
+      key = "u:" + context.getUserId();
+      keyType = SecurityClientMetrics.RATE_LIMIT_USER;
+      limit = limitFor(context);
+    } else {
+      key = "ip:" + clientAddress;
+      keyType = SecurityClientMetrics.RATE_LIMIT_ANONYMOUS;
+      limit = config.getAnonymous();
+    }
+
+    long wait;
+    try {
+      wait = buckets.get(key, () -> newBucket(limit)).tryAcquire();
+    } catch (ExecutionException e) {
+      // The loader does not throw, admit rather than fail the request
+      log.warn("Rate limit bucket unavailable for {}: {}", keyType, e.getCause().toString());
+      return 0L;
+    }
+    if (wait > 0) {
+      metrics.recordRateLimited(keyType);
+    }
+    return wait;
+  }
+
+  /** The highest configured role limit of the user, or the default user limit */
+  private SecurityClientProperties.Limit limitFor(UserContext context) {
+    SecurityClientProperties.Limit selected = userLimit;
+    for (Map.Entry<String, SecurityClientProperties.Limit> role : config.getRoles().entrySet()) {
+      if (role.getValue().getRate() > selected.getRate() && context.hasRole(role.getKey())) {
+        selected = role.getValue();
+      }
+    }
+    return selected;
+  }
+
+  private static TokenBucket newBucket(SecurityClientProperties.Limit limit) {
+    return new TokenBucket(limit.getRate(), limit.getBurst());
+  }
+
+  /** Number of buckets currently held */
+  public long size() {
+    return buckets.size();
+  }
+
+  /** Change the default user limit; buckets are dropped so every caller starts on the new limit */
+  public void setUserLimit(double rate, int burst) {
+    userLimit = new SecurityClientProperties.Limit(rate, burst);
+    buckets.invalidateAll();
+  }
+
+  public SecurityClientProperties.Limit getUserLimit() {
+    return userLimit;
+  }
+}
@@ -0,0 +1,41 @@
+package vn.vinaacademy.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the equivalent generic cell rate algorithm: a single
+ * theoretical arrival time is advanced by one emission interval per admitted request, with a
+ * compare-and-set instead of a lock or a refill thread.
+ */
+final class TokenBucket {
+  private final long intervalNanos;
+  private final long capacityNanos;
+  private final AtomicLong theoreticalArrival;
+
+  /**
+   * @param rate sustained requests per second
+   * @param burst requests admitted at once from a full bucket
+   */
+  TokenBucket(double rate, int burst) {
+    this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+    this.capacityNanos = intervalNanos * Math.max(1, burst);
+    this.theoreticalArrival = new AtomicLong(System.nanoTime());
+  }
+
+  /** Take a token, returning 0 if admitted or the nanoseconds until a token is available */
+  long tryAcquire() {
+    long now = System.nanoTime();
+    while (true) {
+      long current = theoreticalArrival.get();
+      long next = (current - now > 0 ? current : now) + intervalNanos;
+      long wait = next - now - capacityNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return 0L;
+      }
+    }
+  }
+}
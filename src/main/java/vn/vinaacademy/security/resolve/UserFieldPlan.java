@@ -0,0 +1,234 @@
+package vn.vinaacademy.security.resolve;
+
+import com.google.protobuf.MessageLite;
+import com.vinaacademy.grpc.UserInfo;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.annotation.ResolveNested;
+import vn.vinaacademy.security.annotation.UserId;
+
+/**
+ * Accessors of the {@link UserId} fields of one class, built once per class on first use so
+ * resolving a DTO costs two method handle calls per field and no reflection. Fields that may hold
+ * further DTOs, such as the payload of a response envelope or a nested list, are kept as getters so
+ * the resolver can descend into them. Only containers, generic or untyped fields and fields of a
+ * class with {@link UserId} fields or {@link ResolveNested} qualify, so entity associations are
+ * not loaded.
+ */
+@Slf4j
+final class UserFieldPlan {
+  private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final ClassValue<UserFieldPlan> PLANS =
+      new ClassValue<>() {
+        @Override
+        protected UserFieldPlan computeValue(Class<?> type) {
+          return build(type);
+        }
+      };
+
+  record Binding(MethodHandle id, MethodHandle target) {}
+
+  private static final UserFieldPlan NONE = new UserFieldPlan(List.of(), List.of(), false);
+
+  private final List<Binding> bindings;
+  private final List<MethodHandle> nested;
+  private final boolean descendable;
+
+  private UserFieldPlan(List<Binding> bindings, List<MethodHandle> nested, boolean descendable) {
+    this.bindings = bindings;
+    this.nested = nested;
+    this.descendable = descendable;
+  }
+
+  static UserFieldPlan of(Class<?> type) {
+    return PLANS.get(type);
+  }
+
+  /** Whether instances hold neither user ids nor fields that may contain DTOs */
+  boolean isEmpty() {
+    return bindings.isEmpty() && nested.isEmpty();
+  }
+
+  List<Binding> bindings() {
+    return bindings;
+  }
+
+  /**
+   * Whether instances are searched when found in a field or a container nested in one: the class
+   * has {@link UserId} fields or carries {@link ResolveNested}
+   */
+  boolean isDescendable() {
+    return descendable;
+  }
+
+  /** Getters of the fields that may hold further DTOs */
+  List<MethodHandle> nested() {
+    return nested;
+  }
+
+  /** The value of a nested field of the object */
+  static Object readNested(MethodHandle getter, Object value) {
+    try {
+      return (Object) getter.invokeExact(value);
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot read field of " + value.getClass().getName(), e);
+    }
+  }
+
+  /** The user id held by a binding of the DTO, or null */
+  static String readId(Binding binding, Object dto) {
+    try {
+      Object id = (Object) binding.id().invokeExact(dto);
+      return id != null ? id.toString() : null;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot read user id of " + dto.getClass().getName(), e);
+    }
+  }
+
+  static void writeUser(Binding binding, Object dto, UserInfo user) {
+    try {
+      binding.target().invokeExact(dto, (Object) user);
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot set resolved user of " + dto.getClass().getName(), e);
+    }
+  }
+
+  private static UserFieldPlan build(Class<?> type) {
+    if (type.isPrimitive() || type.isArray() || type.isEnum() || isPlatformType(type)) {
+      return NONE;
+    }
+    List<Binding> bindings = new ArrayList<>();
+    List<MethodHandle> nested = new ArrayList<>();
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        UserId marker = field.getAnnotation(UserId.class);
+        if (marker == null) {
+          if (mayHoldDtos(field)) {
+            try {
+              field.setAccessible(true);
+              nested.add(lookup.unreflectGetter(field).asType(GETTER));
+            } catch (IllegalAccessException | RuntimeException e) {
+              log.debug("Not resolving users under inaccessible field {}: {}", field, e.toString());
+            }
+          }
+          continue;
+        }
+        Field target = findField(type, marker.value());
+        if (target == null || !target.getType().isAssignableFrom(UserInfo.class)) {
+          throw new IllegalStateException(
+              "@UserId on "
+                  + c.getName()
+                  + "."
+                  + field.getName()
+                  + " needs a field '"
+                  + marker.value()
+                  + "' of type UserInfo");
+        }
+        if (Modifier.isFinal(target.getModifiers()) || Modifier.isStatic(target.getModifiers())) {
+          throw new IllegalStateException(
+              "Resolved user field " + c.getName() + "." + target.getName() + " must be mutable");
+        }
+        try {
+          field.setAccessible(true);
+          target.setAccessible(true);
+          bindings.add(
+              new Binding(
+                  lookup.unreflectGetter(field).asType(GETTER),
+                  lookup.unreflectSetter(target).asType(SETTER)));
+        } catch (IllegalAccessException | RuntimeException e) {
+          throw new IllegalStateException("Cannot access user fields of " + c.getName(), e);
+        }
+      }
+    }
+    if (bindings.isEmpty() && nested.isEmpty()) {
+      return NONE;
+    }
+    return new UserFieldPlan(List.copyOf(bindings), List.copyOf(nested), isDescendable(type));
+  }
+
+  /**
+   * Whether a field may reference DTOs: a container, an untyped or generic field, a field marked
+   * {@link ResolveNested}, or a field of a class that is itself descendable. Scalars, JDK value
+   * types, enums, protobuf messages and other application types are skipped.
+   */
+  private static boolean mayHoldDtos(Field field) {
+    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+      return false;
+    }
+    if (field.isAnnotationPresent(ResolveNested.class)) {
+      return true;
+    }
+    Class<?> type = field.getType();
+    if (type.isPrimitive() || type.isEnum()) {
+      return false;
+    }
+    if (type.isArray()) {
+      return !type.getComponentType().isPrimitive();
+    }
+    return type == Object.class
+        || field.getGenericType() instanceof TypeVariable<?>
+        || Iterable.class.isAssignableFrom(type)
+        || Map.class.isAssignableFrom(type)
+        || type == Optional.class
+        || (!isPlatformType(type) && isDescendable(type));
+  }
+
+  /** Whether the class or a superclass declares {@link UserId} fields, or carries the marker */
+  private static boolean isDescendable(Class<?> type) {
+    if (type.isAnnotationPresent(ResolveNested.class)) {
+      return true;
+    }
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (field.isAnnotationPresent(UserId.class)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isPlatformType(Class<?> type) {
+    String name = type.getName();
+    return name.startsWith("java.")
+        || name.startsWith("javax.")
+        || name.startsWith("jakarta.")
+        || name.startsWith("com.google.protobuf.")
+        || MessageLite.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Whether the class is an uninitialized-entity proxy or a persistent collection, whose fields or
+   * elements would be loaded from the database when read
+   */
+  static boolean isPersistenceProxy(Class<?> type) {
+    String name = type.getName();
+    return name.contains("$HibernateProxy$")
+        || name.contains("_$$_javassist_")
+        || name.startsWith("org.hibernate.");
+  }
+
+  private static Field findField(Class<?> type, String name) {
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (field.getName().equals(name)) {
+          return field;
+        }
+      }
+    }
+    return null;
+  }
+}
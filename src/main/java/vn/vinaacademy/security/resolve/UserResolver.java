@@ -0,0 +1,170 @@
+package vn.vinaacademy.security.resolve;
+
+import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.UserInfo;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpEntity;
+import vn.vinaacademy.security.annotation.ResolveNested;
+import vn.vinaacademy.security.annotation.ResolveUsers;
+import vn.vinaacademy.security.annotation.UserId;
+import vn.vinaacademy.security.grpc.UserGrpcClient;
+
+/**
+ * Fills the {@link UserId} targets of DTOs with users fetched in bulk: the ids of all DTOs are
+ * collected first and requested in GetUserByIds batches, instead of one getUserById per DTO. DTOs
+ * are found in containers, pages and response entities, and in the fields of envelopes and other
+ * DTOs. Nested objects are only searched if their class has {@link UserId} fields or is marked
+ * {@link ResolveNested}, and Hibernate proxies never are. Values with nothing to resolve are
+ * reported once per class. Used by the {@link ResolveUsers} aspect and callable directly.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserResolver {
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  /** Deepest nesting of containers and fields searched for DTOs */
+  private static final int MAX_DEPTH = 16;
+
+  /** Classes already reported as holding nothing to resolve */
+  private static final Set<Class<?>> REPORTED = ConcurrentHashMap.newKeySet();
+
+  private final UserGrpcClient userGrpcClient;
+
+  /** Resolve the users of a DTO or container of DTOs, see {@link ResolveUsers} */
+  public <T> T resolve(T value) {
+    return resolve(value, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Resolve the users of a DTO or container of DTOs. Failed lookups are logged and leave the
+   * targets unset, as do ids the platform does not know.
+   *
+   * @param batchSize maximum number of ids per GetUserByIds call
+   * @return the value itself
+   * @throws IllegalArgumentException if the value is asynchronous, e.g. a Mono or a future
+   */
+  public <T> T resolve(T value, int batchSize) {
+    if (isAsynchronous(value)) {
+      throw new IllegalArgumentException(
+          "Cannot resolve users of "
+              + value.getClass().getName()
+              + " before it completes; resolve the emitted values instead");
+    }
+    List<Object> dtos = new ArrayList<>();
+    collect(value, dtos, Collections.newSetFromMap(new IdentityHashMap<>()), 0, false);
+    if (dtos.isEmpty()) {
+      return value;
+    }
+
+    Set<String> ids = new LinkedHashSet<>();
+    for (Object dto : dtos) {
+      for (UserFieldPlan.Binding binding : UserFieldPlan.of(dto.getClass()).bindings()) {
+        String id = UserFieldPlan.readId(binding, dto);
+        if (id != null && !id.isEmpty()) {
+          ids.add(id);
+        }
+      }
+    }
+    if (ids.isEmpty()) {
+      return value;
+    }
+
+    Map<String, UserInfo> users = fetch(new ArrayList<>(ids), Math.max(1, batchSize));
+    for (Object dto : dtos) {
+      for (UserFieldPlan.Binding binding : UserFieldPlan.of(dto.getClass()).bindings()) {
+        String id = UserFieldPlan.readId(binding, dto);
+        UserInfo user = id != null ? users.get(id) : null;
+        if (user != null) {
+          UserFieldPlan.writeUser(binding, dto, user);
+        }
+      }
+    }
+    log.debug("Resolved {} of {} users for {} objects", users.size(), ids.size(), dtos.size());
+    return value;
+  }
+
+  private Map<String, UserInfo> fetch(List<String> ids, int batchSize) {
+    Map<String, UserInfo> users = new HashMap<>(ids.size() * 2);
+    for (int from = 0; from < ids.size(); from += batchSize) {
+      List<String> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+      GetUserByIdsResponse response = userGrpcClient.getUserByIds(batch);
+      if (!response.getSuccess()) {
+        log.warn("Failed to resolve {} users: {}", batch.size(), response.getMessage());
+        continue;
+      }
+      for (UserInfo user : response.getUsersList()) {
+        users.put(user.getId(), user);
+      }
+    }
+    return users;
+  }
+
+  /** Whether the value only holds its result later, e.g. a Mono, Flux or CompletableFuture */
+  private static boolean isAsynchronous(Object value) {
+    return value != null
+        && ReactiveAdapterRegistry.getSharedInstance().getAdapter(value.getClass()) != null;
+  }
+
+  /**
+   * Gather the DTOs reachable from a value, each once.
+   *
+   * @param nested whether the value was read from a field, directly or through containers, rather
+   *     than returned; such a value is only searched if its class is descendable, so entity
+   *     associations are not loaded, and a value without user fields is not reported
+   */
+  private static void collect(
+      Object value, List<Object> dtos, Set<Object> visited, int depth, boolean nested) {
+    if (value == null
+        || depth > MAX_DEPTH
+        || UserFieldPlan.isPersistenceProxy(value.getClass())
+        || !visited.add(value)) {
+      return;
+    }
+    if (value instanceof HttpEntity<?> entity) {
+      collect(entity.getBody(), dtos, visited, depth + 1, false);
+    } else if (value instanceof Optional<?> optional) {
+      optional.ifPresent(v -> collect(v, dtos, visited, depth + 1, nested));
+    } else if (value instanceof Iterable<?> iterable) {
+      // Also covers Spring Data Page and Slice, which iterate over their content
+      iterable.forEach(v -> collect(v, dtos, visited, depth + 1, nested));
+    } else if (value instanceof Map<?, ?> map) {
+      map.values().forEach(v -> collect(v, dtos, visited, depth + 1, nested));
+    } else if (value instanceof Object[] array) {
+      for (Object v : array) {
+        collect(v, dtos, visited, depth + 1, nested);
+      }
+    } else {
+      UserFieldPlan plan = UserFieldPlan.of(value.getClass());
+      if (nested && !plan.isDescendable()) {
+        return;
+      }
+      if (plan.isEmpty()) {
+        if (!nested && REPORTED.add(value.getClass())) {
+          log.warn(
+              "Cannot resolve users of {}: no @UserId fields and no fields holding DTOs",
+              value.getClass().getName());
+        }
+        return;
+      }
+      if (!plan.bindings().isEmpty()) {
+        dtos.add(value);
+      }
+      for (MethodHandle getter : plan.nested()) {
+        collect(UserFieldPlan.readNested(getter, value), dtos, visited, depth + 1, true);
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package vn.vinaacademy.security.revocation;
+
+import com.vinaacademy.grpc.RevokedToken;
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.token.JwtTokens;
+
+/**
+ * In-memory set of revoked tokens, keyed by jti or token hash. Each entry is kept until the expiry
+ * of the token it revokes, after which the token is rejected by its own exp claim anyway.
+ */
+@Slf4j
+public class TokenRevocationList {
+  /** Marker expiry for entries without a known exp; kept until the next full snapshot. */
+  private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+  private final Map<String, Long> revokedJtis = new ConcurrentHashMap<>();
+  private final Map<String, Long> revokedHashes = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong();
+  private final CountDownLatch synced = new CountDownLatch(1);
+
+  public TokenRevocationList(SecurityClientMetrics metrics) {
+    metrics.gauge(
+        "revocation.entries", "Revocation entries held locally", this, TokenRevocationList::size);
+    metrics.gauge(
+        "revocation.version",
+        "Last revocation version applied locally",
+        this,
+        TokenRevocationList::getVersion);
+  }
+
+  /**
+   * Check whether a token has been revoked.
+   *
+   * @param token the raw token
+   * @param tokenHash the token hash from {@link JwtTokens#hash(String)}
+   */
+  public boolean isRevoked(String token, String tokenHash) {
+    if (!revokedHashes.isEmpty() && isActive(revokedHashes.get(tokenHash))) {
+      return true;
+    }
+    if (revokedJtis.isEmpty()) {
+      return false;
+    }
+    String jti = JwtTokens.peekClaims(token).jti();
+    return jti != null && isActive(revokedJtis.get(jti));
+  }
+
+  /**
+   * Check whether a token known only by its hash and jti has been revoked, as for an identity
+   * assertion.
+   *
+   * @param tokenHash the token hash, or null
+   * @param jti the token jti, or null
+   */
+  public boolean isRevokedReference(String tokenHash, String jti) {
+    return (tokenHash != null && isActive(revokedHashes.get(tokenHash)))
+        || (jti != null && isActive(revokedJtis.get(jti)));
+  }
+
+  /** Apply a response of the revocation sync RPC and advance the local version. */
+  public void apply(RevokedTokensResponse response) {
+    if (response.getFullSnapshot()) {
+      revokedJtis.clear();
+      revokedHashes.clear();
+    }
+
+    for (RevokedToken token : response.getTokensList()) {
+      long expiresAt = token.getExpiresAt() > 0 ? token.getExpiresAt() : NO_EXPIRY;
+      if (!token.getJti().isEmpty()) {
+        revokedJtis.put(token.getJti(), expiresAt);
+      }
+      if (!token.getTokenHash().isEmpty()) {
+        revokedHashes.put(token.getTokenHash(), expiresAt);
+      }
+    }
+
+    version.set(response.getVersion());
+    synced.countDown();
+    if (response.getTokensCount() > 0) {
+      log.debug(
+          "Applied {} token revocations, now at version {}",
+          response.getTokensCount(),
+          response.getVersion());
+    }
+  }
+
+  /**
+   * Wait until a sync response has been applied at least once, since an empty list says nothing
+   * about which tokens are revoked before then.
+   *
+   * @return true if synced, false if the timeout elapsed first
+   */
+  public boolean awaitSync(long timeout, TimeUnit unit) throws InterruptedException {
+    return synced.await(timeout, unit);
+  }
+
+  /** Drop entries whose tokens have expired. */
+  public int purgeExpired() {
+    long now = Instant.now().getEpochSecond();
+    int before = size();
+    revokedJtis.values().removeIf(expiresAt -> expiresAt <= now);
+    revokedHashes.values().removeIf(expiresAt -> expiresAt <= now);
+    return before - size();
+  }
+
+  /** The last revocation version applied locally */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Number of revocation entries currently held */
+  public int size() {
+    return revokedJtis.size() + revokedHashes.size();
+  }
+
+  private static boolean isActive(Long expiresAt) {
+    return expiresAt != null && expiresAt > Instant.now().getEpochSecond();
+  }
+}
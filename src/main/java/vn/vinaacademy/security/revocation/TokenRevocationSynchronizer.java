@@ -0,0 +1,63 @@
+package vn.vinaacademy.security.revocation;
+
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Keeps the {@link TokenRevocationList} up to date by periodically pulling revocations newer than
+ * the last applied version from the platform server.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationSynchronizer {
+  private final JwtGrpcClient jwtGrpcClient;
+  private final TokenRevocationList revocationList;
+  private final SecurityClientProperties properties;
+
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  public void start() {
+    int interval = properties.getRevocation().getSyncInterval();
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "security-revocation-sync");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::sync, 0, interval, TimeUnit.SECONDS);
+    log.info("Token revocation sync started, interval: {}s", interval);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** Pull and apply the revocation delta since the last applied version */
+  public void sync() {
+    try {
+      long sinceVersion = revocationList.getVersion();
+      RevokedTokensResponse response = jwtGrpcClient.getRevokedTokens(sinceVersion);
+      revocationList.apply(response);
+
+      int purged = revocationList.purgeExpired();
+      if (purged > 0) {
+        log.debug("Purged {} expired token revocations", purged);
+      }
+    } catch (Exception e) {
+      log.warn("Token revocation sync failed: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package vn.vinaacademy.security.route;
+
+/** How {@code JwtAuthenticationFilter} treats requests to a route. */
+public enum AuthMode {
+  /** Do not read or validate the token, the security context stays empty */
+  SKIP,
+  /** Validate the token if present, anonymous requests are allowed */
+  OPTIONAL,
+  /** Reject the request with 401 unless it carries a valid token */
+  REQUIRED
+}
@@ -0,0 +1,166 @@
+package vn.vinaacademy.security.route;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+/**
+ * Route table compiled into a segment trie at startup. Matching walks the request path once,
+ * preferring literal segments over {@code *} and {@code *} over a trailing {@code **}, so the most
+ * specific pattern wins regardless of declaration order. Among identical patterns the first
+ * declared rule wins, which lets configured routes override the built-in ones.
+ */
+public final class RouteMatcher {
+  /** Built-in rules, applied after the configured ones */
+  public static final List<String> DEFAULT_SKIP_PATTERNS =
+      List.of("/actuator/**", "/health", "/ping");
+
+  /** Built-in rules for the admin-only {@code securityclient} actuator endpoint */
+  public static final List<String> DEFAULT_REQUIRED_PATTERNS =
+      List.of("/actuator/securityclient/**");
+
+  private static final String WILDCARD = "*";
+  private static final String REMAINDER = "**";
+
+  private final Node root = new Node();
+  private final AuthMode defaultMode;
+
+  private RouteMatcher(AuthMode defaultMode) {
+    this.defaultMode = defaultMode;
+  }
+
+  /**
+   * Compile the configured routes followed by the built-in required and skip rules.
+   *
+   * @throws IllegalArgumentException if a pattern is not supported
+   */
+  public static RouteMatcher compile(SecurityClientProperties.Filter config) {
+    RouteMatcher matcher = new RouteMatcher(config.getDefaultMode());
+    for (SecurityClientProperties.Route route : config.getRoutes()) {
+      matcher.add(route.getPattern(), route.getMethods(), route.getMode());
+    }
+    for (String pattern : DEFAULT_REQUIRED_PATTERNS) {
+      matcher.add(pattern, List.of(), AuthMode.REQUIRED);
+    }
+    for (String pattern : DEFAULT_SKIP_PATTERNS) {
+      matcher.add(pattern, List.of(), AuthMode.SKIP);
+    }
+    return matcher;
+  }
+
+  /**
+   * Resolve the authentication mode of a request.
+   *
+   * @param method the HTTP method
+   * @param path the request path within the application, without context path
+   */
+  public AuthMode match(String method, String path) {
+    AuthMode mode = match(root, path, 0, method);
+    return mode != null ? mode : defaultMode;
+  }
+
+  private void add(String pattern, List<String> methods, AuthMode mode) {
+    if (pattern == null || !pattern.startsWith("/")) {
+      throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+    }
+
+    Node node = root;
+    String[] segments = pattern.substring(1).split("/");
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      if (segment.isEmpty()) {
+        continue;
+      }
+      if (REMAINDER.equals(segment)) {
+        if (i != segments.length - 1) {
+          throw new IllegalArgumentException(
+              "Invalid route pattern '" + pattern + "': '**' is only supported as last segment");
+        }
+        node.remainder = add(node.remainder, methods, mode);
+        return;
+      }
+      if (WILDCARD.equals(segment)) {
+        if (node.wildcard == null) {
+          node.wildcard = new Node();
+        }
+        node = node.wildcard;
+      } else if (segment.contains(WILDCARD)) {
+        throw new IllegalArgumentException(
+            "Invalid route pattern '" + pattern + "': wildcards must span a whole segment");
+      } else {
+        node = node.children.computeIfAbsent(segment, k -> new Node());
+      }
+    }
+    node.exact = add(node.exact, methods, mode);
+  }
+
+  private static Rules add(Rules rules, List<String> methods, AuthMode mode) {
+    if (rules == null) {
+      rules = new Rules();
+    }
+    if (methods == null || methods.isEmpty()) {
+      if (rules.anyMethod == null) {
+        rules.anyMethod = mode;
+      }
+    } else {
+      for (String method : methods) {
+        rules.byMethod.putIfAbsent(method.toUpperCase(Locale.ROOT), mode);
+      }
+    }
+    return rules;
+  }
+
+  private static AuthMode match(Node node, String path, int start, String method) {
+    int length = path.length();
+    while (start < length && path.charAt(start) == '/') {
+      start++;
+    }
+    if (start >= length) {
+      AuthMode mode = resolve(node.exact, method);
+      return mode != null ? mode : resolve(node.remainder, method);
+    }
+
+    int end = path.indexOf('/', start);
+    if (end < 0) {
+      end = length;
+    }
+    if (!node.children.isEmpty()) {
+      Node child = node.children.get(path.substring(start, end));
+      if (child != null) {
+        AuthMode mode = match(child, path, end, method);
+        if (mode != null) {
+          return mode;
+        }
+      }
+    }
+    if (node.wildcard != null) {
+      AuthMode mode = match(node.wildcard, path, end, method);
+      if (mode != null) {
+        return mode;
+      }
+    }
+    return resolve(node.remainder, method);
+  }
+
+  private static AuthMode resolve(Rules rules, String method) {
+    if (rules == null) {
+      return null;
+    }
+    AuthMode mode = rules.byMethod.get(method);
+    return mode != null ? mode : rules.anyMethod;
+  }
+
+  private static final class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private Node wildcard;
+    private Rules exact;
+    private Rules remainder;
+  }
+
+  private static final class Rules {
+    private final Map<String, AuthMode> byMethod = new HashMap<>();
+    private AuthMode anyMethod;
+  }
+}
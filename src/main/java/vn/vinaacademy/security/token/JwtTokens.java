@@ -0,0 +1,68 @@
+package vn.vinaacademy.security.token;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Helpers for working with raw JWT strings without verifying them. Claims read here are only used
+ * for bookkeeping (cache expiry, revocation lookup) of tokens that are verified by the platform.
+ */
+@Slf4j
+@UtilityClass
+public class JwtTokens {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final ThreadLocal<MessageDigest> sha256 =
+      ThreadLocal.withInitial(JwtTokens::newSha256);
+
+  /** Hex encoded SHA-256 of the raw token, used as a cache and revocation key */
+  public static String hash(String token) {
+    byte[] digest = sha256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(digest);
+  }
+
+  /** Read the jti and exp claims from the token payload, or {@link Claims#EMPTY} if unreadable */
+  public static Claims peekClaims(String token) {
+    int start = token.indexOf('.');
+    int end = start < 0 ? -1 : token.indexOf('.', start + 1);
+    if (end < 0) {
+      return Claims.EMPTY;
+    }
+
+    try {
+      byte[] payload = Base64.getUrlDecoder().decode(token.substring(start + 1, end));
+      JsonNode node = objectMapper.readTree(payload);
+      String jti = node.hasNonNull("jti") ? node.get("jti").asText() : null;
+      long exp = node.hasNonNull("exp") ? node.get("exp").asLong() : 0L;
+      return new Claims(jti, exp);
+    } catch (Exception e) {
+      log.trace("Unable to read token claims: {}", e.getMessage());
+      return Claims.EMPTY;
+    }
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Unverified claims of a token.
+   *
+   * @param jti JWT ID, or null if absent
+   * @param expiresAt expiry in epoch seconds, or 0 if absent
+   */
+  public record Claims(String jti, long expiresAt) {
+    public static final Claims EMPTY = new Claims(null, 0L);
+  }
+}
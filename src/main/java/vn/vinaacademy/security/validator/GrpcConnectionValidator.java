@@ -1,22 +1,24 @@
 package vn.vinaacademy.security.validator;
 
-import jakarta.annotation.PostConstruct;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.ObjectProvider;
 import vn.vinaacademy.security.grpc.UserGrpcClient;
 
+/**
+ * Checks that the platform server answers gRPC calls over the shared channel. Run during
+ * {@link vn.vinaacademy.security.warmup.SecurityClientWarmup} rather than at bean creation; the
+ * lazy user client is only created when the check runs.
+ */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class GrpcConnectionValidator {
-  private final UserGrpcClient userGrpcClient;
+  private final ObjectProvider<UserGrpcClient> userGrpcClient;
 
-  @PostConstruct
   public void validateGrpcConnection() {
     log.info("🔍 Validating gRPC connection to Auth Server...");
-    var response = userGrpcClient.getUserByIds(List.of());
+    var response = userGrpcClient.getObject().getUserByIds(List.of());
 
     if (response.getSuccess()) {
       log.info("✅ gRPC connection to Auth Server is healthy.");
@@ -2,23 +2,25 @@ package vn.vinaacademy.security.validator;
 
 import static vn.vinaacademy.security.config.oauth2.OAuth2ClientConfig.CLIENT_REGISTRATION_ID;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.client.*;
-import org.springframework.stereotype.Component;
+import vn.vinaacademy.security.config.grpc.OAuth2GrpcClientInterceptor;
 
+/**
+ * Checks that a service token can be obtained from the OAuth2 server. The token is requested for
+ * the same principal as {@link OAuth2GrpcClientInterceptor}, so a successful check also prefetches
+ * the token used by the first gRPC call.
+ */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class OAuth2ConnectionValidator {
   private final OAuth2AuthorizedClientManager clientManager;
 
-  @PostConstruct
   public void validateOAuth2Connection() {
     OAuth2AuthorizeRequest request =
         OAuth2AuthorizeRequest.withClientRegistrationId(CLIENT_REGISTRATION_ID)
-            .principal("startup-check")
+            .principal(OAuth2GrpcClientInterceptor.TOKEN_PRINCIPAL)
             .build();
 
     try {
@@ -0,0 +1,32 @@
+package vn.vinaacademy.security.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Reports the outcome of {@link SecurityClientWarmup} as the {@code securityClient} health
+ * component. Add it to the readiness group to keep traffic away until the auth path is warm:
+ * {@code management.endpoint.health.group.readiness.include=readinessState,securityClient}. Only
+ * reads the warm-up state; a failed warm-up is retried by the warm-up itself on a backoff schedule.
+ */
+@RequiredArgsConstructor
+public class SecurityClientHealthIndicator implements HealthIndicator {
+  private final SecurityClientWarmup warmup;
+
+  @Override
+  public Health health() {
+    SecurityClientWarmup.Status status = warmup.getStatus();
+    Health.Builder builder =
+        switch (status) {
+          case READY -> Health.up();
+          case FAILED -> Health.down().withDetail("failures", warmup.getFailures());
+          case PENDING, RUNNING -> Health.outOfService();
+        };
+
+    if (warmup.getLastDuration() != null) {
+      builder.withDetail("warmupMillis", warmup.getLastDuration().toMillis());
+    }
+    return builder.withDetail("warmup", status).build();
+  }
+}
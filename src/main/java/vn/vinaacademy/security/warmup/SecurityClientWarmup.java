@@ -0,0 +1,288 @@
+package vn.vinaacademy.security.warmup;
+
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import vn.vinaacademy.security.annotation.PreAuthorize;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.validator.GrpcConnectionValidator;
+import vn.vinaacademy.security.validator.OAuth2ConnectionValidator;
+
+/**
+ * Warms up the security client once the application context is refreshed: connects the shared
+ * gRPC channel, prefetches the OAuth2 service token and parses every {@code @PreAuthorize}
+ * expression. The checks run in parallel and, unless {@code security.warmup.fail-fast} is set,
+ * never block or abort startup; their outcome is reported by {@link SecurityClientHealthIndicator}.
+ *
+ * <p>All runs share one small pool; a check that times out is cancelled so its thread is freed. A
+ * failed run is retried on a schedule, starting after {@code retry-delay} and doubling up to
+ * {@code max-retry-delay}, until one succeeds.
+ */
+@Slf4j
+public class SecurityClientWarmup implements ApplicationListener<ContextRefreshedEvent> {
+  public static final String CHECK_GRPC = "grpc";
+  public static final String CHECK_OAUTH2 = "oauth2";
+  public static final String CHECK_AUTHORIZATION = "authorization";
+
+  public enum Status {
+    PENDING,
+    RUNNING,
+    READY,
+    FAILED
+  }
+
+  private final GrpcChannelFactory channelFactory;
+  private final GrpcConnectionValidator grpcConnectionValidator;
+  private final OAuth2ConnectionValidator oauth2ConnectionValidator;
+  /** Null when method security is disabled */
+  private final SecurityExpressionEvaluator expressionEvaluator;
+  private final SecurityClientProperties properties;
+
+  private final ScheduledExecutorService executor;
+
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final Map<String, String> failures = new ConcurrentHashMap<>();
+  private volatile Status status = Status.PENDING;
+  private volatile Duration lastDuration;
+  private volatile ApplicationContext applicationContext;
+  private CompletableFuture<Void> current;
+  private ScheduledFuture<?> retry;
+  private int failedRuns;
+
+  public SecurityClientWarmup(
+      GrpcChannelFactory channelFactory,
+      GrpcConnectionValidator grpcConnectionValidator,
+      OAuth2ConnectionValidator oauth2ConnectionValidator,
+      SecurityExpressionEvaluator expressionEvaluator,
+      SecurityClientProperties properties) {
+    this.channelFactory = channelFactory;
+    this.grpcConnectionValidator = grpcConnectionValidator;
+    this.oauth2ConnectionValidator = oauth2ConnectionValidator;
+    this.expressionEvaluator = expressionEvaluator;
+    this.properties = properties;
+    // One thread per check, reused by every run and retry
+    ScheduledThreadPoolExecutor pool =
+        new ScheduledThreadPoolExecutor(3, new WarmupThreadFactory());
+    pool.setRemoveOnCancelPolicy(true);
+    this.executor = pool;
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    if (!started.compareAndSet(false, true)) {
+      return;
+    }
+    applicationContext = event.getApplicationContext();
+    CompletableFuture<Void> warmup = run();
+
+    if (properties.getWarmup().isFailFast()) {
+      int timeout = properties.getWarmup().getTimeout();
+      try {
+        warmup.get(timeout, TimeUnit.SECONDS);
+      } catch (TimeoutException e) {
+        throw new IllegalStateException("Security client warm-up timed out after " + timeout + "s");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Security client warm-up interrupted", e);
+      } catch (Exception e) {
+        throw new IllegalStateException("Security client warm-up failed: " + e.getMessage(), e);
+      }
+      if (status != Status.READY) {
+        throw new IllegalStateException("Security client warm-up failed: " + failures);
+      }
+    }
+  }
+
+  /** Run the warm-up checks in parallel, or return the run already in progress */
+  public synchronized CompletableFuture<Void> run() {
+    if (current != null && !current.isDone()) {
+      return current;
+    }
+
+    if (retry != null) {
+      retry.cancel(false);
+      retry = null;
+    }
+    status = Status.RUNNING;
+    failures.clear();
+    long start = System.nanoTime();
+    int timeout = properties.getWarmup().getTimeout();
+
+    CompletableFuture<Void> grpc =
+        check(
+            CHECK_GRPC,
+            () -> {
+              channelFactory.warmUpAuthChannel();
+              grpcConnectionValidator.validateGrpcConnection();
+            },
+            timeout);
+    CompletableFuture<Void> oauth2 =
+        check(CHECK_OAUTH2, oauth2ConnectionValidator::validateOAuth2Connection, timeout);
+    CompletableFuture<Void> authorization =
+        check(CHECK_AUTHORIZATION, this::compileAuthorizationMetadata, timeout);
+
+    current =
+        CompletableFuture.allOf(grpc, oauth2, authorization)
+            .whenComplete(
+                (ignored, error) -> {
+                  lastDuration = Duration.ofNanos(System.nanoTime() - start);
+                  status = failures.isEmpty() ? Status.READY : Status.FAILED;
+                  if (status == Status.READY) {
+                    log.info(
+                        "✅ Security client warm-up completed in {} ms", lastDuration.toMillis());
+                  } else {
+                    log.warn("❌ Security client warm-up failed: {}", failures);
+                  }
+                  scheduleRetry();
+                });
+    return current;
+  }
+
+  /** Stop retrying and cancel the checks still running */
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Map<String, String> getFailures() {
+    return Map.copyOf(failures);
+  }
+
+  public Duration getLastDuration() {
+    return lastDuration;
+  }
+
+  /** Schedule the next run with exponential backoff after a failure, reset after a success */
+  private synchronized void scheduleRetry() {
+    if (status != Status.FAILED) {
+      failedRuns = 0;
+      return;
+    }
+    if (executor.isShutdown()) {
+      return;
+    }
+    SecurityClientProperties.Warmup config = properties.getWarmup();
+    long delay =
+        Math.min(
+            Math.max(1L, config.getMaxRetryDelay()),
+            Math.max(1L, config.getRetryDelay()) << Math.min(failedRuns, 20));
+    failedRuns++;
+    log.info("Retrying security client warm-up in {}s", delay);
+    retry = executor.schedule(this::run, delay, TimeUnit.SECONDS);
+  }
+
+  /** Run a check on the pool; on timeout the task is interrupted so its thread is released */
+  private CompletableFuture<Void> check(String name, Runnable task, int timeout) {
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    Future<?> running =
+        executor.submit(
+            () -> {
+              try {
+                task.run();
+                result.complete(null);
+              } catch (Throwable e) {
+                result.completeExceptionally(e);
+              }
+            });
+    return result
+        .orTimeout(timeout, TimeUnit.SECONDS)
+        .whenComplete(
+            (ignored, e) -> {
+              if (e instanceof TimeoutException) {
+                running.cancel(true);
+              }
+            })
+        .exceptionally(
+            e -> {
+              Throwable cause =
+                  e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+              String message =
+                  cause instanceof TimeoutException
+                      ? "timed out after " + timeout + "s"
+                      : String.valueOf(cause.getMessage());
+              failures.put(name, message);
+              return null;
+            });
+  }
+
+  /** Parse every @PreAuthorize expression declared on application beans */
+  private void compileAuthorizationMetadata() {
+    ApplicationContext context = applicationContext;
+    if (context == null || expressionEvaluator == null) {
+      return;
+    }
+
+    AtomicInteger invalid = new AtomicInteger();
+    for (String beanName : context.getBeanDefinitionNames()) {
+      Class<?> beanType = context.getType(beanName, false);
+      if (beanType == null) {
+        continue;
+      }
+      Class<?> userClass = ClassUtils.getUserClass(beanType);
+
+      PreAuthorize classLevel =
+          AnnotatedElementUtils.findMergedAnnotation(userClass, PreAuthorize.class);
+      if (classLevel != null) {
+        compile(classLevel.value(), userClass.getName(), invalid);
+      }
+      for (Method method : ReflectionUtils.getUniqueDeclaredMethods(userClass)) {
+        PreAuthorize preAuthorize = method.getAnnotation(PreAuthorize.class);
+        if (preAuthorize != null) {
+          compile(preAuthorize.value(), userClass.getName() + "#" + method.getName(), invalid);
+        }
+      }
+    }
+
+    log.debug(
+        "Compiled {} @PreAuthorize expressions, {} invalid",
+        expressionEvaluator.getCompiledExpressionCount(),
+        invalid.get());
+  }
+
+  private void compile(String expression, String location, AtomicInteger invalid) {
+    try {
+      expressionEvaluator.getExpression(expression);
+    } catch (Exception e) {
+      invalid.incrementAndGet();
+      log.warn(
+          "Invalid @PreAuthorize expression '{}' on {}: {}", expression, location, e.getMessage());
+    }
+  }
+
+  private static final class WarmupThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "security-warmup-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
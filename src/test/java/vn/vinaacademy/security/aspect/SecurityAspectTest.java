@@ -0,0 +1,102 @@
+package vn.vinaacademy.security.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vn.vinaacademy.security.annotation.HasAnyRole;
+import vn.vinaacademy.security.authentication.ReactiveSecurityContextHolder;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.evaluator.SecurityExpressionEvaluator;
+import vn.vinaacademy.security.exception.AccessDeniedException;
+import vn.vinaacademy.security.exception.AuthenticationException;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+
+class SecurityAspectTest {
+  private CourseController controller;
+  private CourseController target;
+
+  @BeforeEach
+  void setUp() {
+    target = new CourseController();
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(
+        new SecurityAspect(
+            new SecurityExpressionEvaluator(),
+            new SecurityClientMetrics(new SimpleMeterRegistry())));
+    controller = factory.getProxy();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void mvcControllerReturningMonoUsesRequestThreadContext() {
+    // As set by JwtAuthenticationFilter for the duration of a servlet request
+    SecurityContextHolder.setContext(user("ROLE_admin"));
+    Mono<String> result = controller.publish();
+    SecurityContextHolder.clearContext();
+
+    assertThat(result.block()).isEqualTo("published");
+    assertThat(target.calls).hasValue(1);
+  }
+
+  @Test
+  void mvcControllerReturningFluxDeniesMissingRole() {
+    SecurityContextHolder.setContext(user("ROLE_student"));
+    Flux<String> result = controller.drafts();
+    SecurityContextHolder.clearContext();
+
+    assertThatThrownBy(result::blockLast).isInstanceOf(AccessDeniedException.class);
+    assertThat(target.calls).hasValue(0);
+  }
+
+  @Test
+  void reactorContextTakesPrecedence() {
+    SecurityContextHolder.setContext(user("ROLE_student"));
+    Mono<String> result =
+        controller
+            .publish()
+            .contextWrite(ReactiveSecurityContextHolder.withContext(user("ROLE_admin")));
+
+    assertThat(result.block()).isEqualTo("published");
+  }
+
+  @Test
+  void rejectsWithoutAnyContext() {
+    assertThatThrownBy(() -> controller.publish().block())
+        .isInstanceOf(AuthenticationException.class);
+    assertThat(target.calls).hasValue(0);
+  }
+
+  private static UserContext user(String role) {
+    return UserContext.builder().userId("user-1").roles(Set.of(role)).authenticated(true).build();
+  }
+
+  static class CourseController {
+    final AtomicInteger calls = new AtomicInteger();
+
+    @HasAnyRole("admin")
+    public Mono<String> publish() {
+      calls.incrementAndGet();
+      return Mono.just("published");
+    }
+
+    @HasAnyRole("admin")
+    public Flux<String> drafts() {
+      calls.incrementAndGet();
+      return Flux.just("draft");
+    }
+  }
+}
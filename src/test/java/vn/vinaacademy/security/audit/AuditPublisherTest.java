@@ -0,0 +1,198 @@
+package vn.vinaacademy.security.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class AuditPublisherTest {
+  private MeterRegistry registry;
+  private SecurityClientMetrics metrics;
+  private SecurityClientProperties properties;
+  private List<AuditEvent> written;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new SecurityClientMetrics(registry);
+    properties = new SecurityClientProperties();
+    properties.getAudit().setBufferSize(4);
+    properties.getAudit().setFlushInterval(10);
+    written = new CopyOnWriteArrayList<>();
+  }
+
+  @Test
+  void dropsAndCountsEventsWhenTheRingIsFull() {
+    AuditPublisher publisher = publisher(written::addAll);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(publisher.offer(event("user-" + i))).isTrue();
+    }
+    assertThat(publisher.offer(event("user-4"))).isFalse();
+    assertThat(publisher.offer(event("user-5"))).isFalse();
+
+    assertThat(publisher.size()).isEqualTo(4);
+    assertThat(publisher.getDropped()).isEqualTo(2);
+    assertThat(dropped(SecurityClientMetrics.AUDIT_OVERFLOW)).isEqualTo(2);
+  }
+
+  @Test
+  void roundsBufferUpToAPowerOfTwo() {
+    properties.getAudit().setBufferSize(5);
+    AuditPublisher publisher = publisher(written::addAll);
+
+    for (int i = 0; i < 8; i++) {
+      assertThat(publisher.offer(event("user-" + i))).isTrue();
+    }
+    assertThat(publisher.offer(event("user-8"))).isFalse();
+  }
+
+  @Test
+  void concurrentProducersNeverExceedTheCapacity() throws Exception {
+    properties.getAudit().setBufferSize(64);
+    AuditPublisher publisher = publisher(written::addAll);
+    AtomicInteger accepted = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService producers = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++) {
+      producers.submit(
+          () -> {
+            start.await();
+            for (int i = 0; i < 100; i++) {
+              if (publisher.offer(event("user"))) accepted.incrementAndGet();
+            }
+            return null;
+          });
+    }
+    start.countDown();
+    producers.shutdown();
+    assertThat(producers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(accepted).hasValue(64);
+    assertThat(publisher.getDropped()).isEqualTo(800 - 64);
+    assertThat(publisher.size()).isEqualTo(64);
+  }
+
+  @Test
+  void drainsInOrderAndFlushesOnStop() {
+    AuditPublisher publisher = publisher(written::addAll);
+    publisher.start();
+
+    for (int i = 0; i < 3; i++) {
+      publisher.offer(event("user-" + i));
+    }
+    publisher.stop();
+
+    assertThat(written)
+        .extracting(AuditEvent::userId)
+        .containsExactly("user-0", "user-1", "user-2");
+    assertThat(publisher.size()).isZero();
+    assertThat(registry.get("security.client.audit.written").counter().count()).isEqualTo(3);
+  }
+
+  @Test
+  void freesSlotsOnceDrained() {
+    AuditPublisher publisher = publisher(written::addAll);
+    publisher.start();
+
+    for (int i = 0; i < 20; i++) {
+      waitForRoom(publisher);
+      assertThat(publisher.offer(event("user-" + i))).isTrue();
+    }
+    publisher.stop();
+
+    assertThat(written).hasSize(20);
+    assertThat(publisher.getDropped()).isZero();
+  }
+
+  @Test
+  void samplesByDecision() {
+    properties.getAudit().setBufferSize(64);
+    properties.getAudit().setGrantedSampleRate(0.0);
+    properties.getAudit().setDeniedSampleRate(1.0);
+    AuditPublisher publisher = publisher(written::addAll);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(publishGranted(publisher)).isTrue();
+      assertThat(
+              publisher.publish(
+                  AuditEvent.AUTHORIZATION, "user-1", "m", "denied", false, 1, "missing role"))
+          .isTrue();
+    }
+
+    assertThat(publisher.size()).isEqualTo(10);
+    assertThat(publisher.getDropped()).isZero();
+  }
+
+  @Test
+  void samplesAFractionOfGrantedDecisions() {
+    properties.getAudit().setBufferSize(4096);
+    properties.getAudit().setGrantedSampleRate(0.25);
+    AuditPublisher publisher = publisher(written::addAll);
+
+    for (int i = 0; i < 4000; i++) {
+      publishGranted(publisher);
+    }
+
+    assertThat(publisher.size()).isBetween(700, 1300);
+  }
+
+  @Test
+  void countsEventsLostToAFailingSink() {
+    List<AuditEvent> healthy = new ArrayList<>();
+    AuditPublisher publisher =
+        new AuditPublisher(
+            List.of(
+                batch -> {
+                  throw new IllegalStateException("disk full");
+                },
+                healthy::addAll),
+            properties,
+            metrics);
+    publisher.start();
+
+    publisher.offer(event("user-1"));
+    publisher.offer(event("user-2"));
+    publisher.stop();
+
+    assertThat(healthy).hasSize(2);
+    assertThat(publisher.getSinkErrors()).isEqualTo(2);
+    assertThat(dropped(SecurityClientMetrics.AUDIT_SINK_ERROR)).isEqualTo(2);
+  }
+
+  private AuditPublisher publisher(AuditSink sink) {
+    return new AuditPublisher(List.of(sink), properties, metrics);
+  }
+
+  private double dropped(String reason) {
+    return registry.get("security.client.audit.dropped").tag("reason", reason).counter().count();
+  }
+
+  private static boolean publishGranted(AuditPublisher publisher) {
+    return publisher.publish(AuditEvent.AUTHORIZATION, "user-1", "m", "granted", true, 1, null);
+  }
+
+  private static void waitForRoom(AuditPublisher publisher) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (publisher.size() >= 4 && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private static AuditEvent event(String userId) {
+    return new AuditEvent(
+        System.currentTimeMillis(), AuditEvent.AUTHORIZATION, userId, "m", "granted", 1, null);
+  }
+}
@@ -0,0 +1,44 @@
+package vn.vinaacademy.security.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestLookupMemoTest {
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void keepsUsersAndValidations() {
+    RequestLookupMemo memo = new RequestLookupMemo();
+    UserInfo user = UserInfo.newBuilder().setId("u1").build();
+    ValidateTokenResponse validation = ValidateTokenResponse.newBuilder().setIsValid(true).build();
+
+    memo.putUser(user);
+    memo.putValidation("token", validation);
+
+    assertThat(memo.getUser("u1")).isSameAs(user);
+    assertThat(memo.getUser("u2")).isNull();
+    assertThat(memo.getValidation("token")).isSameAs(validation);
+    assertThat(memo.getValidation("other")).isNull();
+  }
+
+  @Test
+  void isBoundToTheRequestUntilTheContextIsCleared() {
+    assertThat(SecurityContextHolder.getLookupMemo()).isNull();
+
+    SecurityContextHolder.enableLookupMemo();
+    RequestLookupMemo memo = SecurityContextHolder.getLookupMemo();
+    SecurityContextHolder.enableLookupMemo();
+    assertThat(SecurityContextHolder.getLookupMemo()).isSameAs(memo);
+
+    SecurityContextHolder.clearContext();
+    assertThat(SecurityContextHolder.getLookupMemo()).isNull();
+  }
+}
@@ -0,0 +1,133 @@
+package vn.vinaacademy.security.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.vinaacademy.security.cache.TokenValidationCache;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.grpc.TokenValidation;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.token.JwtTokens;
+
+class TokenAuthenticationServiceTest {
+  private static final String TOKEN = "header.payload.signature";
+  private static final ValidateTokenResponse VALID =
+      ValidateTokenResponse.newBuilder()
+          .setIsValid(true)
+          .setUserId("user-1")
+          .setEmail("user@example.com")
+          .setRoles("ROLE_student")
+          .build();
+
+  private JwtGrpcClient jwtGrpcClient;
+  private TokenValidationCache tokenCache;
+  private TokenAuthenticationService service;
+
+  @BeforeEach
+  void setUp() {
+    jwtGrpcClient = mock(JwtGrpcClient.class);
+    tokenCache =
+        new TokenValidationCache(
+            new SecurityClientProperties(), new SecurityClientMetrics(new SimpleMeterRegistry()));
+    service = new TokenAuthenticationService(jwtGrpcClient);
+    ReflectionTestUtils.setField(service, "tokenCache", tokenCache);
+  }
+
+  @Test
+  void cachesValidationBeforeReleasingInFlightEntry() {
+    when(jwtGrpcClient.validate(TOKEN))
+        .thenAnswer(
+            invocation -> {
+              assertThat(service.getInFlightValidations()).isEqualTo(1);
+              return new TokenValidation(VALID, null);
+            });
+
+    UserContext context = service.authenticate(TOKEN);
+
+    assertThat(context.isAuthenticated()).isTrue();
+    assertThat(context.getUserId()).isEqualTo("user-1");
+    assertThat(tokenCache.get(JwtTokens.hash(TOKEN))).isEqualTo(VALID);
+    assertThat(service.getInFlightValidations()).isZero();
+
+    service.authenticate(TOKEN);
+    verify(jwtGrpcClient, times(1)).validate(TOKEN);
+  }
+
+  @Test
+  void coalescesConcurrentValidationsOfTheSameToken() throws Exception {
+    CountDownLatch called = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jwtGrpcClient.validate(TOKEN))
+        .thenAnswer(
+            invocation -> {
+              called.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new TokenValidation(VALID, null);
+            });
+
+    CompletableFuture<UserContext> first = CompletableFuture.supplyAsync(() -> auth());
+    assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<UserContext> second = CompletableFuture.supplyAsync(() -> auth());
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS).isAuthenticated()).isTrue();
+    assertThat(second.get(5, TimeUnit.SECONDS).isAuthenticated()).isTrue();
+    verify(jwtGrpcClient, times(1)).validate(TOKEN);
+  }
+
+  @Test
+  void doesNotCacheInvalidTokens() {
+    when(jwtGrpcClient.validate(TOKEN))
+        .thenReturn(
+            new TokenValidation(
+                ValidateTokenResponse.newBuilder().setIsValid(false).build(), null));
+
+    assertThat(service.authenticate(TOKEN).isAuthenticated()).isFalse();
+    assertThat(service.authenticate(TOKEN).isAuthenticated()).isFalse();
+
+    verify(jwtGrpcClient, times(2)).validate(TOKEN);
+    assertThat(tokenCache.get(JwtTokens.hash(TOKEN))).isNull();
+  }
+
+  @Test
+  void failedValidationYieldsUnauthenticatedContext() {
+    when(jwtGrpcClient.validate(TOKEN)).thenThrow(new IllegalStateException("down"));
+
+    UserContext context = service.authenticate(TOKEN);
+
+    assertThat(context.isAuthenticated()).isFalse();
+    assertThat(service.getInFlightValidations()).isZero();
+  }
+
+  @Test
+  void shedValidationFailsWithServiceUnavailable() {
+    ServiceUnavailableException shed = new ServiceUnavailableException("overloaded", 2);
+    when(jwtGrpcClient.validate(TOKEN))
+        .thenReturn(
+            new TokenValidation(
+                ValidateTokenResponse.newBuilder().setIsValid(false).build(), shed));
+
+    assertThatThrownBy(() -> service.authenticate(TOKEN)).isSameAs(shed);
+    assertThat(service.getInFlightValidations()).isZero();
+    assertThat(tokenCache.get(JwtTokens.hash(TOKEN))).isNull();
+  }
+
+  private UserContext auth() {
+    return service.authenticate(TOKEN);
+  }
+}
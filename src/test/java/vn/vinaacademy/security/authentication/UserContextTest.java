@@ -0,0 +1,101 @@
+package vn.vinaacademy.security.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UserContextTest {
+
+  @Test
+  void bareKnownRoleMatchesPrefixedMembershipButNotTheReverse() {
+    UserContext prefixed = user("ROLE_admin");
+    UserContext bare = user("admin");
+
+    assertThat(prefixed.hasRole("admin")).isTrue();
+    assertThat(prefixed.hasRole("ROLE_admin")).isTrue();
+    assertThat(bare.hasRole("admin")).isTrue();
+    assertThat(bare.hasRole("ROLE_admin")).isFalse();
+    assertThat(prefixed.hasRole("staff")).isFalse();
+  }
+
+  @Test
+  void otherRolesMatchWithAndWithoutPrefix() {
+    UserContext prefixed = user("ROLE_moderator");
+    UserContext bare = user("moderator");
+
+    assertThat(prefixed.hasRole("moderator")).isTrue();
+    assertThat(prefixed.hasRole("ROLE_moderator")).isTrue();
+    assertThat(bare.hasRole("moderator")).isTrue();
+    assertThat(bare.hasRole("ROLE_moderator")).isFalse();
+    assertThat(prefixed.hasRole("mod")).isFalse();
+    assertThat(prefixed.hasRole("ROLE_")).isFalse();
+    assertThat(prefixed.hasRole(null)).isFalse();
+  }
+
+  @Test
+  void anyAndAllRolesCombineMemberships() {
+    UserContext user = user("ROLE_instructor", "reviewer");
+
+    assertThat(user.hasAnyRole("admin", "instructor")).isTrue();
+    assertThat(user.hasAnyRole("admin", "staff")).isFalse();
+    assertThat(user.hasAllRoles("instructor", "reviewer")).isTrue();
+    assertThat(user.hasAllRoles("instructor", "admin")).isFalse();
+  }
+
+  @Test
+  void getRolesReturnsKnownAndOtherRoles() {
+    UserContext user = user("ROLE_admin", "student", "moderator", "moderator");
+
+    assertThat(user.getRoles()).containsExactlyInAnyOrder("ROLE_admin", "student", "moderator");
+    assertThat(UserContext.builder().userId("u1").build().getRoles()).isEmpty();
+  }
+
+  @Test
+  void readsNameAndAvatarFromTheValidation() {
+    ValidateTokenResponse response =
+        ValidateTokenResponse.newBuilder()
+            .setIsValid(true)
+            .setUserId("u1")
+            .setEmail("u1@example.com")
+            .setRoles("ROLE_student,reviewer")
+            .setFullName("Nguyen Van A")
+            .setAvatarUrl("https://cdn.example.com/a.png")
+            .build();
+
+    UserContext context = UserContext.fromValidation(response, "token");
+
+    assertThat(context.getFullName()).isEqualTo("Nguyen Van A");
+    assertThat(context.getAvatarUrl()).isEqualTo("https://cdn.example.com/a.png");
+    assertThat(context.getRoles()).containsExactlyInAnyOrder("ROLE_student", "reviewer");
+    assertThat(context.isAuthenticated()).isTrue();
+    assertThat(context)
+        .isEqualTo(
+            UserContext.builder()
+                .userId("u1")
+                .email("u1@example.com")
+                .fullName("Nguyen Van A")
+                .avatarUrl("https://cdn.example.com/a.png")
+                .roles(List.of("reviewer", "ROLE_student"))
+                .token("token")
+                .authenticated(true)
+                .build());
+    assertThat(context.toString()).contains("fullName=Nguyen Van A").doesNotContain("token");
+  }
+
+  @Test
+  void fromValidationWithoutRolesHasNone() {
+    ValidateTokenResponse response =
+        ValidateTokenResponse.newBuilder().setIsValid(true).setUserId("u1").build();
+
+    UserContext context = UserContext.fromValidation(response, "token");
+
+    assertThat(context.getRoles()).isEmpty();
+    assertThat(context.getFullName()).isEmpty();
+  }
+
+  private static UserContext user(String... roles) {
+    return UserContext.builder().userId("u1").roles(List.of(roles)).authenticated(true).build();
+  }
+}
@@ -0,0 +1,150 @@
+package vn.vinaacademy.security.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class AuthorizationPolicyTest {
+  private static final AuthorizationPolicy POLICY =
+      AuthorizationPolicy.compile(
+          Map.of(
+              "admin", List.of("staff"),
+              "staff", List.of("instructor"),
+              "instructor", List.of("student")),
+          Map.of(
+              "student", List.of("course:view"),
+              "instructor", List.of("course:edit", " course:publish "),
+              "staff", List.of("report:view")));
+
+  @Test
+  void inheritsRolesAndPermissionsAcrossLevels() {
+    UserContext admin = user("admin");
+
+    assertThat(POLICY.hasRole(admin, "student")).isTrue();
+    assertThat(POLICY.hasAllRoles(admin, "staff", "instructor", "student")).isTrue();
+    assertThat(POLICY.hasPermission(admin, "course:view")).isTrue();
+    assertThat(POLICY.hasPermission(admin, "course:publish")).isTrue();
+
+    UserContext instructor = user("instructor");
+    assertThat(POLICY.hasRole(instructor, "staff")).isFalse();
+    assertThat(POLICY.hasPermission(instructor, "report:view")).isFalse();
+    assertThat(POLICY.hasAnyPermission(instructor, "report:view", "course:edit")).isTrue();
+  }
+
+  @Test
+  void trimsPermissionNames() {
+    UserContext instructor = user("instructor");
+
+    assertThat(POLICY.hasPermission(instructor, "course:publish")).isTrue();
+    assertThat(POLICY.hasPermission(instructor, " course:edit ")).isTrue();
+    assertThat(POLICY.hasPermission(instructor, "course:delete")).isFalse();
+  }
+
+  @Test
+  void trimsRoleNames() {
+    UserContext admin = user("admin");
+
+    assertThat(POLICY.hasRole(admin, " student ")).isTrue();
+    assertThat(POLICY.hasAnyRole(user("moderator"), " moderator")).isTrue();
+    assertThat(AuthorizationPolicy.EMPTY.hasRole(admin, "admin ")).isTrue();
+    assertThat(POLICY.hasRole(admin, null)).isFalse();
+  }
+
+  @Test
+  void toleratesCycles() {
+    AuthorizationPolicy policy =
+        AuthorizationPolicy.compile(
+            Map.of("a", List.of("b"), "b", List.of("c"), "c", List.of("a")),
+            Map.of("c", List.of("p")));
+
+    for (String role : List.of("a", "b", "c")) {
+      UserContext user = user(role);
+      assertThat(policy.hasAllRoles(user, "a", "b", "c")).isTrue();
+      assertThat(policy.hasPermission(user, "p")).isTrue();
+    }
+  }
+
+  @Test
+  void supportsMoreThanSixtyFourRoles() {
+    Map<String, List<String>> hierarchy = new HashMap<>();
+    for (int i = 0; i < 99; i++) {
+      hierarchy.put("r" + i, List.of("r" + (i + 1)));
+    }
+    AuthorizationPolicy policy =
+        AuthorizationPolicy.compile(hierarchy, Map.of("r99", List.of("last")));
+
+    assertThat(policy.getRoleCount()).isEqualTo(100);
+    assertThat(policy.hasRole(user("r0"), "r99")).isTrue();
+    assertThat(policy.hasPermission(user("r0"), "last")).isTrue();
+    assertThat(policy.hasRole(user("r70"), "r64")).isFalse();
+    assertThat(policy.hasRole(user("r70"), "r99")).isTrue();
+    assertThat(policy.hasPermission(user("r64"), "last")).isTrue();
+  }
+
+  @Test
+  void prefixedUserRoleAlsoHoldsBareRole() {
+    UserContext prefixed = user("ROLE_instructor");
+
+    assertThat(POLICY.hasRole(prefixed, "student")).isTrue();
+    assertThat(POLICY.hasPermission(prefixed, "course:edit")).isTrue();
+  }
+
+  @Test
+  void bareAndPrefixedPolicyRolesStayDistinct() {
+    AuthorizationPolicy policy =
+        AuthorizationPolicy.compile(
+            Map.of("ROLE_admin", List.of("auditor")), Map.of("auditor", List.of("audit:read")));
+
+    assertThat(policy.hasRole(user("ROLE_admin"), "auditor")).isTrue();
+    assertThat(policy.hasRole(user("admin"), "auditor")).isFalse();
+    assertThat(policy.hasPermission(user("admin"), "audit:read")).isFalse();
+    assertThat(policy.hasRole(user("admin"), "ROLE_admin")).isFalse();
+    assertThat(policy.hasRole(user("ROLE_admin"), "admin")).isTrue();
+  }
+
+  @Test
+  void emptyPolicyFallsBackToMembership() {
+    UserContext admin = user("ROLE_admin");
+
+    assertThat(AuthorizationPolicy.EMPTY.isEmpty()).isTrue();
+    assertThat(AuthorizationPolicy.EMPTY.hasRole(admin, "admin")).isTrue();
+    assertThat(AuthorizationPolicy.EMPTY.hasRole(admin, "staff")).isFalse();
+    assertThat(AuthorizationPolicy.EMPTY.hasPermission(admin, "course:view")).isFalse();
+  }
+
+  @Test
+  void rolesOutsideTheHierarchyKeepMembership() {
+    UserContext user = user("moderator");
+
+    assertThat(POLICY.hasRole(user, "moderator")).isTrue();
+    assertThat(POLICY.hasRole(user, "student")).isFalse();
+    assertThat(POLICY.hasRole(null, "student")).isFalse();
+  }
+
+  @Test
+  void regrantsAfterReload() {
+    MockEnvironment environment = new MockEnvironment();
+    environment.setProperty("security.authorization.role-hierarchy.staff[0]", "student");
+    AuthorizationPolicyHolder holder =
+        new AuthorizationPolicyHolder(new SecurityClientProperties(), environment);
+    UserContext staff = user("staff");
+    assertThat(holder.get().hasRole(staff, "student")).isTrue();
+
+    environment.setProperty("security.authorization.role-hierarchy.staff[0]", "instructor");
+    holder.reload();
+
+    assertThat(holder.get().hasRole(staff, "student")).isFalse();
+    assertThat(holder.get().hasRole(staff, "instructor")).isTrue();
+  }
+
+  private static UserContext user(String role) {
+    return UserContext.builder().userId("user-1").roles(Set.of(role)).authenticated(true).build();
+  }
+}
@@ -0,0 +1,77 @@
+package vn.vinaacademy.security.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class InMemorySecondLevelCacheTest {
+  private static final byte[] VALUE = "value".getBytes(StandardCharsets.UTF_8);
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @Test
+  void conformsToTheSecondLevelCacheContract() {
+    SecondLevelCacheConformance.verify(new InMemorySecondLevelCache());
+  }
+
+  @Test
+  void removesExpiredEntriesThatAreNeverRead() {
+    InMemorySecondLevelCache cache =
+        new InMemorySecondLevelCache(100, Duration.ofMinutes(5), ticker);
+    for (int i = 0; i < 50; i++) {
+      cache.put("token:" + i, VALUE, Duration.ofMinutes(5)).join();
+    }
+    cache.put("short", VALUE, Duration.ofSeconds(10)).join();
+    assertThat(cache.size()).isEqualTo(51);
+
+    nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void honorsShorterTtlOnRead() {
+    InMemorySecondLevelCache cache =
+        new InMemorySecondLevelCache(100, Duration.ofMinutes(5), ticker);
+    cache.put("short", VALUE, Duration.ofSeconds(10)).join();
+
+    nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+
+    assertThat(cache.get("short").join()).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void capsTtlAtTheMaximum() {
+    InMemorySecondLevelCache cache =
+        new InMemorySecondLevelCache(100, Duration.ofMinutes(5), ticker);
+    cache.put("long", VALUE, Duration.ofDays(1)).join();
+
+    nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+    assertThat(cache.get("long").join()).isNull();
+  }
+
+  @Test
+  void boundsTheNumberOfEntries() {
+    InMemorySecondLevelCache cache =
+        new InMemorySecondLevelCache(10, Duration.ofMinutes(5), ticker);
+    for (int i = 0; i < 1_000; i++) {
+      cache.put("user:" + i, VALUE, Duration.ofMinutes(5)).join();
+    }
+
+    assertThat(cache.size()).isLessThanOrEqualTo(10);
+    assertThat(cache.get("user:999").join()).isEqualTo(VALUE);
+  }
+}
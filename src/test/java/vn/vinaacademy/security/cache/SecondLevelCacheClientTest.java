@@ -0,0 +1,51 @@
+package vn.vinaacademy.security.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class SecondLevelCacheClientTest {
+  private static final ValidateTokenResponse ALICE =
+      ValidateTokenResponse.newBuilder().setIsValid(true).setUserId("alice").build();
+  private static final ValidateTokenResponse BOB =
+      ValidateTokenResponse.newBuilder().setIsValid(true).setUserId("bob").build();
+
+  private SecondLevelCacheClient client;
+
+  @BeforeEach
+  void setUp() {
+    client =
+        new SecondLevelCacheClient(
+            new InMemorySecondLevelCache(),
+            new SecurityClientProperties(),
+            new SecurityClientMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void sharesValidResponsesOnly() {
+    client.putValidation("h1", 0, ALICE);
+    client.putValidation("h2", 0, ValidateTokenResponse.newBuilder().setIsValid(false).build());
+
+    assertThat(client.getValidation("h1")).isEqualTo(ALICE);
+    assertThat(client.getValidation("h2")).isNull();
+  }
+
+  @Test
+  void evictUserHidesTheirSharedValidations() {
+    client.putValidation("h1", 0, ALICE);
+    client.putValidation("h2", 0, BOB);
+    client.putUser(UserInfo.newBuilder().setId("alice").build());
+
+    client.evictUser("alice");
+
+    assertThat(client.getValidation("h1")).isNull();
+    assertThat(client.getValidation("h2")).isEqualTo(BOB);
+    assertThat(client.getUser("alice")).isNull();
+  }
+}
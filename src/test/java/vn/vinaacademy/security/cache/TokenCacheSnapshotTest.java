@@ -0,0 +1,186 @@
+package vn.vinaacademy.security.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.grpc.RevokedToken;
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.revocation.TokenRevocationList;
+import vn.vinaacademy.security.token.JwtTokens;
+
+class TokenCacheSnapshotTest {
+  private static final String FIRST = JwtTokens.hash("first-token");
+  private static final String SECOND = JwtTokens.hash("second-token");
+
+  /** Offset of the expiry of the first entry: magic, version, written-at, count, hash */
+  private static final int FIRST_EXPIRY_OFFSET = 4 + 4 + 8 + 4 + 32;
+
+  @TempDir Path directory;
+
+  private SecurityClientProperties properties;
+  private SecurityClientMetrics metrics;
+  private long expiresAt;
+
+  @BeforeEach
+  void setUp() {
+    properties = new SecurityClientProperties();
+    properties.getTokenCache().setSnapshotPath(directory.resolve("token-cache.bin").toString());
+    metrics = new SecurityClientMetrics(new SimpleMeterRegistry());
+    expiresAt = Instant.now().getEpochSecond() + 3600;
+  }
+
+  @Test
+  void restoresSavedEntries() {
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    source.put(SECOND, expiresAt, valid("user-2"));
+    assertThat(snapshot(source).save()).isEqualTo(2);
+
+    TokenValidationCache target = cache();
+    assertThat(snapshot(target).load()).isEqualTo(2);
+
+    assertThat(target.get(FIRST).getUserId()).isEqualTo("user-1");
+    assertThat(target.get(SECOND).getUserId()).isEqualTo("user-2");
+  }
+
+  @Test
+  void ignoresCorruptFile() throws Exception {
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    snapshot(source).save();
+    Path file = snapshotFile();
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[FIRST_EXPIRY_OFFSET + 12] ^= 0x01;
+    Files.write(file, bytes);
+
+    TokenValidationCache target = cache();
+
+    assertThat(snapshot(target).load()).isZero();
+    assertThat(target.size()).isZero();
+  }
+
+  @Test
+  void dropsExpiredEntries() throws Exception {
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    source.put(SECOND, expiresAt, valid("user-2"));
+    snapshot(source).save();
+    rewriteFirstExpiry(Instant.now().getEpochSecond() - 1);
+
+    TokenValidationCache target = cache();
+
+    assertThat(snapshot(target).load()).isEqualTo(1);
+    assertThat(target.size()).isEqualTo(1);
+  }
+
+  @Test
+  void doesNotSaveRevokedEntries() {
+    TokenRevocationList revocationList = revocationList();
+    revocationList.apply(revoke(FIRST));
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    source.put(SECOND, expiresAt, valid("user-2"));
+
+    assertThat(snapshot(source, revocationList).save()).isEqualTo(1);
+
+    TokenValidationCache target = cache();
+    snapshot(target).load();
+    assertThat(target.get(FIRST)).isNull();
+    assertThat(target.get(SECOND)).isNotNull();
+  }
+
+  @Test
+  void holdsRestoreUntilFirstRevocationSync() throws Exception {
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    source.put(SECOND, expiresAt, valid("user-2"));
+    snapshot(source).save();
+    TokenRevocationList revocationList = revocationList();
+    TokenValidationCache target = cache();
+
+    CompletableFuture<Integer> loaded =
+        CompletableFuture.supplyAsync(snapshot(target, revocationList)::load);
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertThat(loaded).isNotDone();
+    assertThat(target.size()).isZero();
+
+    // Revoked while the pod was down
+    revocationList.apply(revoke(FIRST));
+
+    assertThat(loaded.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(target.get(FIRST)).isNull();
+    assertThat(target.get(SECOND)).isNotNull();
+  }
+
+  @Test
+  void dropsSnapshotWhenRevocationListNeverSyncs() {
+    properties.getTokenCache().setSnapshotSyncTimeout(0);
+    TokenValidationCache source = cache();
+    source.put(FIRST, expiresAt, valid("user-1"));
+    snapshot(source).save();
+    TokenValidationCache target = cache();
+
+    assertThat(snapshot(target, revocationList()).load()).isZero();
+    assertThat(target.size()).isZero();
+  }
+
+  private TokenValidationCache cache() {
+    return new TokenValidationCache(properties, metrics);
+  }
+
+  private TokenCacheSnapshot snapshot(TokenValidationCache cache) {
+    return new TokenCacheSnapshot(cache, properties);
+  }
+
+  private TokenCacheSnapshot snapshot(
+      TokenValidationCache cache, TokenRevocationList revocationList) {
+    TokenCacheSnapshot snapshot = snapshot(cache);
+    ReflectionTestUtils.setField(snapshot, "revocationList", revocationList);
+    return snapshot;
+  }
+
+  private TokenRevocationList revocationList() {
+    return new TokenRevocationList(metrics);
+  }
+
+  private Path snapshotFile() {
+    return Path.of(properties.getTokenCache().getSnapshotPath());
+  }
+
+  /** Change the expiry of the first entry and reseal the file with a matching checksum */
+  private void rewriteFirstExpiry(long newExpiry) throws Exception {
+    Path file = snapshotFile();
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    buffer.putLong(FIRST_EXPIRY_OFFSET, newExpiry);
+    int end = buffer.capacity() - 8;
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, end);
+    buffer.putLong(end, crc.getValue());
+    Files.write(file, buffer.array());
+  }
+
+  private RevokedTokensResponse revoke(String tokenHash) {
+    return RevokedTokensResponse.newBuilder()
+        .setVersion(1)
+        .addTokens(RevokedToken.newBuilder().setTokenHash(tokenHash).setExpiresAt(expiresAt))
+        .build();
+  }
+
+  private static ValidateTokenResponse valid(String userId) {
+    return ValidateTokenResponse.newBuilder().setIsValid(true).setUserId(userId).build();
+  }
+}
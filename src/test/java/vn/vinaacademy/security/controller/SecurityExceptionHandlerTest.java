@@ -0,0 +1,82 @@
+package vn.vinaacademy.security.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vn.vinaacademy.security.exception.AccessDeniedException;
+import vn.vinaacademy.security.exception.AuthenticationException;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+
+class SecurityExceptionHandlerTest {
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() {
+    client =
+        WebTestClient.bindToController(new FailingController())
+            .controllerAdvice(new SecurityExceptionHandler())
+            .build();
+  }
+
+  @Test
+  void mapsReactiveAuthenticationErrorTo401() {
+    client
+        .get()
+        .uri("/unauthenticated")
+        .exchange()
+        .expectStatus()
+        .isUnauthorized()
+        .expectBody()
+        .jsonPath("$.error")
+        .isEqualTo("Authentication Required");
+  }
+
+  @Test
+  void mapsReactiveAccessDeniedTo403() {
+    client
+        .get()
+        .uri("/denied")
+        .exchange()
+        .expectStatus()
+        .isForbidden()
+        .expectBody()
+        .jsonPath("$.message")
+        .isEqualTo("Missing role");
+  }
+
+  @Test
+  void mapsShedCallTo503WithRetryAfter() {
+    client
+        .get()
+        .uri("/shed")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(503)
+        .expectHeader()
+        .valueEquals(HttpHeaders.RETRY_AFTER, "2");
+  }
+
+  @RestController
+  static class FailingController {
+
+    @GetMapping("/unauthenticated")
+    Mono<String> unauthenticated() {
+      return Mono.error(new AuthenticationException("Authentication required"));
+    }
+
+    @GetMapping("/denied")
+    Flux<String> denied() {
+      return Flux.error(new AccessDeniedException("Missing role"));
+    }
+
+    @GetMapping("/shed")
+    Mono<String> shed() {
+      return Mono.error(new ServiceUnavailableException("overloaded", 2));
+    }
+  }
+}
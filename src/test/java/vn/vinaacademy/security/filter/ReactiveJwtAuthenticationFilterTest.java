@@ -0,0 +1,116 @@
+package vn.vinaacademy.security.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import vn.vinaacademy.security.authentication.ReactiveSecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.route.AuthMode;
+
+class ReactiveJwtAuthenticationFilterTest {
+  private TokenAuthenticationService authenticationService;
+  private SecurityClientProperties properties;
+  private AtomicReference<UserContext> seen;
+  private AtomicBoolean called;
+  private WebFilterChain chain;
+
+  @BeforeEach
+  void setUp() {
+    authenticationService = mock(TokenAuthenticationService.class);
+    properties = new SecurityClientProperties();
+    seen = new AtomicReference<>();
+    called = new AtomicBoolean();
+    chain =
+        exchange ->
+            Mono.deferContextual(
+                context -> {
+                  called.set(true);
+                  seen.set(ReactiveSecurityContextHolder.getContext(context));
+                  return Mono.empty();
+                });
+  }
+
+  @Test
+  void writesValidatedUserToReactorContext() {
+    UserContext user = UserContext.builder().userId("user-1").authenticated(true).build();
+    when(authenticationService.authenticate("abc")).thenReturn(user);
+
+    MockServerWebExchange exchange = exchange(bearer("/api/courses", "abc"));
+    filter().filter(exchange, chain).block();
+
+    assertThat(called).isTrue();
+    assertThat(seen.get()).isSameAs(user);
+  }
+
+  @Test
+  void passesAnonymousRequestsWithoutContext() {
+    filter().filter(exchange(MockServerHttpRequest.get("/api/courses")), chain).block();
+
+    assertThat(called).isTrue();
+    assertThat(seen.get()).isNull();
+  }
+
+  @Test
+  void rejectsAnonymousRequestOnRequiredRoute() {
+    properties.getFilter().setDefaultMode(AuthMode.REQUIRED);
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/courses"));
+
+    filter().filter(exchange, chain).block();
+
+    assertThat(called).isFalse();
+    assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+        .isEqualTo("Bearer");
+  }
+
+  @Test
+  void skipsBuiltInRoutesWithoutAuthenticating() {
+    filter().filter(exchange(bearer("/actuator/health", "abc")), chain).block();
+
+    assertThat(called).isTrue();
+    verify(authenticationService, never()).authenticate(any());
+  }
+
+  @Test
+  void answersServiceUnavailableWhenValidationIsShed() {
+    when(authenticationService.authenticate("abc"))
+        .thenThrow(new ServiceUnavailableException("overloaded", 2));
+    MockServerWebExchange exchange = exchange(bearer("/api/courses", "abc"));
+
+    filter().filter(exchange, chain).block();
+
+    assertThat(called).isFalse();
+    assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+        .isEqualTo("2");
+  }
+
+  private ReactiveJwtAuthenticationFilter filter() {
+    return new ReactiveJwtAuthenticationFilter(authenticationService, properties);
+  }
+
+  private static MockServerHttpRequest.BaseBuilder<?> bearer(String path, String token) {
+    return MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return MockServerWebExchange.from(request);
+  }
+}
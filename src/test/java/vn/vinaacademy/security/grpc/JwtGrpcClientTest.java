@@ -0,0 +1,111 @@
+package vn.vinaacademy.security.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.grpc.JwtServiceGrpc;
+import com.vinaacademy.grpc.TokenRequest;
+import com.vinaacademy.grpc.ValidateTokenResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+
+class JwtGrpcClientTest {
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicBoolean unavailable = new AtomicBoolean();
+
+  private Server server;
+  private ManagedChannel channel;
+  private JwtGrpcClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    server =
+        InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new JwtService())
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    GrpcChannelFactory channelFactory = mock(GrpcChannelFactory.class);
+    when(channelFactory.getAuthChannel()).thenReturn(channel);
+    client =
+        new JwtGrpcClient(channelFactory, new SecurityClientMetrics(new SimpleMeterRegistry()));
+    SecurityContextHolder.enableLookupMemo();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void validatesEachTokenOncePerRequest() {
+    assertThat(client.validateToken("good").getIsValid()).isTrue();
+    assertThat(client.validateToken("good").getIsValid()).isTrue();
+    assertThat(client.validateToken("bad").getIsValid()).isFalse();
+    assertThat(client.validateToken("bad").getIsValid()).isFalse();
+
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  void doesNotMemoizeFailedCalls() {
+    unavailable.set(true);
+    TokenValidation failed = client.validate("good");
+    assertThat(failed.isVerdict()).isFalse();
+
+    unavailable.set(false);
+    assertThat(client.validate("good").response().getIsValid()).isTrue();
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  void forgetsValidationsWhenTheContextIsCleared() {
+    client.validateToken("good");
+
+    SecurityContextHolder.clearContext();
+    client.validateToken("good");
+    SecurityContextHolder.enableLookupMemo();
+    client.validateToken("good");
+
+    assertThat(calls).hasValue(3);
+  }
+
+  private class JwtService extends JwtServiceGrpc.JwtServiceImplBase {
+
+    @Override
+    public void validateToken(
+        TokenRequest request, StreamObserver<ValidateTokenResponse> observer) {
+      calls.incrementAndGet();
+      if (unavailable.get()) {
+        observer.onError(Status.UNAVAILABLE.asRuntimeException());
+        return;
+      }
+      boolean valid = request.getToken().equals("good");
+      observer.onNext(
+          ValidateTokenResponse.newBuilder()
+              .setIsValid(valid)
+              .setUserId(valid ? "user-1" : "")
+              .build());
+      observer.onCompleted();
+    }
+  }
+}
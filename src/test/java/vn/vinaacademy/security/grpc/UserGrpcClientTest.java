@@ -0,0 +1,146 @@
+package vn.vinaacademy.security.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.grpc.GetUserByIdRequest;
+import com.vinaacademy.grpc.GetUserByIdResponse;
+import com.vinaacademy.grpc.GetUserByIdsRequest;
+import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.UserInfo;
+import com.vinaacademy.grpc.UserServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+
+class UserGrpcClientTest {
+  private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean failing = new AtomicBoolean();
+
+  private Server server;
+  private ManagedChannel channel;
+  private UserGrpcClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    server =
+        InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new UserService())
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    GrpcChannelFactory channelFactory = mock(GrpcChannelFactory.class);
+    when(channelFactory.getAuthChannel()).thenReturn(channel);
+    when(channelFactory.getChannel(any())).thenReturn(channel);
+    client =
+        new UserGrpcClient(channelFactory, new SecurityClientMetrics(new SimpleMeterRegistry()));
+    SecurityContextHolder.enableLookupMemo();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void servesRepeatedLookupsFromTheMemo() {
+    client.getUserByIds(List.of("u1", "u2"));
+
+    GetUserByIdsResponse response = client.getUserByIds(List.of("u2", "u1"));
+
+    assertThat(response.getSuccess()).isTrue();
+    assertThat(response.getUsersList()).extracting(UserInfo::getId).containsExactly("u2", "u1");
+    assertThat(client.getUserById("u1").getUser().getId()).isEqualTo("u1");
+    assertThat(requests).containsExactly(List.of("u1", "u2"));
+  }
+
+  @Test
+  void requestsOnlyIdsMissingFromTheMemo() {
+    client.getUserById("u1");
+
+    GetUserByIdsResponse response = client.getUserByIds(List.of("u1", "u2", "u3"));
+
+    assertThat(response.getUsersList())
+        .extracting(UserInfo::getId)
+        .containsExactly("u1", "u2", "u3");
+    assertThat(requests).containsExactly(List.of("u1"), List.of("u2", "u3"));
+  }
+
+  @Test
+  void doesNotMemoizeFailedLookups() {
+    failing.set(true);
+    assertThat(client.getUserByIds(List.of("u1")).getSuccess()).isFalse();
+    assertThat(client.getUserById("u2").getSuccess()).isFalse();
+
+    failing.set(false);
+    assertThat(client.getUserByIds(List.of("u1")).getSuccess()).isTrue();
+    assertThat(client.getUserById("u2").getSuccess()).isTrue();
+
+    assertThat(requests)
+        .containsExactly(List.of("u1"), List.of("u2"), List.of("u1"), List.of("u2"));
+  }
+
+  @Test
+  void forgetsLookupsWhenTheContextIsCleared() {
+    client.getUserById("u1");
+
+    SecurityContextHolder.clearContext();
+    client.getUserById("u1");
+    SecurityContextHolder.enableLookupMemo();
+    client.getUserById("u1");
+
+    assertThat(requests).containsExactly(List.of("u1"), List.of("u1"), List.of("u1"));
+  }
+
+  private class UserService extends UserServiceGrpc.UserServiceImplBase {
+
+    @Override
+    public void getUserById(
+        GetUserByIdRequest request, StreamObserver<GetUserByIdResponse> observer) {
+      requests.add(List.of(request.getUserId()));
+      GetUserByIdResponse.Builder response =
+          GetUserByIdResponse.newBuilder().setSuccess(!failing.get());
+      if (!failing.get()) {
+        response.setUser(user(request.getUserId()));
+      }
+      observer.onNext(response.build());
+      observer.onCompleted();
+    }
+
+    @Override
+    public void getUserByIds(
+        GetUserByIdsRequest request, StreamObserver<GetUserByIdsResponse> observer) {
+      requests.add(List.copyOf(request.getUserIdsList()));
+      GetUserByIdsResponse.Builder response =
+          GetUserByIdsResponse.newBuilder().setSuccess(!failing.get());
+      if (!failing.get()) {
+        request.getUserIdsList().forEach(id -> response.addUsers(user(id)));
+      }
+      observer.onNext(response.build());
+      observer.onCompleted();
+    }
+  }
+
+  private static UserInfo user(String id) {
+    return UserInfo.newBuilder().setId(id).setEmail(id + "@example.com").build();
+  }
+}
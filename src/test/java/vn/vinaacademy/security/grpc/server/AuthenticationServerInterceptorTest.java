@@ -0,0 +1,135 @@
+package vn.vinaacademy.security.grpc.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.authentication.SecurityContextHolder;
+import vn.vinaacademy.security.authentication.TokenAuthenticationService;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.route.AuthMode;
+
+class AuthenticationServerInterceptorTest {
+  private static final Metadata.Key<String> AUTHORIZATION =
+      Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+  private TokenAuthenticationService authenticationService;
+  private SecurityClientProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    authenticationService = mock(TokenAuthenticationService.class);
+    properties = new SecurityClientProperties();
+  }
+
+  @Test
+  void bindsAuthenticatedUserToGrpcContextAndHolder() {
+    UserContext user = UserContext.builder().userId("user-1").authenticated(true).build();
+    when(authenticationService.authenticate("abc")).thenReturn(user);
+    AtomicReference<UserContext> grpcUser = new AtomicReference<>();
+    AtomicReference<UserContext> heldUser = new AtomicReference<>();
+    ServerCallHandler<String, String> next =
+        (call, headers) -> {
+          grpcUser.set(GrpcSecurityContext.current());
+          heldUser.set(SecurityContextHolder.getContext());
+          return new ServerCall.Listener<>() {};
+        };
+
+    interceptor().interceptCall(call("pkg.Courses/Get"), bearer("abc"), next);
+
+    assertThat(grpcUser.get()).isSameAs(user);
+    assertThat(heldUser.get()).isSameAs(user);
+  }
+
+  @Test
+  void rejectsAnonymousCallToRequiredMethod() {
+    properties.getGrpcServer().getMethods().put("pkg.Courses/*", AuthMode.REQUIRED);
+    ServerCall<String, String> call = call("pkg.Courses/Get");
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<String, String> next = mock(ServerCallHandler.class);
+
+    interceptor().interceptCall(call, new Metadata(), next);
+
+    verify(call).close(argThat(status -> status.getCode() == Status.Code.UNAUTHENTICATED), any());
+    verify(next, never()).startCall(any(), any());
+  }
+
+  @Test
+  void rejectsInvalidTokenOnRequiredMethod() {
+    properties.getGrpcServer().setDefaultMode(AuthMode.REQUIRED);
+    when(authenticationService.authenticate("bad"))
+        .thenReturn(UserContext.builder().token("bad").authenticated(false).build());
+    ServerCall<String, String> call = call("pkg.Courses/Get");
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<String, String> next = mock(ServerCallHandler.class);
+
+    interceptor().interceptCall(call, bearer("bad"), next);
+
+    verify(call).close(argThat(status -> status.getCode() == Status.Code.UNAUTHENTICATED), any());
+    verify(next, never()).startCall(any(), any());
+  }
+
+  @Test
+  void skipsHealthServiceWithoutAuthenticating() {
+    properties.getGrpcServer().setDefaultMode(AuthMode.REQUIRED);
+    ServerCall<String, String> call = call("grpc.health.v1.Health/Check");
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<String, String> next = mock(ServerCallHandler.class);
+
+    interceptor().interceptCall(call, bearer("abc"), next);
+
+    verify(next).startCall(any(), any());
+    verify(authenticationService, never()).authenticate(any());
+  }
+
+  @Test
+  void methodRuleOverridesServiceRule() {
+    properties.getGrpcServer().getMethods().put("pkg.Courses/*", AuthMode.REQUIRED);
+    properties.getGrpcServer().getMethods().put("pkg.Courses/List", AuthMode.OPTIONAL);
+    ServerCall<String, String> call = call("pkg.Courses/List");
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<String, String> next = mock(ServerCallHandler.class);
+
+    interceptor().interceptCall(call, new Metadata(), next);
+
+    verify(next).startCall(any(), any());
+    verify(call, never()).close(any(), any());
+  }
+
+  private AuthenticationServerInterceptor interceptor() {
+    return new AuthenticationServerInterceptor(authenticationService, properties);
+  }
+
+  private static Metadata bearer(String token) {
+    Metadata headers = new Metadata();
+    headers.put(AUTHORIZATION, "Bearer " + token);
+    return headers;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ServerCall<String, String> call(String fullMethodName) {
+    MethodDescriptor<String, String> method =
+        MethodDescriptor.<String, String>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName(fullMethodName)
+            .setRequestMarshaller(mock(MethodDescriptor.Marshaller.class))
+            .setResponseMarshaller(mock(MethodDescriptor.Marshaller.class))
+            .build();
+    ServerCall<String, String> call = mock(ServerCall.class);
+    when(call.getMethodDescriptor()).thenReturn(method);
+    return call;
+  }
+}
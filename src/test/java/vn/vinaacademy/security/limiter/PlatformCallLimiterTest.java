@@ -0,0 +1,196 @@
+package vn.vinaacademy.security.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static vn.vinaacademy.security.config.grpc.TrafficClass.BULK;
+import static vn.vinaacademy.security.config.grpc.TrafficClass.VALIDATION;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.vinaacademy.security.config.grpc.GrpcChannelFactory;
+import vn.vinaacademy.security.exception.ServiceUnavailableException;
+import vn.vinaacademy.security.grpc.JwtGrpcClient;
+import vn.vinaacademy.security.grpc.TokenValidation;
+import vn.vinaacademy.security.grpc.UserGrpcClient;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class PlatformCallLimiterTest {
+  private static final long SECOND = 1_000_000_000L;
+
+  private MeterRegistry registry;
+  private SecurityClientMetrics metrics;
+  private SecurityClientProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new SecurityClientMetrics(registry);
+    properties = new SecurityClientProperties();
+    properties.getLimiter().setMinLimit(2);
+    properties.getLimiter().setMaxLimit(6);
+    properties.getLimiter().setBackoffRatio(0.5);
+    properties.getLimiter().setRetryAfter(3);
+  }
+
+  @Test
+  void rejectsCallsOverTheLimitWithRetryAfter() {
+    properties.getLimiter().setInitialLimit(2);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    limiter.acquire(VALIDATION);
+    limiter.acquire(VALIDATION);
+
+    assertThatThrownBy(() -> limiter.acquire(VALIDATION))
+        .isInstanceOfSatisfying(
+            ServiceUnavailableException.class,
+            e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+    assertThat(limiter.getInFlight(VALIDATION)).isEqualTo(2);
+    assertThat(
+            registry
+                .get("security.client.limiter.rejected")
+                .tag("class", "validation")
+                .counter()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            registry.get("security.client.limiter.rejected").tag("class", "bulk").counter().count())
+        .isZero();
+  }
+
+  @Test
+  void growsOnFastCallsWhileBusyUpToMax() {
+    properties.getLimiter().setInitialLimit(4);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    for (int i = 0; i < 5; i++) {
+      long first = limiter.acquire(VALIDATION);
+      long second = limiter.acquire(VALIDATION);
+      long third = limiter.acquire(VALIDATION);
+      limiter.release(VALIDATION, first, null);
+      limiter.release(VALIDATION, second, null);
+      limiter.release(VALIDATION, third, null);
+    }
+
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(6);
+    assertThat(limiter.getInFlight(VALIDATION)).isZero();
+  }
+
+  @Test
+  void keepsLimitWhenMostlyIdle() {
+    properties.getLimiter().setInitialLimit(4);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    limiter.release(VALIDATION, limiter.acquire(VALIDATION), null);
+
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(4);
+  }
+
+  @Test
+  void shrinksOnSlowCallsDownToMin() {
+    properties.getLimiter().setInitialLimit(6);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    limiter.release(VALIDATION, limiter.acquire(VALIDATION) - SECOND, null);
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(3);
+
+    limiter.release(VALIDATION, limiter.acquire(VALIDATION) - SECOND, null);
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(2);
+  }
+
+  @Test
+  void shrinksOnCongestionFailuresOnly() {
+    properties.getLimiter().setInitialLimit(6);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    limiter.release(
+        VALIDATION, limiter.acquire(VALIDATION), Status.INVALID_ARGUMENT.asRuntimeException());
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(6);
+
+    limiter.release(
+        VALIDATION, limiter.acquire(VALIDATION), Status.UNAVAILABLE.asRuntimeException());
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(3);
+
+    limiter.release(
+        VALIDATION, limiter.acquire(VALIDATION), Status.DEADLINE_EXCEEDED.asRuntimeException());
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(2);
+  }
+
+  @Test
+  void slowBulkCallsLeaveValidationLimitAlone() {
+    properties.getLimiter().setInitialLimit(6);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+
+    limiter.release(BULK, limiter.acquire(BULK) - SECOND, null);
+    limiter.release(BULK, limiter.acquire(BULK), Status.UNAVAILABLE.asRuntimeException());
+
+    assertThat(limiter.getLimit(BULK)).isEqualTo(2);
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(6);
+    assertThat(registry.get("security.client.limiter.limit").tag("class", "bulk").gauge().value())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void fullBulkLaneDoesNotShedValidation() {
+    properties.getLimiter().setInitialLimit(2);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+    limiter.acquire(BULK);
+    limiter.acquire(BULK);
+
+    assertThatThrownBy(() -> limiter.acquire(BULK))
+        .isInstanceOf(ServiceUnavailableException.class);
+    limiter.release(VALIDATION, limiter.acquire(VALIDATION), null);
+    assertThat(limiter.getInFlight(BULK)).isEqualTo(2);
+    assertThat(limiter.getInFlight(VALIDATION)).isZero();
+  }
+
+  @Test
+  void clampsLimitOverride() {
+    properties.getLimiter().setInitialLimit(100);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(6);
+
+    limiter.setLimit(VALIDATION, 0);
+    assertThat(limiter.getLimit(VALIDATION)).isEqualTo(2);
+  }
+
+  @Test
+  void shedCallsBecomeFailureResponsesWithoutTouchingTheChannel() {
+    properties.getLimiter().setInitialLimit(2);
+    PlatformCallLimiter limiter = new PlatformCallLimiter(properties, metrics);
+    limiter.acquire(VALIDATION);
+    limiter.acquire(VALIDATION);
+    limiter.acquire(BULK);
+    limiter.acquire(BULK);
+    GrpcChannelFactory channelFactory = mock(GrpcChannelFactory.class);
+    JwtGrpcClient jwtClient = new JwtGrpcClient(channelFactory, metrics);
+    UserGrpcClient userClient = new UserGrpcClient(channelFactory, metrics);
+    ReflectionTestUtils.setField(jwtClient, "limiter", limiter);
+    ReflectionTestUtils.setField(userClient, "limiter", limiter);
+
+    TokenValidation validation = jwtClient.validate("token");
+
+    assertThat(validation.isVerdict()).isFalse();
+    assertThat(validation.failure()).isInstanceOf(ServiceUnavailableException.class);
+    assertThat(validation.response().getIsValid()).isFalse();
+    assertThat(userClient.getUserById("user-1").getSuccess()).isFalse();
+    assertThat(userClient.getUserByIds(List.of("user-1", "user-2")).getSuccess()).isFalse();
+    verifyNoInteractions(channelFactory);
+    assertThat(limiter.getInFlight(VALIDATION)).isEqualTo(2);
+    assertThat(limiter.getInFlight(BULK)).isEqualTo(2);
+    assertThat(
+            registry
+                .get("security.client.token.validation")
+                .tag("outcome", SecurityClientMetrics.OUTCOME_SHED)
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+}
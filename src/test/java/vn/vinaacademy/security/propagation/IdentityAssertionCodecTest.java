@@ -0,0 +1,169 @@
+package vn.vinaacademy.security.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+import vn.vinaacademy.security.token.JwtTokens;
+
+class IdentityAssertionCodecTest {
+  private static final String KEY = key('a');
+  private static final String TOKEN = token("{\"sub\":\"user-1\",\"jti\":\"abc\"}");
+
+  @Test
+  void roundTripsIdentityAndTokenReference() {
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config("k1", KEY));
+
+    UserContext decoded = codec.decode(codec.encode(user()));
+
+    assertThat(decoded).isNotNull();
+    assertThat(decoded.isAuthenticated()).isTrue();
+    assertThat(decoded.getUserId()).isEqualTo("user-1");
+    assertThat(decoded.getEmail()).isEqualTo("user@example.com");
+    assertThat(decoded.getRoles()).containsExactlyInAnyOrder("ROLE_student", "reviewer");
+    assertThat(decoded.getToken()).isNull();
+    assertThat(decoded.getTokenHash()).isEqualTo(JwtTokens.hash(TOKEN));
+    assertThat(decoded.getTokenId()).isEqualTo("abc");
+  }
+
+  @Test
+  void reSignedAssertionKeepsTokenReference() {
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config("k1", KEY));
+
+    UserContext hop = codec.decode(codec.encode(codec.decode(codec.encode(user()))));
+
+    assertThat(hop.getTokenHash()).isEqualTo(JwtTokens.hash(TOKEN));
+    assertThat(hop.getTokenId()).isEqualTo("abc");
+  }
+
+  @Test
+  void rejectsTamperedPayload() {
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config("k1", KEY));
+    String[] parts = codec.encode(user()).split("\\.");
+    String forged =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(
+                "{\"sub\":\"admin\",\"roles\":[\"ROLE_admin\"],\"iat\":0,\"exp\":9999999999}"
+                    .getBytes(StandardCharsets.UTF_8));
+
+    assertThat(codec.decode(parts[0] + "." + parts[1] + "." + forged + "." + parts[3])).isNull();
+  }
+
+  @Test
+  void rejectsTamperedSignature() {
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config("k1", KEY));
+    String assertion = codec.encode(user());
+    int signature = assertion.lastIndexOf('.') + 1;
+    char first = assertion.charAt(signature);
+    String tampered =
+        assertion.substring(0, signature)
+            + (first == 'A' ? 'B' : 'A')
+            + assertion.substring(signature + 1);
+
+    assertThat(codec.decode(tampered)).isNull();
+  }
+
+  @Test
+  void rejectsUnknownKeyAndMalformedAssertions() {
+    String assertion = new IdentityAssertionCodec(config("k1", KEY)).encode(user());
+    IdentityAssertionCodec other = new IdentityAssertionCodec(config("k2", key('b')));
+
+    assertThat(other.decode(assertion)).isNull();
+    assertThat(other.decode("garbage")).isNull();
+    assertThat(other.decode("v2.k2.e30.sig")).isNull();
+  }
+
+  @Test
+  void rejectsExpiredAssertion() {
+    SecurityClientProperties.Propagation config = config("k1", KEY);
+    config.setTtl(-60);
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config);
+
+    assertThat(codec.decode(codec.encode(user()))).isNull();
+  }
+
+  @Test
+  void rejectsAssertionOlderThanMaxAge() {
+    SecurityClientProperties.Propagation config = config("k1", KEY);
+    config.setTtl(3600);
+    config.setMaxAge(-60);
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config);
+
+    assertThat(codec.decode(codec.encode(user()))).isNull();
+  }
+
+  @Test
+  void acceptsOnlyTrustedNetworksAndInternalPaths() throws Exception {
+    SecurityClientProperties.Propagation config = config("k1", KEY);
+    config.setTrustedNetworks(List.of("10.0.0.0/8", "fd00::/8", "192.168.1.7"));
+    config.setInternalPaths(List.of("/internal/"));
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config);
+    InetAddress external = InetAddress.getByName("203.0.113.9");
+
+    assertThat(codec.acceptsFrom(InetAddress.getByName("10.20.30.40"), null)).isTrue();
+    assertThat(codec.acceptsFrom(InetAddress.getByName("fd12::1"), null)).isTrue();
+    assertThat(codec.acceptsFrom(InetAddress.getByName("192.168.1.7"), null)).isTrue();
+    assertThat(codec.acceptsFrom(InetAddress.getByName("192.168.1.8"), null)).isFalse();
+    assertThat(codec.acceptsFrom(external, "/api/courses")).isFalse();
+    assertThat(codec.acceptsFrom(external, "/internal")).isTrue();
+    assertThat(codec.acceptsFrom(external, "/internal/users")).isTrue();
+    assertThat(codec.acceptsFrom(external, "/internals")).isFalse();
+    assertThat(codec.acceptsFrom(null, null)).isFalse();
+  }
+
+  @Test
+  void acceptsNothingWithoutTrustSettings() throws Exception {
+    IdentityAssertionCodec codec = new IdentityAssertionCodec(config("k1", KEY));
+
+    assertThat(codec.acceptsFrom(InetAddress.getLoopbackAddress(), "/internal")).isFalse();
+  }
+
+  @Test
+  void rejectsShortKeys() {
+    SecurityClientProperties.Propagation config =
+        config("k1", Base64.getEncoder().encodeToString(new byte[16]));
+
+    assertThatThrownBy(() -> new IdentityAssertionCodec(config))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static UserContext user() {
+    return UserContext.builder()
+        .userId("user-1")
+        .email("user@example.com")
+        .roles(Set.of("ROLE_student", "reviewer"))
+        .token(TOKEN)
+        .authenticated(true)
+        .build();
+  }
+
+  private static SecurityClientProperties.Propagation config(String kid, String key) {
+    SecurityClientProperties.Propagation config = new SecurityClientProperties.Propagation();
+    config.setEnabled(true);
+    config.setSigningKeyId(kid);
+    config.setKeys(Map.of(kid, key));
+    return config;
+  }
+
+  private static String key(char fill) {
+    return Base64.getEncoder()
+        .encodeToString(String.valueOf(fill).repeat(32).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static String token(String payload) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8))
+        + "."
+        + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+        + ".sig";
+  }
+}
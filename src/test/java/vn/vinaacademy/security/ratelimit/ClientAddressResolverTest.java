@@ -0,0 +1,49 @@
+package vn.vinaacademy.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class ClientAddressResolverTest {
+
+  @Test
+  void usesRemoteAddressByDefault() {
+    MockHttpServletRequest request = request("10.0.0.9", "198.51.100.1");
+
+    assertThat(resolver(null, 1).resolve(request)).isEqualTo("10.0.0.9");
+  }
+
+  @Test
+  void readsTheEntryAppendedByTheOutermostTrustedProxy() {
+    MockHttpServletRequest request = request("10.0.0.9", "6.6.6.6, 198.51.100.1, 10.0.0.5");
+
+    assertThat(resolver("X-Forwarded-For", 1).resolve(request)).isEqualTo("10.0.0.5");
+    assertThat(resolver("X-Forwarded-For", 2).resolve(request)).isEqualTo("198.51.100.1");
+  }
+
+  @Test
+  void fallsBackWhenTheHeaderIsShortOrMissing() {
+    assertThat(resolver("X-Forwarded-For", 3).resolve(request("10.0.0.9", "198.51.100.1")))
+        .isEqualTo("198.51.100.1");
+    assertThat(resolver("X-Forwarded-For", 1).resolve(request("10.0.0.9", null)))
+        .isEqualTo("10.0.0.9");
+  }
+
+  private static ClientAddressResolver resolver(String header, int trustedProxies) {
+    SecurityClientProperties.RateLimit config = new SecurityClientProperties.RateLimit();
+    config.setForwardedHeader(header);
+    config.setTrustedProxies(trustedProxies);
+    return new ClientAddressResolver(config);
+  }
+
+  private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setRemoteAddr(remoteAddress);
+    if (forwardedFor != null) {
+      request.addHeader("X-Forwarded-For", forwardedFor);
+    }
+    return request;
+  }
+}
@@ -0,0 +1,115 @@
+package vn.vinaacademy.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.authentication.UserContext;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class RequestRateLimiterTest {
+  /** Slow enough that no token is refilled during a test */
+  private static final double RATE = 0.001;
+
+  private MeterRegistry registry;
+  private SecurityClientProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    properties = new SecurityClientProperties();
+    properties.getRateLimit().setEnabled(true);
+    properties.getRateLimit().setUser(new SecurityClientProperties.Limit(RATE, 3));
+    properties.getRateLimit().setAnonymous(new SecurityClientProperties.Limit(RATE, 1));
+  }
+
+  @Test
+  void limitsEachValidatedUserSeparately() {
+    RequestRateLimiter limiter = limiter();
+    UserContext alice = user("alice");
+
+    assertThat(admitted(limiter, alice, "10.0.0.1", 5)).isEqualTo(3);
+    assertThat(limiter.tryAcquire(user("bob"), "10.0.0.1")).isZero();
+    assertThat(rejections(SecurityClientMetrics.RATE_LIMIT_USER)).isEqualTo(2);
+  }
+
+  @Test
+  void unvalidatedRequestsShareTheClientAddressBucket() {
+    RequestRateLimiter limiter = limiter();
+
+    assertThat(limiter.tryAcquire(null, "10.0.0.1")).isZero();
+    assertThat(limiter.tryAcquire(invalid("made-up"), "10.0.0.1")).isPositive();
+    assertThat(limiter.tryAcquire(invalid("other"), "10.0.0.1")).isPositive();
+    assertThat(limiter.tryAcquire(null, "10.0.0.2")).isZero();
+    assertThat(rejections(SecurityClientMetrics.RATE_LIMIT_ANONYMOUS)).isEqualTo(2);
+  }
+
+  @Test
+  void usersGetTheHighestLimitAmongTheirRoles() {
+    properties.getRateLimit().getRoles().put("admin", new SecurityClientProperties.Limit(RATE, 5));
+    properties.getRateLimit().getRoles().put("staff", new SecurityClientProperties.Limit(RATE, 4));
+    RequestRateLimiter limiter = limiter();
+    UserContext admin =
+        UserContext.builder()
+            .userId("root")
+            .roles(Set.of("ROLE_admin", "ROLE_staff"))
+            .authenticated(true)
+            .build();
+
+    assertThat(admitted(limiter, admin, "10.0.0.1", 10)).isEqualTo(5);
+  }
+
+  @Test
+  void userLimitOverrideLeavesPropertiesUntouched() {
+    SecurityClientProperties.Limit configured = properties.getRateLimit().getUser();
+    RequestRateLimiter limiter = limiter();
+
+    limiter.setUserLimit(RATE, 1);
+
+    assertThat(limiter.getUserLimit().getBurst()).isEqualTo(1);
+    assertThat(admitted(limiter, user("alice"), "10.0.0.1", 3)).isEqualTo(1);
+    assertThat(properties.getRateLimit().getUser()).isSameAs(configured);
+    assertThat(configured.getBurst()).isEqualTo(3);
+  }
+
+  @Test
+  void boundsTheNumberOfBuckets() {
+    properties.getRateLimit().setMaxBuckets(10);
+    RequestRateLimiter limiter = limiter();
+
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire(null, "10.0.0." + i);
+    }
+
+    assertThat(limiter.size()).isLessThanOrEqualTo(10);
+  }
+
+  private RequestRateLimiter limiter() {
+    return new RequestRateLimiter(properties, new SecurityClientMetrics(registry));
+  }
+
+  private static int admitted(
+      RequestRateLimiter limiter, UserContext context, String address, int attempts) {
+    int admitted = 0;
+    for (int i = 0; i < attempts; i++) {
+      if (limiter.tryAcquire(context, address) == 0) admitted++;
+    }
+    return admitted;
+  }
+
+  private double rejections(String key) {
+    return registry.get("security.client.rate.limited").tag("key", key).counter().count();
+  }
+
+  private static UserContext user(String id) {
+    return UserContext.builder().userId(id).authenticated(true).build();
+  }
+
+  private static UserContext invalid(String token) {
+    return UserContext.builder().token(token).authenticated(false).build();
+  }
+}
@@ -0,0 +1,204 @@
+package vn.vinaacademy.security.resolve;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.grpc.GetUserByIdsResponse;
+import com.vinaacademy.grpc.UserInfo;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import vn.vinaacademy.security.annotation.ResolveNested;
+import vn.vinaacademy.security.annotation.UserId;
+import vn.vinaacademy.security.grpc.UserGrpcClient;
+
+class UserResolverTest {
+  private UserGrpcClient userGrpcClient;
+  private UserResolver resolver;
+
+  @BeforeEach
+  void setUp() {
+    userGrpcClient = mock(UserGrpcClient.class);
+    when(userGrpcClient.getUserByIds(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<String> ids = invocation.getArgument(0);
+              GetUserByIdsResponse.Builder response = GetUserByIdsResponse.newBuilder();
+              response.setSuccess(true);
+              for (String id : ids) {
+                response.addUsers(UserInfo.newBuilder().setId(id).build());
+              }
+              return response.build();
+            });
+    resolver = new UserResolver(userGrpcClient);
+  }
+
+  @Test
+  void resolvesDtosInsideEnvelopesWithOneLookup() {
+    CourseDto first = new CourseDto("u1");
+    CourseDto second = new CourseDto("u2");
+    ApiResponse<PageDto> response =
+        new ApiResponse<>(new PageDto(List.of(first, second), new CourseDto("u1")));
+
+    resolver.resolve(ResponseEntity.ok(response));
+
+    assertThat(first.instructor.getId()).isEqualTo("u1");
+    assertThat(second.instructor.getId()).isEqualTo("u2");
+    assertThat(response.data.featured.instructor.getId()).isEqualTo("u1");
+    verify(userGrpcClient, times(1)).getUserByIds(anyList());
+  }
+
+  @Test
+  void terminatesOnCyclicReferences() {
+    Node a = new Node("u1");
+    Node b = new Node("u2");
+    a.next = b;
+    b.next = a;
+
+    resolver.resolve(a);
+
+    assertThat(a.user.getId()).isEqualTo("u1");
+    assertThat(b.user.getId()).isEqualTo("u2");
+  }
+
+  @Test
+  void batchesLookups() {
+    resolver.resolve(List.of(new CourseDto("u1"), new CourseDto("u2"), new CourseDto("u3")), 2);
+
+    verify(userGrpcClient, times(2)).getUserByIds(anyList());
+  }
+
+  @Test
+  void skipsNestedObjectsOfUnmarkedClasses() {
+    CourseDto hidden = new CourseDto("u2");
+    CourseView view = new CourseView("u1", new Instructor(List.of(hidden)));
+
+    resolver.resolve(view);
+
+    assertThat(view.owner.getId()).isEqualTo("u1");
+    assertThat(hidden.instructor).isNull();
+    verify(userGrpcClient).getUserByIds(List.of("u1"));
+  }
+
+  @Test
+  void descendsIntoFieldsMarkedResolveNested() {
+    CourseDto reached = new CourseDto("u2");
+    MarkedCourseView view = new MarkedCourseView("u1", new Instructor(List.of(reached)));
+
+    resolver.resolve(view);
+
+    assertThat(reached.instructor.getId()).isEqualTo("u2");
+  }
+
+  @Test
+  void skipsHibernateProxies() {
+    CourseDto proxy = new CourseDto$HibernateProxy$x("u1");
+
+    resolver.resolve(List.of(proxy));
+
+    assertThat(proxy.instructor).isNull();
+    verify(userGrpcClient, never()).getUserByIds(anyList());
+  }
+
+  @Test
+  void rejectsAsynchronousValues() {
+    assertThatThrownBy(() -> resolver.resolve(Mono.just(new CourseDto("u1"))))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> resolver.resolve(CompletableFuture.completedFuture("x")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  static class CourseDto {
+    @UserId("instructor")
+    private final String instructorId;
+
+    private UserInfo instructor;
+
+    CourseDto(String instructorId) {
+      this.instructorId = instructorId;
+    }
+  }
+
+  @ResolveNested
+  static class PageDto {
+    private final List<CourseDto> items;
+    private final CourseDto featured;
+
+    PageDto(List<CourseDto> items, CourseDto featured) {
+      this.items = items;
+      this.featured = featured;
+    }
+  }
+
+  static class ApiResponse<T> {
+    private final T data;
+
+    ApiResponse(T data) {
+      this.data = data;
+    }
+  }
+
+  /** Stands in for an entity association, whose fields must not be read */
+  static class Instructor {
+    private final List<CourseDto> courses;
+
+    Instructor(List<CourseDto> courses) {
+      this.courses = courses;
+    }
+  }
+
+  static class CourseView {
+    @UserId("owner")
+    private final String ownerId;
+
+    private UserInfo owner;
+    private final Instructor author;
+
+    CourseView(String ownerId, Instructor author) {
+      this.ownerId = ownerId;
+      this.author = author;
+    }
+  }
+
+  static class MarkedCourseView {
+    @UserId("owner")
+    private final String ownerId;
+
+    private UserInfo owner;
+
+    @ResolveNested private final Instructor author;
+
+    MarkedCourseView(String ownerId, Instructor author) {
+      this.ownerId = ownerId;
+      this.author = author;
+    }
+  }
+
+  /** Named like a runtime-generated Hibernate proxy class */
+  static class CourseDto$HibernateProxy$x extends CourseDto {
+    CourseDto$HibernateProxy$x(String instructorId) {
+      super(instructorId);
+    }
+  }
+
+  static class Node {
+    @UserId("user")
+    private final String userId;
+
+    private UserInfo user;
+    private Node next;
+
+    Node(String userId) {
+      this.userId = userId;
+    }
+  }
+}
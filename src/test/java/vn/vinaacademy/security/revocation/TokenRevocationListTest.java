@@ -0,0 +1,123 @@
+package vn.vinaacademy.security.revocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.grpc.RevokedToken;
+import com.vinaacademy.grpc.RevokedTokensResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.metrics.SecurityClientMetrics;
+import vn.vinaacademy.security.token.JwtTokens;
+
+class TokenRevocationListTest {
+  private TokenRevocationList revocationList;
+
+  @BeforeEach
+  void setUp() {
+    revocationList = new TokenRevocationList(new SecurityClientMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void rejectsTokenRevokedByJti() {
+    long exp = Instant.now().getEpochSecond() + 3600;
+    String token = token("{\"jti\":\"abc\",\"exp\":" + exp + "}");
+    String other = token("{\"jti\":\"def\",\"exp\":" + exp + "}");
+
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("abc").setExpiresAt(exp)));
+
+    assertThat(revocationList.isRevoked(token, JwtTokens.hash(token))).isTrue();
+    assertThat(revocationList.isRevoked(other, JwtTokens.hash(other))).isFalse();
+    assertThat(revocationList.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsTokenRevokedByHash() {
+    String token = token("{\"sub\":\"user\"}");
+    String hash = JwtTokens.hash(token);
+
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setTokenHash(hash)));
+
+    assertThat(revocationList.isRevoked(token, hash)).isTrue();
+  }
+
+  @Test
+  void ignoresRevocationOfExpiredToken() {
+    long past = Instant.now().getEpochSecond() - 10;
+    String token = token("{\"jti\":\"abc\",\"exp\":" + past + "}");
+
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("abc").setExpiresAt(past)));
+
+    assertThat(revocationList.isRevoked(token, JwtTokens.hash(token))).isFalse();
+    assertThat(revocationList.purgeExpired()).isEqualTo(1);
+    assertThat(revocationList.size()).isZero();
+  }
+
+  @Test
+  void keepsRevocationWithoutExpiryUntilNextSnapshot() {
+    String token = token("{\"jti\":\"abc\"}");
+
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("abc")));
+    assertThat(revocationList.purgeExpired()).isZero();
+    assertThat(revocationList.isRevoked(token, JwtTokens.hash(token))).isTrue();
+
+    revocationList.apply(
+        RevokedTokensResponse.newBuilder().setVersion(2).setFullSnapshot(true).build());
+    assertThat(revocationList.isRevoked(token, JwtTokens.hash(token))).isFalse();
+    assertThat(revocationList.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  void deltasExtendAndSnapshotsReplace() {
+    long exp = Instant.now().getEpochSecond() + 3600;
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("a").setExpiresAt(exp)));
+    revocationList.apply(delta(2, RevokedToken.newBuilder().setJti("b").setExpiresAt(exp)));
+    assertThat(revocationList.size()).isEqualTo(2);
+
+    revocationList.apply(
+        RevokedTokensResponse.newBuilder()
+            .setVersion(3)
+            .setFullSnapshot(true)
+            .addTokens(RevokedToken.newBuilder().setJti("c").setExpiresAt(exp))
+            .build());
+    assertThat(revocationList.size()).isEqualTo(1);
+    String a = token("{\"jti\":\"a\",\"exp\":" + exp + "}");
+    assertThat(revocationList.isRevoked(a, JwtTokens.hash(a))).isFalse();
+  }
+
+  @Test
+  void unreadableTokenIsOnlyMatchedByHash() {
+    long exp = Instant.now().getEpochSecond() + 3600;
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("abc").setExpiresAt(exp)));
+
+    assertThat(revocationList.isRevoked("not-a-jwt", JwtTokens.hash("not-a-jwt"))).isFalse();
+  }
+
+  @Test
+  void matchesTokenReferenceOfAssertion() {
+    long exp = Instant.now().getEpochSecond() + 3600;
+    revocationList.apply(delta(1, RevokedToken.newBuilder().setJti("abc").setExpiresAt(exp)));
+    revocationList.apply(delta(2, RevokedToken.newBuilder().setTokenHash("h1").setExpiresAt(exp)));
+
+    assertThat(revocationList.isRevokedReference(null, "abc")).isTrue();
+    assertThat(revocationList.isRevokedReference("h1", null)).isTrue();
+    assertThat(revocationList.isRevokedReference("h2", "def")).isFalse();
+    assertThat(revocationList.isRevokedReference(null, null)).isFalse();
+  }
+
+  private static RevokedTokensResponse delta(long version, RevokedToken.Builder token) {
+    return RevokedTokensResponse.newBuilder().setVersion(version).addTokens(token).build();
+  }
+
+  /** An unsigned JWT with the given payload, enough for claim peeking */
+  static String token(String payload) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8))
+        + "."
+        + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+        + ".sig";
+  }
+}
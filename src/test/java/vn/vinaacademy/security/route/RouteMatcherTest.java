@@ -0,0 +1,138 @@
+package vn.vinaacademy.security.route;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import vn.vinaacademy.security.properties.SecurityClientProperties;
+
+class RouteMatcherTest {
+
+  @Test
+  void skipsBuiltInRoutes() {
+    RouteMatcher matcher = compile(AuthMode.REQUIRED);
+
+    assertThat(matcher.match("GET", "/actuator/health")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/actuator/health/liveness")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/actuator")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/health")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/ping")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/healthz")).isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/ping/other")).isEqualTo(AuthMode.REQUIRED);
+  }
+
+  @Test
+  void requiresAuthenticationForSecurityClientEndpoint() {
+    RouteMatcher matcher = compile(AuthMode.OPTIONAL);
+
+    assertThat(matcher.match("GET", "/actuator/securityclient")).isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("POST", "/actuator/securityclient/evict-user"))
+        .isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/actuator/info")).isEqualTo(AuthMode.SKIP);
+  }
+
+  @Test
+  void unmatchedPathsUseDefaultMode() {
+    assertThat(compile(AuthMode.OPTIONAL).match("GET", "/api/v1/courses"))
+        .isEqualTo(AuthMode.OPTIONAL);
+    assertThat(compile(AuthMode.REQUIRED).match("GET", "/")).isEqualTo(AuthMode.REQUIRED);
+  }
+
+  @Test
+  void mostSpecificPatternWinsRegardlessOfOrder() {
+    RouteMatcher matcher =
+        compile(
+            AuthMode.OPTIONAL,
+            route("/api/**", AuthMode.REQUIRED),
+            route("/api/*/public", AuthMode.SKIP),
+            route("/api/courses/public", AuthMode.OPTIONAL));
+
+    assertThat(matcher.match("GET", "/api/courses/public")).isEqualTo(AuthMode.OPTIONAL);
+    assertThat(matcher.match("GET", "/api/users/public")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("GET", "/api/users/private")).isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/api")).isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/other")).isEqualTo(AuthMode.OPTIONAL);
+  }
+
+  @Test
+  void wildcardBacktracksToRemainder() {
+    RouteMatcher matcher =
+        compile(
+            AuthMode.OPTIONAL,
+            route("/api/**", AuthMode.REQUIRED),
+            route("/api/*/enroll", AuthMode.SKIP));
+
+    // The wildcard branch matches no rule for a deeper path, so the remainder applies
+    assertThat(matcher.match("POST", "/api/courses/enroll")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("POST", "/api/courses/enroll/now")).isEqualTo(AuthMode.REQUIRED);
+  }
+
+  @Test
+  void methodSpecificRulesTakePrecedenceOnTheSamePattern() {
+    SecurityClientProperties.Route get = route("/api/courses/**", AuthMode.SKIP);
+    get.setMethods(List.of("get"));
+    RouteMatcher matcher =
+        compile(AuthMode.OPTIONAL, get, route("/api/courses/**", AuthMode.REQUIRED));
+
+    assertThat(matcher.match("GET", "/api/courses/1")).isEqualTo(AuthMode.SKIP);
+    assertThat(matcher.match("POST", "/api/courses/1")).isEqualTo(AuthMode.REQUIRED);
+  }
+
+  @Test
+  void configuredRoutesOverrideBuiltInOnes() {
+    RouteMatcher matcher =
+        compile(
+            AuthMode.OPTIONAL,
+            route("/actuator/**", AuthMode.REQUIRED),
+            route("/actuator/health", AuthMode.SKIP));
+
+    assertThat(matcher.match("POST", "/actuator/securityclient/evict-user"))
+        .isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/actuator/health")).isEqualTo(AuthMode.SKIP);
+  }
+
+  @Test
+  void firstDeclaredRuleWinsAmongIdenticalPatterns() {
+    RouteMatcher matcher =
+        compile(
+            AuthMode.OPTIONAL,
+            route("/api/**", AuthMode.SKIP),
+            route("/api/**", AuthMode.REQUIRED));
+
+    assertThat(matcher.match("GET", "/api/x")).isEqualTo(AuthMode.SKIP);
+  }
+
+  @Test
+  void ignoresRepeatedAndTrailingSlashes() {
+    RouteMatcher matcher = compile(AuthMode.OPTIONAL, route("/api/users", AuthMode.REQUIRED));
+
+    assertThat(matcher.match("GET", "/api//users/")).isEqualTo(AuthMode.REQUIRED);
+    assertThat(matcher.match("GET", "/api/users/1")).isEqualTo(AuthMode.OPTIONAL);
+  }
+
+  @Test
+  void rejectsUnsupportedPatterns() {
+    assertThatThrownBy(() -> compile(AuthMode.OPTIONAL, route("api/**", AuthMode.SKIP)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> compile(AuthMode.OPTIONAL, route("/api/**/x", AuthMode.SKIP)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> compile(AuthMode.OPTIONAL, route("/api/v*", AuthMode.SKIP)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static RouteMatcher compile(
+      AuthMode defaultMode, SecurityClientProperties.Route... routes) {
+    SecurityClientProperties.Filter filter = new SecurityClientProperties.Filter();
+    filter.setDefaultMode(defaultMode);
+    filter.setRoutes(List.of(routes));
+    return RouteMatcher.compile(filter);
+  }
+
+  private static SecurityClientProperties.Route route(String pattern, AuthMode mode) {
+    SecurityClientProperties.Route route = new SecurityClientProperties.Route();
+    route.setPattern(pattern);
+    route.setMode(mode);
+    return route;
+  }
+}